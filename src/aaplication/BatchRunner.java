@@ -0,0 +1,196 @@
+package aaplication;
+
+import physics.PhysicsWorld;
+import physics.component.ParticleStore;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Permet d'exécuter une simulation sans interface graphique, le plus rapidement possible, et d'écrire l'état des particules dans un fichier CSV.
+ * Contrairement au ViewController, le runner ne dort pas entre les pas et ne met aucune vue à jour.
+ * <p>
+ * Utilisation : BatchRunner fichier.physicsworld nombreDePas delta_t sortie.csv [algorithme] [intervalleDÉcriture] [tempsMaximal]
+ *
+ * @author Simon Tran
+ */
+public class BatchRunner {
+
+    /**
+     * L'en-tête du fichier CSV
+     */
+    public static final String CSV_HEADER = "step,time,particle,x,y,z,vx,vy,vz,mass,charge";
+
+    private final PhysicsWorld physicsWorld;
+    private Predicate<PhysicsWorld> stopCondition = world -> false;
+    private double time = 0.0;
+    private long stepCount = 0;
+
+
+    /**
+     * Constructeur
+     *
+     * @param physicsWorld Le monde physique à simuler
+     */
+    public BatchRunner(PhysicsWorld physicsWorld) {
+        this.physicsWorld = physicsWorld;
+    }
+
+    /**
+     * Permet de lancer une simulation à partir de la ligne de commande
+     *
+     * @param args les arguments
+     */
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.err.println("Utilisation : BatchRunner fichier." + AppUtil.FILE_EXTENSION + " nombreDePas delta_t sortie.csv [algorithme] [intervalleDÉcriture] [tempsMaximal]");
+            System.exit(1);
+        }
+        System.setProperty("java.awt.headless", "true");
+
+        PhysicsWorld physicsWorld;
+        try {
+            physicsWorld = FileHandler.openWorldAt(new File(args[0]).toURI());
+        } catch (FileNotFoundException e) {
+            System.err.println("Fichier incorrecte: " + args[0]);
+            System.exit(1);
+            return;
+        }
+
+        long steps = Long.parseLong(args[1]);
+        double delta_t = Double.parseDouble(args[2]);
+        if (args.length > 4) {
+            physicsWorld.setAlgorithm(PhysicsWorld.Algorithm.valueOf(args[4].toUpperCase(Locale.ROOT)));
+        }
+        long outputInterval = args.length > 5 ? Long.parseLong(args[5]) : steps;
+
+        BatchRunner runner = new BatchRunner(physicsWorld);
+        if (args.length > 6) {
+            double maximumTime = Double.parseDouble(args[6]);
+            runner.setStopCondition(world -> runner.getTime() >= maximumTime);
+        }
+
+        long start = System.nanoTime();
+        try (Writer writer = new BufferedWriter(new FileWriter(args[3]))) {
+            runner.run(steps, delta_t, writer, outputInterval);
+        } catch (IOException e) {
+            System.err.println("Erreur dans l'écriture du fichier: " + args[3]);
+            System.exit(1);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format(Locale.ROOT, "%d pas en %.3f s (%.0f pas/s), temps simulé: %g s",
+                runner.getStepCount(), seconds, runner.getStepCount() / seconds, runner.getTime()));
+    }
+
+    /**
+     * Permet de faire avancer la simulation d'au plus 'steps' pas ou jusqu'à ce que la condition d'arrêt soit vraie.
+     * L'état des particules est écrit au début, à tous les 'outputInterval' pas et à la fin
+     *
+     * @param steps          Le nombre maximal de pas
+     * @param delta_t        La différence de temps de chaque pas
+     * @param writer         L'endroit où le CSV est écrit. Peut être nul
+     * @param outputInterval Le nombre de pas entre deux écritures. Une valeur nulle ou négative n'écrit qu'au début et à la fin
+     * @throws IOException Si l'écriture échoue
+     */
+    public void run(long steps, double delta_t, Writer writer, long outputInterval) throws IOException {
+        if (writer != null) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            writeState(writer);
+        }
+        long lastWritten = stepCount;
+        for (long i = 0; i < steps && !stopCondition.test(physicsWorld); i++) {
+            step(delta_t);
+            if (writer != null && outputInterval > 0 && stepCount % outputInterval == 0) {
+                writeState(writer);
+                lastWritten = stepCount;
+            }
+        }
+        if (writer != null && lastWritten != stepCount) {
+            writeState(writer);
+        }
+    }
+
+    /**
+     * Permet de calculer un pas de la simulation
+     *
+     * @param delta_t La différence de temps
+     */
+    public void step(double delta_t) {
+        physicsWorld.step(delta_t, time);
+        time += delta_t;
+        stepCount++;
+    }
+
+    /**
+     * Permet d'écrire une ligne par particule contenant le pas, le temps, la position, la vitesse, la masse et la charge
+     *
+     * @param writer L'endroit où le CSV est écrit
+     * @throws IOException Si l'écriture échoue
+     */
+    public void writeState(Writer writer) throws IOException {
+        ParticleStore store = physicsWorld.getParticleStore();
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < store.size(); i++) {
+            line.setLength(0);
+            line.append(stepCount).append(',').append(time).append(',').append(i)
+                    .append(',').append(store.getX()[i]).append(',').append(store.getY()[i]).append(',').append(store.getZ()[i])
+                    .append(',').append(store.getVx()[i]).append(',').append(store.getVy()[i]).append(',').append(store.getVz()[i])
+                    .append(',').append(store.getMass()[i]).append(',').append(store.getCharge()[i]).append('\n');
+            writer.write(line.toString());
+        }
+    }
+
+    /* -------------------Getters & Setters------------------- */
+
+    /**
+     * Permet de définir la condition d'arrêt. Elle est vérifiée avant chaque pas
+     *
+     * @param stopCondition La condition d'arrêt
+     */
+    public void setStopCondition(Predicate<PhysicsWorld> stopCondition) {
+        this.stopCondition = stopCondition;
+    }
+
+    /**
+     * Permet d'obtenir le monde physique simulé
+     *
+     * @return Le monde physique
+     */
+    public PhysicsWorld getPhysicsWorld() {
+        return physicsWorld;
+    }
+
+    /**
+     * Retourne le temps de la simulation
+     *
+     * @return Le temps de la simulation
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * Définit le temps de la simulation
+     *
+     * @param time Le temps
+     */
+    public void setTime(double time) {
+        this.time = time;
+    }
+
+    /**
+     * Retourne le nombre de pas calculés
+     *
+     * @return Le nombre de pas
+     */
+    public long getStepCount() {
+        return stepCount;
+    }
+}
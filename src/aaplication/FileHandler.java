@@ -199,7 +199,7 @@ public class FileHandler {
      */
     public static void serializeWorld(PhysicsWorld world, URI path) {
         ArrayList<ArrayList> objectsToWrite = new ArrayList<>();
-        objectsToWrite.add(PARTICLE_LIST_INDEX, world.getParticleList());
+        objectsToWrite.add(PARTICLE_LIST_INDEX, new ArrayList<>(world.getParticleList()));
         objectsToWrite.add(COMPONENT_LIST_INDEX, world.getComponentList());
         objectsToWrite.add(PARTICLE_GENERATOR_LIST_INDEX, world.getParticleGeneratorsList());
 
@@ -12,13 +12,29 @@ import view.FieldMapView;
  */
 public class FieldMapViewController extends ViewController {
 
+    /**
+     * Le contrôleur qui simule le monde physique, ou null si le monde est simulé par ce contrôleur
+     */
+    private final ViewController simulationController;
+
 
     /**
      * Permet de créer un FieldMapViewController
      * @param physicsWorld  Le monde physique
      */
     public FieldMapViewController(PhysicsWorld physicsWorld) {
+        this(physicsWorld, null);
+    }
+
+    /**
+     * Permet de créer un FieldMapViewController pour un monde simulé par un autre contrôleur.
+     * Les calculs de la carte sont alors des commandes de ce contrôleur, appliquées par son fil entre deux pas
+     * @param physicsWorld  Le monde physique
+     * @param simulationController Le contrôleur qui simule le monde, ou null
+     */
+    public FieldMapViewController(PhysicsWorld physicsWorld, ViewController simulationController) {
         super(physicsWorld);
+        this.simulationController = simulationController;
     }
 
 
@@ -30,6 +46,14 @@ public class FieldMapViewController extends ViewController {
         getFieldMapView().setFieldType(fieldType);
     }
 
+    /**
+     * Permet de définir l'échelle utilisée pour convertir les intensités en couleurs
+     * @param intensityScale L'échelle des intensités
+     */
+    public void setIntensityScale(FieldMapView.IntensityScale intensityScale) {
+        getFieldMapView().setIntensityScale(intensityScale);
+    }
+
     /**
      * Permet de mettre à jour les couleurs
      */
@@ -40,12 +64,43 @@ public class FieldMapViewController extends ViewController {
     /* ------------------Méthodes "Override"------------------- */
 
     /**
-     * Permet de mettre à jour la vue en fonction des nouvelles valeurs du monde physique
+     * Permet de mettre à jour la vue en fonction des nouvelles valeurs du monde physique.
+     * Les intensités ne sont recalculées que si le monde ou la vue ont changé.
+     * Le calcul est une commande : il est fait par le fil qui simule le monde, après la mise à jour des structures du monde
      */
     @Override
     public void updateView() {
-        getFieldMapView().calculateFieldValues(getPhysicsWorld());
-        getFieldMapView().repaint();
+        PhysicsWorld physicsWorld = getPhysicsWorld();
+        execute(() -> {
+            physicsWorld.updateCaches();
+            getFieldMapView().updateFieldValues(physicsWorld);
+            getFieldMapView().repaint();
+        });
+    }
+
+    /**
+     * Permet de modifier le monde physique de façon sécuritaire. Si le monde est simulé par un autre contrôleur, la commande lui est confiée
+     *
+     * @param command La modification
+     */
+    @Override
+    public void execute(Runnable command) {
+        if (simulationController != null) {
+            simulationController.execute(command);
+        }
+        else {
+            super.execute(command);
+        }
+    }
+
+    /**
+     * Permet de savoir si aucun pas n'est en cours, selon le contrôleur qui simule le monde
+     *
+     * @return Vrai si aucun pas n'est en cours
+     */
+    @Override
+    public boolean isIdle() {
+        return simulationController != null ? simulationController.isIdle() : super.isIdle();
     }
 
 
@@ -4,6 +4,7 @@ import physics.component.PhysicComponent;
 import view.SimulationView;
 import view.dessinable.DrawableView;
 import view.dessinable.componentview.ComponentView;
+import view.dessinable.componentview.ParticleView;
 import view.dessinable.componentview.WorldView;
 
 import java.util.ArrayList;
@@ -59,7 +60,7 @@ public class SimulationViewController extends ViewController {
      * @param componentView La vue du composant
      */
     public void addToWorld(ComponentView componentView) {
-        getPhysicsWorld().add(componentView.getPhysicComponent());
+        execute(() -> getPhysicsWorld().add(componentView.getPhysicComponent()));
         getWorldView().addChild(componentView);
         updateView();
     }
@@ -68,6 +69,7 @@ public class SimulationViewController extends ViewController {
      * Permet de reconstruire la vue du monde
      */
     public void rebuildWorld(){
+        requestSnapshot();
         getSimulationView().setWorldView(new WorldView(getSimulationView(), getPhysicsWorld()));
         updateView();
     }
@@ -93,10 +95,19 @@ public class SimulationViewController extends ViewController {
      */
     @Override
     public void removeFromWorld(PhysicComponent component) {
-        getPhysicsWorld().remove(component);
+        super.removeFromWorld(component);
         getSimulationView().getWorldView().removeChildForComponent(component);
     }
 
+    /**
+     * Permet de retirer toutes les particules du monde et de la vue de la simulation
+     */
+    @Override
+    public void removeAllParticles() {
+        getWorldView().getViewList().removeIf(view -> view instanceof ParticleView);
+        super.removeAllParticles();
+    }
+
 
     /* -------------------Getters & Setters------------------- */
 
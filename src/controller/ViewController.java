@@ -5,6 +5,10 @@ import physics.PhysicsWorldListener;
 import physics.component.PhysicComponent;
 import view.View;
 
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
 /**
  * Permet de faire le lien entre une vue (View) et un monde physique (PhysicsWorld)
  * Cette classe contient les méthodes qui permettent de mettre à jour  la vue en fonction du monde physique
@@ -14,18 +18,51 @@ import view.View;
  */
 public class ViewController implements Runnable {
     public static double DEFAULT_STEP = 1e-8;
+
+    /**
+     * Le nombre d'images affichées par seconde par défaut
+     */
+    public static final int DEFAULT_FRAME_RATE = 60;
+
+    /**
+     * La fraction par défaut de chaque image pendant laquelle la simulation peut calculer des pas
+     */
+    public static final double DEFAULT_CPU_BUDGET = 0.75;
+
     private View view;
     private PhysicsWorld physicsWorld;
 
 
-    private boolean simulating = false;
-    private boolean paused = true;
+    private volatile boolean simulating = false;
+    private volatile boolean paused = true;
 
-    public static final long SLEEP_TIME = 5;
+    /**
+     * Vrai lorsque le fil de la simulation calcule des pas
+     */
+    private volatile boolean stepping = false;
+
+    /**
+     * Les modifications du monde physique en attente. Elles sont appliquées par le fil qui possède le monde, entre deux pas
+     */
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Le verrou qui protège le passage entre un pas et l'arrêt de la simulation : 'stepping' n'y change que lorsque la file est vidée,
+     * et une modification y est soit appliquée immédiatement, soit ajoutée à la file. Aucune modification ne peut donc rester dans la file pendant l'arrêt
+     */
+    private final Object commandLock = new Object();
 
     private double step = DEFAULT_STEP;
     private double time = 0.0;
 
+    private int frameRate = DEFAULT_FRAME_RATE;
+    private double cpuBudget = DEFAULT_CPU_BUDGET;
+
+    /**
+     * Le moment, en nanosecondes, de la dernière mise à jour de la vue
+     */
+    private volatile long lastViewUpdate = System.nanoTime();
+
     private Thread thread = null;
 
 
@@ -49,6 +86,9 @@ public class ViewController implements Runnable {
             start();
         }
         paused = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
     }
 
     /**
@@ -60,18 +100,55 @@ public class ViewController implements Runnable {
 
 
     /**
-     * Contient la boucle infinie de la simulation
+     * Contient la boucle infinie de la simulation.
+     * À chaque image, la simulation calcule autant de pas que le permet le budget de temps, applique les modifications en attente, publie une image de l'état des particules,
+     * met la vue à jour une seule fois, puis attend l'image suivante. Le thread est suspendu tant que la simulation est sur pause,
+     * après avoir appliqué les modifications ajoutées pendant le dernier pas
      */
     @Override
     public void run() {
+        long nextFrame = System.nanoTime();
         while (simulating) {
-            if (!paused) {
+            boolean applied = false;
+            synchronized (commandLock) {
+                /* 'stepping' est défini avec la lecture de 'paused' afin que isIdle() ne soit jamais vrai pendant un pas */
+                stepping = !paused;
+                if (!stepping) {
+                    applied = drainCommands();
+                    if (applied) {
+                        getPhysicsWorld().publishSnapshot(getTime());
+                    }
+                }
+            }
+            if (!stepping) {
+                if (applied) {
+                    refreshView();
+                }
+                LockSupport.park(this);
+                nextFrame = System.nanoTime();
+                continue;
+            }
+            long framePeriod = getFramePeriod();
+            long deadline = nextFrame + (long) (framePeriod * cpuBudget);
+            do {
+                drainCommands();
                 step();
+            } while (!paused && System.nanoTime() < deadline);
+            synchronized (commandLock) {
+                drainCommands();
+                getPhysicsWorld().publishSnapshot(getTime());
+                stepping = false;
             }
-            try {
-                Thread.sleep(SLEEP_TIME);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+            refreshView();
+
+            nextFrame += framePeriod;
+            long wait = nextFrame - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+            }
+            else {
+                /* La simulation est en retard, on ne tente pas de rattraper les images perdues */
+                nextFrame = System.nanoTime();
             }
         }
     }
@@ -84,6 +161,33 @@ public class ViewController implements Runnable {
         getView().resize();
     }
 
+    /**
+     * Permet de mettre à jour la vue et de noter le moment de la mise à jour
+     */
+    private void refreshView() {
+        lastViewUpdate = System.nanoTime();
+        updateView();
+    }
+
+    /**
+     * Permet de mettre à jour la vue seulement si une image complète s'est écoulée depuis la dernière mise à jour.
+     * Cela évite de redessiner la vue à chaque pas lorsque le monde physique est simulé par un autre contrôleur
+     */
+    private void requestViewUpdate() {
+        if (System.nanoTime() - lastViewUpdate >= getFramePeriod()) {
+            refreshView();
+        }
+    }
+
+    /**
+     * Permet d'obtenir la durée d'une image
+     *
+     * @return La durée d'une image en nanosecondes
+     */
+    private long getFramePeriod() {
+        return TimeUnit.SECONDS.toNanos(1) / frameRate;
+    }
+
     /**
      * Constructeur par défaut
      */
@@ -125,13 +229,72 @@ public class ViewController implements Runnable {
 
 
 
+    /**
+     * Permet de modifier le monde physique de façon sécuritaire.
+     * Si la méthode est appelée par le fil de la simulation, la modification est appliquée immédiatement.
+     * Si la simulation est arrêtée, la modification est appliquée immédiatement et une nouvelle image de l'état des particules est publiée.
+     * Sinon, elle est ajoutée à la file des modifications que le fil de la simulation applique entre deux pas, dans l'ordre où elles ont été ajoutées
+     *
+     * @param command La modification
+     */
+    public void execute(Runnable command) {
+        if (Thread.currentThread() == thread) {
+            command.run();
+            return;
+        }
+        synchronized (commandLock) {
+            if (isIdle()) {
+                drainCommands();
+                command.run();
+                getPhysicsWorld().publishSnapshot(getTime());
+            }
+            else {
+                commands.add(command);
+            }
+        }
+    }
+
+    /**
+     * Permet d'appliquer les modifications en attente.
+     * Doit être appelée par le fil de la simulation, ou par l'interface lorsque la simulation est arrêtée (voir isIdle())
+     */
+    public void applyCommands() {
+        synchronized (commandLock) {
+            drainCommands();
+        }
+    }
+
+    /**
+     * Permet d'appliquer les modifications en attente.
+     * Doit être appelée par le fil de la simulation pendant un pas, puisque l'interface n'applique alors aucune modification, ou avec le verrou des modifications
+     *
+     * @return Vrai si au moins une modification a été appliquée
+     */
+    private boolean drainCommands() {
+        boolean applied = false;
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+            command.run();
+            applied = true;
+        }
+        return applied;
+    }
+
+    /**
+     * Permet de publier une nouvelle image de l'état des particules par le fil qui possède le monde,
+     * par exemple lorsque le monde a été remplacé ou modifié avant le début de la simulation
+     */
+    public void requestSnapshot() {
+        execute(() -> getPhysicsWorld().publishSnapshot(getTime()));
+    }
+
     /**
      * Permet de supprimer un composant du monde physique
      *
      * @param component Le composant
      */
     public void removeFromWorld(PhysicComponent component) {
-        getPhysicsWorld().remove(component);
+        execute(() -> getPhysicsWorld().remove(component));
     }
 
 
@@ -139,10 +302,10 @@ public class ViewController implements Runnable {
      * Permet de retirer toutes les particules
      */
     public void removeAllParticles() {
-        while (!physicsWorld.getParticleList().isEmpty()) {
-            removeFromWorld(getPhysicsWorld().getParticleList().get(0));
-        }
-        updateView();
+        execute(() -> {
+            getPhysicsWorld().clearParticles();
+            updateView();
+        });
     }
 
 
@@ -160,7 +323,7 @@ public class ViewController implements Runnable {
 
     /**
      * Permet de définir le monde physique
-     * La méthode associe aussi un écouteur afin de mettre à jour la vue lorsque le monde physique se met à jour
+     * La méthode associe aussi un écouteur afin de mettre à jour la vue lorsque le monde physique se met à jour, au plus une fois par image
      *
      * @param physicsWorld Le nouveau monde physique
      */
@@ -169,15 +332,16 @@ public class ViewController implements Runnable {
         physicsWorld.addPhysicsWorldListener(new PhysicsWorldListener() {
             @Override
             public void step(double delta_t) {
-                updateView();
+                requestViewUpdate();
             }
 
             @Override
             public void particleGenerated() {
-                updateView();
+                requestViewUpdate();
             }
 
         });
+        requestSnapshot();
     }
 
 
@@ -217,6 +381,43 @@ public class ViewController implements Runnable {
         this.step = step;
     }
 
+    /**
+     * Retourne le nombre d'images affichées par seconde
+     *
+     * @return Le nombre d'images par seconde
+     */
+    public int getFrameRate() {
+        return frameRate;
+    }
+
+    /**
+     * Définit le nombre d'images affichées par seconde. Il y a au moins une image par seconde
+     *
+     * @param frameRate Le nombre d'images par seconde
+     */
+    public void setFrameRate(int frameRate) {
+        this.frameRate = Math.max(1, frameRate);
+    }
+
+    /**
+     * Retourne la fraction de chaque image pendant laquelle la simulation peut calculer des pas
+     *
+     * @return Le budget de temps
+     */
+    public double getCpuBudget() {
+        return cpuBudget;
+    }
+
+    /**
+     * Définit la fraction de chaque image pendant laquelle la simulation peut calculer des pas.
+     * Le reste de l'image est laissé à l'affichage. Au moins un pas est calculé à chaque image, peu importe le budget
+     *
+     * @param cpuBudget Le budget de temps, entre 0 et 1
+     */
+    public void setCpuBudget(double cpuBudget) {
+        this.cpuBudget = Math.max(0.0, Math.min(1.0, cpuBudget));
+    }
+
     /**
      * Permet d'obtenir si on est en cours de simulation
      *
@@ -235,6 +436,16 @@ public class ViewController implements Runnable {
         return paused;
     }
 
+    /**
+     * Permet de savoir si la simulation est sur pause et que le fil de la simulation a terminé son dernier pas.
+     * Le monde physique peut alors être lu et modifié par l'interface
+     *
+     * @return Vrai si aucun pas n'est en cours
+     */
+    public boolean isIdle() {
+        return paused && !stepping;
+    }
+
     /**
      * Retourne le temps de la simulation
      * @return Le temps de la simulation
@@ -96,7 +96,8 @@ public class SimulationControls extends JPanel {
                     getController().pause();
                 }
                 else {
-                    getController().step();
+                    /* Le pas est une modification : il n'est jamais calculé pendant que le fil de la simulation termine sa dernière image */
+                    getController().execute(getController()::step);
                 }
             }
         });
@@ -0,0 +1,174 @@
+package physics;
+
+import math.SVector3d;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Le point où une particule traverse le bord d'un rectangle pendant un pas.
+ * La trajectoire pendant le pas est approchée par la courbe d'Hermite cubique qui passe par les positions au début et à la fin du pas
+ * avec les vitesses à ces positions, et le point de traversée y est trouvé par bissection.
+ * L'erreur sur le point de traversée ne dépend donc plus de la différence de temps que par l'erreur de cette courbe, qui est d'ordre 4.
+ *
+ * @author Simon Tran
+ */
+public class BoundaryCrossing {
+
+    /**
+     * Le nombre de bissections faites sur la fraction du pas. Après 50 bissections, la fraction est connue à 2^-50 près
+     */
+    private static final int BISECTION_ITERATIONS = 50;
+
+    /**
+     * Le nombre de valeurs de l'état d'une particule passé à find(Rectangle2D, double[], double, double) : la position et la vitesse au début et à la fin du pas
+     */
+    public static final int STATE_SIZE = 12;
+
+    /**
+     * L'index de la position à la fin du pas dans l'état
+     */
+    private static final int END = 6;
+
+    private final boolean entering;
+    private final double time;
+    private final SVector3d position, speed;
+
+
+    /**
+     * Constructeur
+     *
+     * @param entering Vrai si la particule entre dans le rectangle, faux si elle en sort
+     * @param time     Le temps de la traversée
+     * @param position La position de la traversée
+     * @param speed    La vitesse au moment de la traversée
+     */
+    public BoundaryCrossing(boolean entering, double time, SVector3d position, SVector3d speed) {
+        this.entering = entering;
+        this.time = time;
+        this.position = position;
+        this.speed = speed;
+    }
+
+    /**
+     * Permet de trouver le point où la particule traverse le bord du rectangle pendant un pas.
+     * Si la particule traverse le bord plusieurs fois pendant le pas, un des points de traversée est retourné
+     *
+     * @param bounds        Le rectangle
+     * @param startPosition La position au début du pas
+     * @param startSpeed    La vitesse au début du pas
+     * @param endPosition   La position à la fin du pas
+     * @param endSpeed      La vitesse à la fin du pas
+     * @param time          Le temps au début du pas
+     * @param delta_t       La différence de temps du pas
+     * @return Le point de traversée, ou null si la particule est dans le rectangle au début et à la fin du pas, ou à l'extérieur aux deux
+     */
+    public static BoundaryCrossing find(Rectangle2D bounds, SVector3d startPosition, SVector3d startSpeed, SVector3d endPosition, SVector3d endSpeed,
+                                        double time, double delta_t) {
+        double[] state = {startPosition.getX(), startPosition.getY(), startPosition.getZ(), startSpeed.getX(), startSpeed.getY(), startSpeed.getZ(),
+                endPosition.getX(), endPosition.getY(), endPosition.getZ(), endSpeed.getX(), endSpeed.getY(), endSpeed.getZ()};
+        return find(bounds, state, time, delta_t);
+    }
+
+    /**
+     * Permet de trouver le point où la particule traverse le bord du rectangle pendant un pas, sans allocation tant que le bord n'est pas traversé.
+     * Si la particule traverse le bord plusieurs fois pendant le pas, un des points de traversée est retourné
+     *
+     * @param bounds  Le rectangle
+     * @param state   L'état de la particule, de taille STATE_SIZE : {x, y, z, vx, vy, vz} au début du pas suivis de {x, y, z, vx, vy, vz} à la fin du pas
+     * @param time    Le temps au début du pas
+     * @param delta_t La différence de temps du pas
+     * @return Le point de traversée, ou null si la particule est dans le rectangle au début et à la fin du pas, ou à l'extérieur aux deux
+     */
+    public static BoundaryCrossing find(Rectangle2D bounds, double[] state, double time, double delta_t) {
+        boolean startInside = bounds.contains(state[0], state[1]);
+        if (startInside == bounds.contains(state[END], state[END + 1])) {
+            return null;
+        }
+
+        /* La fraction 'low' est toujours du même côté du bord que le début du pas, et 'high' du même côté que la fin */
+        double low = 0.0, high = 1.0;
+        for (int i = 0; i < BISECTION_ITERATIONS; i++) {
+            double middle = 0.5 * (low + high);
+            if (bounds.contains(interpolate(state, delta_t, middle, 0), interpolate(state, delta_t, middle, 1)) == startInside) {
+                low = middle;
+            }
+            else {
+                high = middle;
+            }
+        }
+
+        SVector3d position = new SVector3d(interpolate(state, delta_t, high, 0), interpolate(state, delta_t, high, 1), interpolate(state, delta_t, high, 2));
+        SVector3d speed = new SVector3d(derivative(state, delta_t, high, 0) / delta_t, derivative(state, delta_t, high, 1) / delta_t,
+                derivative(state, delta_t, high, 2) / delta_t);
+        return new BoundaryCrossing(!startInside, time + high * delta_t, position, speed);
+    }
+
+    /**
+     * Permet d'évaluer une composante de la courbe d'Hermite cubique.
+     * Les tangentes sont les vitesses multipliées par delta_t
+     *
+     * @param state   L'état de la particule au début et à la fin du pas
+     * @param delta_t La différence de temps du pas
+     * @param s       La fraction du pas, entre 0 et 1
+     * @param k       L'index de la composante
+     * @return La composante de la position
+     */
+    private static double interpolate(double[] state, double delta_t, double s, int k) {
+        double s2 = s * s, s3 = s2 * s;
+        return (2 * s3 - 3 * s2 + 1) * state[k] + (s3 - 2 * s2 + s) * (state[3 + k] * delta_t)
+                + (-2 * s3 + 3 * s2) * state[END + k] + (s3 - s2) * (state[END + 3 + k] * delta_t);
+    }
+
+    /**
+     * Permet d'évaluer une composante de la dérivée de la courbe d'Hermite cubique par rapport à la fraction du pas
+     *
+     * @param state   L'état de la particule au début et à la fin du pas
+     * @param delta_t La différence de temps du pas
+     * @param s       La fraction du pas, entre 0 et 1
+     * @param k       L'index de la composante
+     * @return La composante de la dérivée
+     */
+    private static double derivative(double[] state, double delta_t, double s, int k) {
+        double s2 = s * s;
+        return (6 * s2 - 6 * s) * state[k] + (3 * s2 - 4 * s + 1) * (state[3 + k] * delta_t)
+                + (-6 * s2 + 6 * s) * state[END + k] + (3 * s2 - 2 * s) * (state[END + 3 + k] * delta_t);
+    }
+
+    /* -------------------Getters------------------- */
+
+    /**
+     * Permet de savoir si la particule entre dans le rectangle ou en sort
+     *
+     * @return Vrai si la particule entre dans le rectangle
+     */
+    public boolean isEntering() {
+        return entering;
+    }
+
+    /**
+     * Retourne le temps de la traversée
+     *
+     * @return Le temps (s)
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * Retourne la position de la traversée
+     *
+     * @return La position
+     */
+    public SVector3d getPosition() {
+        return position;
+    }
+
+    /**
+     * Retourne la vitesse au moment de la traversée
+     *
+     * @return La vitesse
+     */
+    public SVector3d getSpeed() {
+        return speed;
+    }
+}
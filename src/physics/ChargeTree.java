@@ -0,0 +1,316 @@
+package physics;
+
+import physics.component.Particle;
+import physics.component.ParticleStore;
+
+import java.util.Arrays;
+
+/**
+ * Arbre quaternaire (Barnes–Hut) qui permet d'approximer le champ électrique créé par un grand nombre de particules.
+ * Chaque noeud contient la charge totale positive et la charge totale négative de ses particules ainsi que le centre de chacune.
+ * Un noeud suffisamment loin du point évalué, selon l'angle d'ouverture, est remplacé par ces deux charges ponctuelles.
+ * Séparer les charges selon leur signe garde l'approximation précise pour les groupes presque neutres, comme un plasma.
+ * L'arbre est une image des particules au moment où il est construit : il doit être reconstruit lorsque les particules bougent.
+ *
+ * @author Simon Tran
+ */
+public class ChargeTree {
+
+    /**
+     * Le nombre maximal de particules dans une feuille
+     */
+    private static final int LEAF_SIZE = 8;
+
+    /**
+     * La profondeur maximale de l'arbre. Les particules superposées restent dans une même feuille
+     */
+    private static final int MAX_DEPTH = 32;
+
+    /* Les particules dans l'ordre de l'arbre */
+    private int count = 0;
+    private int[] order = new int[0];
+    private double[] x = new double[0], y = new double[0], z = new double[0], charge = new double[0];
+
+    /**
+     * La position de chaque particule du magasin dans l'ordre de l'arbre, ou -1 si elle n'en fait pas partie
+     */
+    private int[] rank = new int[0];
+
+    /* Les noeuds */
+    private int nodeCount = 0;
+    private double[] positiveX = new double[0], positiveY = new double[0], positiveZ = new double[0], positiveCharge = new double[0];
+    private double[] negativeX = new double[0], negativeY = new double[0], negativeZ = new double[0], negativeCharge = new double[0];
+    private double[] nodeSize = new double[0];
+    private int[] nodeStart = new int[0], nodeEnd = new int[0], nodeChild = new int[0];
+
+
+    /**
+     * Permet de construire l'arbre à partir des particules interactives du magasin qui créent un champ.
+     * Les tableaux de l'arbre sont réutilisés d'une construction à l'autre
+     *
+     * @param store Le magasin de particules
+     */
+    public void build(ParticleStore store) {
+        int size = store.size();
+        if (rank.length < size) {
+            rank = new int[size];
+        }
+        Arrays.fill(rank, -1);
+
+        count = 0;
+        for (int i = 0; i < size; i++) {
+            if (store.hasFlag(i, ParticleStore.INTERACTIVE) && store.hasFlag(i, ParticleStore.CREATES_FIELD)) {
+                count++;
+            }
+        }
+        if (order.length < count) {
+            order = new int[count];
+            x = new double[count];
+            y = new double[count];
+            z = new double[count];
+            charge = new double[count];
+        }
+
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        int index = 0;
+        for (int i = 0; i < size; i++) {
+            if (store.hasFlag(i, ParticleStore.INTERACTIVE) && store.hasFlag(i, ParticleStore.CREATES_FIELD)) {
+                order[index] = i;
+                x[index] = store.getX()[i];
+                y[index] = store.getY()[i];
+                z[index] = store.getZ()[i];
+                charge[index] = store.getCharge()[i];
+                minX = Math.min(minX, x[index]);
+                minY = Math.min(minY, y[index]);
+                maxX = Math.max(maxX, x[index]);
+                maxY = Math.max(maxY, y[index]);
+                index++;
+            }
+        }
+
+        nodeCount = 0;
+        if (count == 0) {
+            return;
+        }
+        double side = Math.max(maxX - minX, maxY - minY);
+        ensureNodeCapacity(1);
+        nodeCount = 1;
+        buildNode(0, 0, count, minX, minY, side, 0);
+
+        for (int i = 0; i < count; i++) {
+            rank[order[i]] = i;
+        }
+    }
+
+    /**
+     * Permet de construire le noeud 'node' qui contient les particules entre 'start' (inclus) et 'end' (exclus)
+     *
+     * @param node  L'index du noeud
+     * @param start L'index de la première particule
+     * @param end   L'index qui suit la dernière particule
+     * @param minX  La coordonnée x du coin du carré du noeud
+     * @param minY  La coordonnée y du coin du carré du noeud
+     * @param side  Le côté du carré du noeud
+     * @param depth La profondeur du noeud
+     */
+    private void buildNode(int node, int start, int end, double minX, double minY, double side, int depth) {
+        double positive = 0.0, positiveCenterX = 0.0, positiveCenterY = 0.0, positiveCenterZ = 0.0;
+        double negative = 0.0, negativeCenterX = 0.0, negativeCenterY = 0.0, negativeCenterZ = 0.0;
+        for (int i = start; i < end; i++) {
+            double q = charge[i];
+            if (q > 0) {
+                positive += q;
+                positiveCenterX += q * x[i];
+                positiveCenterY += q * y[i];
+                positiveCenterZ += q * z[i];
+            }
+            else if (q < 0) {
+                negative += q;
+                negativeCenterX += q * x[i];
+                negativeCenterY += q * y[i];
+                negativeCenterZ += q * z[i];
+            }
+        }
+        positiveCharge[node] = positive;
+        negativeCharge[node] = negative;
+        if (positive != 0.0) {
+            positiveX[node] = positiveCenterX / positive;
+            positiveY[node] = positiveCenterY / positive;
+            positiveZ[node] = positiveCenterZ / positive;
+        }
+        if (negative != 0.0) {
+            negativeX[node] = negativeCenterX / negative;
+            negativeY[node] = negativeCenterY / negative;
+            negativeZ[node] = negativeCenterZ / negative;
+        }
+        nodeSize[node] = side;
+        nodeStart[node] = start;
+        nodeEnd[node] = end;
+        nodeChild[node] = -1;
+
+        if (end - start <= LEAF_SIZE || depth >= MAX_DEPTH) {
+            return;
+        }
+
+        /* Les particules sont séparées en quatre quadrants */
+        double half = side / 2;
+        double middleX = minX + half, middleY = minY + half;
+        int splitX = partition(start, end, true, middleX);
+        int lowerSplit = partition(start, splitX, false, middleY);
+        int upperSplit = partition(splitX, end, false, middleY);
+
+        int child = nodeCount;
+        ensureNodeCapacity(nodeCount + 4);
+        nodeCount += 4;
+        nodeChild[node] = child;
+        buildNode(child, start, lowerSplit, minX, minY, half, depth + 1);
+        buildNode(child + 1, lowerSplit, splitX, minX, middleY, half, depth + 1);
+        buildNode(child + 2, splitX, upperSplit, middleX, minY, half, depth + 1);
+        buildNode(child + 3, upperSplit, end, middleX, middleY, half, depth + 1);
+    }
+
+    /**
+     * Permet de placer au début de l'intervalle les particules dont la coordonnée est plus petite que 'middle'
+     *
+     * @param start  L'index de la première particule
+     * @param end    L'index qui suit la dernière particule
+     * @param alongX Vrai pour comparer la coordonnée x, faux pour la coordonnée y
+     * @param middle La valeur qui sépare les particules
+     * @return L'index de la première particule dont la coordonnée est plus grande ou égale à 'middle'
+     */
+    private int partition(int start, int end, boolean alongX, double middle) {
+        int split = start;
+        for (int i = start; i < end; i++) {
+            double value = alongX ? x[i] : y[i];
+            if (value < middle) {
+                swap(i, split);
+                split++;
+            }
+        }
+        return split;
+    }
+
+    private void swap(int i, int j) {
+        if (i == j) {
+            return;
+        }
+        int tempOrder = order[i];
+        order[i] = order[j];
+        order[j] = tempOrder;
+        double temp = x[i];
+        x[i] = x[j];
+        x[j] = temp;
+        temp = y[i];
+        y[i] = y[j];
+        y[j] = temp;
+        temp = z[i];
+        z[i] = z[j];
+        z[j] = temp;
+        temp = charge[i];
+        charge[i] = charge[j];
+        charge[j] = temp;
+    }
+
+    private void ensureNodeCapacity(int capacity) {
+        if (capacity <= nodeStart.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, nodeStart.length * 2);
+        positiveX = Arrays.copyOf(positiveX, newCapacity);
+        positiveY = Arrays.copyOf(positiveY, newCapacity);
+        positiveZ = Arrays.copyOf(positiveZ, newCapacity);
+        positiveCharge = Arrays.copyOf(positiveCharge, newCapacity);
+        negativeX = Arrays.copyOf(negativeX, newCapacity);
+        negativeY = Arrays.copyOf(negativeY, newCapacity);
+        negativeZ = Arrays.copyOf(negativeZ, newCapacity);
+        negativeCharge = Arrays.copyOf(negativeCharge, newCapacity);
+        nodeSize = Arrays.copyOf(nodeSize, newCapacity);
+        nodeStart = Arrays.copyOf(nodeStart, newCapacity);
+        nodeEnd = Arrays.copyOf(nodeEnd, newCapacity);
+        nodeChild = Arrays.copyOf(nodeChild, newCapacity);
+    }
+
+    /**
+     * Permet d'additionner au tableau 'field' le champ électrique créé au point (x, y, z) par les particules de l'arbre.
+     * Un noeud est approximé par ses charges positive et négative lorsque son côté divisé par sa distance au point est plus petit que l'angle d'ouverture.
+     * Le champ de la particule 'sourceIndex' n'est pas compté. La méthode ne crée aucun objet et peut être appelée par plusieurs fils d'exécution
+     *
+     * @param x            La composante x de la position absolue
+     * @param y            La composante y de la position absolue
+     * @param z            La composante z de la position absolue
+     * @param sourceIndex  L'index dans le magasin de la particule pour laquelle le champ est calculé, ou -1
+     * @param openingAngle L'angle d'ouverture. Avec un angle nul, le champ est calculé exactement
+     * @param field        Le tableau [x, y, z] auquel le champ est additionné
+     */
+    public void addElectricField(double x, double y, double z, int sourceIndex, double openingAngle, double[] field) {
+        if (nodeCount == 0) {
+            return;
+        }
+        int sourceRank = sourceIndex >= 0 && sourceIndex < rank.length ? rank[sourceIndex] : -1;
+        addElectricField(0, x, y, z, sourceRank, openingAngle, field);
+    }
+
+    private void addElectricField(int node, double x, double y, double z, int sourceRank, double openingAngle, double[] field) {
+        int start = nodeStart[node], end = nodeEnd[node];
+        if (start == end) {
+            return;
+        }
+        int child = nodeChild[node];
+        if (child < 0) {
+            for (int i = start; i < end; i++) {
+                if (i != sourceRank) {
+                    Particle.addElectricField(charge[i], this.x[i], this.y[i], this.z[i], x, y, z, field);
+                }
+            }
+            return;
+        }
+        /* Un noeud qui contient la particule source est toujours ouvert afin de ne pas compter son propre champ */
+        if ((sourceRank < start || sourceRank >= end) && isFar(node, x, y, z, openingAngle)) {
+            if (positiveCharge[node] != 0.0) {
+                Particle.addElectricField(positiveCharge[node], positiveX[node], positiveY[node], positiveZ[node], x, y, z, field);
+            }
+            if (negativeCharge[node] != 0.0) {
+                Particle.addElectricField(negativeCharge[node], negativeX[node], negativeY[node], negativeZ[node], x, y, z, field);
+            }
+            return;
+        }
+        for (int i = 0; i < 4; i++) {
+            addElectricField(child + i, x, y, z, sourceRank, openingAngle, field);
+        }
+    }
+
+    /**
+     * Permet de savoir si le noeud est assez loin du point pour être approximé, c'est-à-dire si son côté divisé par la distance à chacun de ses centres est plus petit que l'angle d'ouverture
+     *
+     * @param node         Le noeud
+     * @param x            La composante x du point
+     * @param y            La composante y du point
+     * @param z            La composante z du point
+     * @param openingAngle L'angle d'ouverture
+     * @return Vrai si le noeud peut être approximé
+     */
+    private boolean isFar(int node, double x, double y, double z, double openingAngle) {
+        double limit = nodeSize[node] / openingAngle;
+        if (positiveCharge[node] != 0.0 && distance(positiveX[node], positiveY[node], positiveZ[node], x, y, z) <= limit) {
+            return false;
+        }
+        return negativeCharge[node] == 0.0 || distance(negativeX[node], negativeY[node], negativeZ[node], x, y, z) > limit;
+    }
+
+    private static double distance(double x1, double y1, double z1, double x2, double y2, double z2) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        double dz = z2 - z1;
+        return Math.sqrt((dx * dx) + (dy * dy) + (dz * dz));
+    }
+
+    /**
+     * Permet d'obtenir le nombre de particules dans l'arbre
+     *
+     * @return Le nombre de particules
+     */
+    public int size() {
+        return count;
+    }
+}
@@ -0,0 +1,206 @@
+package physics;
+
+import math.SVector3d;
+import physics.component.ComplexCyclotron;
+import physics.component.Particle;
+
+import java.util.EnumMap;
+
+/**
+ * Permet de balayer une grille de réglages du cyclotron (voltage, champ magnétique, dimensions des dés) et de noter la vitesse finale de la particule pour chaque réglage.
+ * Un cyclotron indépendant est construit pour chaque point de la grille et simulé avec ComplexCyclotron.step(double, double) jusqu'à ce que la particule en sorte,
+ * ce qui est signalé par l'événement speedCalculated, ou que le nombre maximal de pas soit atteint.
+ * Le champ électrique d'un cyclotron dépend de sa particule, donc un cyclotron ne peut pas être simulé en parallèle,
+ * mais les cyclotrons ne partagent aucun composant et les points sont simulés en parallèle par ParameterSweep.
+ *
+ * @author Simon Tran
+ */
+public class ComplexCyclotronSweep extends ParameterSweep<ComplexCyclotronSweep.Parameter, ComplexCyclotron, ComplexCyclotronSweep.Result> {
+
+    public static final double DEFAULT_DELTA_T = 1e-8;
+    public static final int DEFAULT_MAX_STEPS = 1000000;
+
+    /**
+     * Le début de l'en-tête du fichier CSV. Il est précédé du nom des paramètres balayés
+     */
+    public static final String CSV_HEADER = "outcome,finalSpeed,turns,transitTime,steps";
+
+    /**
+     * Les réglages qui peuvent être balayés
+     */
+    public enum Parameter implements ParameterSweep.Parameter<ComplexCyclotron> {
+        VOLTAGE("voltage") {
+            @Override
+            public void apply(ComplexCyclotron cyclotron, double value) {
+                cyclotron.setVoltage(value);
+            }
+        },
+        MAGNETIC_FIELD_INTENSITY("magneticFieldIntensity") {
+            @Override
+            public void apply(ComplexCyclotron cyclotron, double value) {
+                cyclotron.setMagneticFieldIntensity(value);
+            }
+        },
+        CYLENDER_RADIUS("cylenderRadius") {
+            @Override
+            public void apply(ComplexCyclotron cyclotron, double value) {
+                cyclotron.setCylenderRadius(value);
+            }
+        },
+        DISTANCE_BETWEEN_CYLENDERS("distanceBetweenCylenders") {
+            @Override
+            public void apply(ComplexCyclotron cyclotron, double value) {
+                cyclotron.setDistanceBetweenCylenders(value);
+            }
+        };
+
+        private final String columnName;
+
+        Parameter(String columnName) {
+            this.columnName = columnName;
+        }
+
+        @Override
+        public String getColumnName() {
+            return columnName;
+        }
+    }
+
+    /**
+     * Le résultat de la simulation d'un point
+     */
+    public enum Outcome {ESCAPED, TIMED_OUT}
+
+    /**
+     * Constructeur
+     */
+    public ComplexCyclotronSweep() {
+        super(Parameter.class, CSV_HEADER, DEFAULT_DELTA_T, DEFAULT_MAX_STEPS);
+    }
+
+    /**
+     * Permet de construire le cyclotron d'un point de la grille et d'y accélérer la particule jusqu'à ce qu'elle en sorte
+     *
+     * @param point     La valeur de chaque paramètre balayé
+     * @param particle  La particule accélérée
+     * @param algorithm L'algorithme d'intégration
+     * @param delta_t   La différence de temps de chaque pas
+     * @param maxSteps  Le nombre maximal de pas
+     * @return Le résultat
+     */
+    @Override
+    protected Result simulate(EnumMap<Parameter, Double> point, Particle particle, PhysicsWorld.Algorithm algorithm, double delta_t, int maxSteps) {
+        ComplexCyclotron cyclotron = new ComplexCyclotron(particle);
+        cyclotron.setAlgorithm(algorithm);
+        apply(cyclotron, point);
+        /* Le constructeur place la particule au centre avec les dimensions par défaut */
+        Particle accelerated = cyclotron.getParticleList().get(0);
+        accelerated.setPosition(new SVector3d(cyclotron.getCylenderRadius() + cyclotron.getDistanceBetweenCylenders() / 2.0, cyclotron.getCylenderRadius()));
+
+        Result result = new Result(point);
+        cyclotron.addCyclotronListener(new ComplexCyclotronListener() {
+            @Override
+            public void speedCalculated(double speed) {
+                result.outcome = Outcome.ESCAPED;
+                result.finalSpeed = speed;
+            }
+
+            @Override
+            public void step(double delta_t) {
+            }
+
+            @Override
+            public void particleGenerated() {
+            }
+        });
+
+        /* Un demi-tour est compté chaque fois que la particule passe d'un dé à l'autre */
+        double leftDee = cyclotron.getCylenderRadius();
+        double rightDee = cyclotron.getCylenderRadius() + cyclotron.getDistanceBetweenCylenders();
+        int dee = 0, halfTurns = 0;
+        double time = 0.0;
+        while (result.outcome == Outcome.TIMED_OUT && result.stepCount < maxSteps) {
+            cyclotron.step(delta_t, time);
+            time += delta_t;
+            result.stepCount++;
+
+            double x = accelerated.getPosition().getX();
+            int currentDee = x < leftDee ? 1 : x >= rightDee ? 2 : dee;
+            if (dee != 0 && currentDee != dee) {
+                halfTurns++;
+            }
+            dee = currentDee;
+        }
+        if (result.outcome == Outcome.TIMED_OUT) {
+            result.finalSpeed = accelerated.getSpeedModulus();
+        }
+        result.turns = halfTurns / 2.0;
+        result.transitTime = time;
+        return result;
+    }
+
+    /**
+     * Le résultat d'un point de la grille
+     */
+    public static class Result extends ParameterSweep.Result<Parameter> {
+        private Outcome outcome = Outcome.TIMED_OUT;
+        private double finalSpeed;
+        private double turns;
+        private double transitTime;
+        private int stepCount;
+
+        Result(EnumMap<Parameter, Double> parameters) {
+            super(parameters);
+        }
+
+        @Override
+        protected void appendCsvColumns(StringBuilder line) {
+            line.append(outcome).append(',').append(finalSpeed).append(',').append(turns).append(',').append(transitTime).append(',').append(stepCount);
+        }
+
+        /**
+         * Retourne le résultat de la simulation
+         *
+         * @return Le résultat
+         */
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        /**
+         * Retourne le module de la vitesse de la particule à sa sortie du cyclotron, ou à la fin de la simulation si elle n'en est pas sortie
+         *
+         * @return La vitesse (m/s)
+         */
+        public double getFinalSpeed() {
+            return finalSpeed;
+        }
+
+        /**
+         * Retourne le nombre de tours faits par la particule. Un demi-tour est compté chaque fois qu'elle passe d'un dé à l'autre
+         *
+         * @return Le nombre de tours
+         */
+        public double getTurns() {
+            return turns;
+        }
+
+        /**
+         * Retourne le temps passé par la particule dans le cyclotron
+         *
+         * @return Le temps (s)
+         */
+        public double getTransitTime() {
+            return transitTime;
+        }
+
+        /**
+         * Retourne le nombre de pas simulés
+         *
+         * @return Le nombre de pas
+         */
+        public int getStepCount() {
+            return stepCount;
+        }
+    }
+}
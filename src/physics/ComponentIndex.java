@@ -0,0 +1,213 @@
+package physics;
+
+import physics.component.PhysicComponent;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Classe qui sépare le monde en une grille uniforme afin de trouver rapidement les composants qui peuvent créer un champ à un point.
+ * Chaque cellule contient les index, dans la liste des composants, des composants dont la zone d'influence touche la cellule ainsi que ceux qui n'ont pas de zone d'influence.
+ * Les index sont triés, les champs sont donc additionnés dans le même ordre qu'en parcourant toute la liste.
+ * L'index garde le numéro de version de chaque composant afin de savoir s'il doit être reconstruit.
+ *
+ * @author Simon Tran
+ */
+public class ComponentIndex {
+
+    /**
+     * Le nombre de composants bornés en dessous duquel la grille n'est pas utilisée
+     */
+    private static final int MIN_BOUNDED_COMPONENTS = 8;
+
+    /**
+     * Le nombre maximal de cellules par côté de la grille
+     */
+    private static final int MAX_CELLS_PER_AXIS = 64;
+
+    private final PhysicComponent[] components;
+
+    /**
+     * Le numéro de version de chaque composant au moment de la construction de l'index
+     */
+    private final long[] versions;
+
+    /**
+     * Les index de tous les composants
+     */
+    private final int[] allComponents;
+
+    /**
+     * Les index des composants qui n'ont pas de zone d'influence
+     */
+    private final int[] unboundedComponents;
+
+    private final int columns, rows;
+    private final double minX, minY, maxX, maxY;
+    private final double cellWidth, cellHeight;
+    private final int[][] cells;
+
+
+    /**
+     * Permet de construire l'index des composants de la liste
+     *
+     * @param componentList La liste des composants
+     */
+    public ComponentIndex(List<PhysicComponent> componentList) {
+        int size = componentList.size();
+        components = componentList.toArray(new PhysicComponent[size]);
+        versions = new long[size];
+        allComponents = new int[size];
+
+        ArrayList<Integer> unbounded = new ArrayList<>();
+        int boundedCount = 0;
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            allComponents[i] = i;
+            versions[i] = components[i].getVersion();
+            Rectangle2D.Double bounds = components[i].getInfluenceBounds();
+            if (bounds == null || !isFinite(bounds)) {
+                /* Des bornes invalides sont traitées comme un composant sans zone d'influence */
+                unbounded.add(i);
+                continue;
+            }
+            boundedCount++;
+            minX = Math.min(minX, bounds.getMinX());
+            minY = Math.min(minY, bounds.getMinY());
+            maxX = Math.max(maxX, bounds.getMaxX());
+            maxY = Math.max(maxY, bounds.getMaxY());
+        }
+        unboundedComponents = toArray(unbounded);
+
+        if (boundedCount < MIN_BOUNDED_COMPONENTS) {
+            /* Il y a trop peu de composants pour que la grille soit utile */
+            columns = rows = 0;
+            this.minX = this.minY = this.maxX = this.maxY = 0.0;
+            cellWidth = cellHeight = 0.0;
+            cells = null;
+            return;
+        }
+
+        int cellsPerAxis = Math.min(MAX_CELLS_PER_AXIS, (int) Math.ceil(Math.sqrt(boundedCount)));
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        columns = maxX > minX ? cellsPerAxis : 1;
+        rows = maxY > minY ? cellsPerAxis : 1;
+        cellWidth = columns > 1 ? (maxX - minX) / columns : 1.0;
+        cellHeight = rows > 1 ? (maxY - minY) / rows : 1.0;
+
+        ArrayList<ArrayList<Integer>> cellLists = new ArrayList<>(columns * rows);
+        for (int i = 0; i < columns * rows; i++) {
+            cellLists.add(new ArrayList<>());
+        }
+        for (int i = 0; i < size; i++) {
+            Rectangle2D.Double bounds = components[i].getInfluenceBounds();
+            if (bounds == null || !isFinite(bounds)) {
+                continue;
+            }
+            int firstColumn = column(bounds.getMinX()), lastColumn = column(bounds.getMaxX());
+            int firstRow = row(bounds.getMinY()), lastRow = row(bounds.getMaxY());
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                for (int row = firstRow; row <= lastRow; row++) {
+                    cellLists.get(row * columns + column).add(i);
+                }
+            }
+        }
+
+        cells = new int[columns * rows][];
+        for (int i = 0; i < cells.length; i++) {
+            ArrayList<Integer> cell = cellLists.get(i);
+            cell.addAll(unbounded);
+            int[] indices = toArray(cell);
+            Arrays.sort(indices);
+            cells[i] = indices;
+        }
+    }
+
+    /**
+     * Permet d'obtenir les index des composants qui peuvent créer un champ au point (x, y).
+     * Le tableau retourné ne doit pas être modifié
+     *
+     * @param x La composante x du point
+     * @param y La composante y du point
+     * @return Les index triés des composants dans la liste des composants
+     */
+    public int[] query(double x, double y) {
+        if (cells == null) {
+            return allComponents;
+        }
+        if (!(x >= minX && x <= maxX && y >= minY && y <= maxY)) {
+            return unboundedComponents;
+        }
+        return cells[row(y) * columns + column(x)];
+    }
+
+    /**
+     * Permet de savoir si l'index correspond toujours à la liste des composants, c'est-à-dire si aucun composant n'a été ajouté, retiré ou modifié depuis sa construction
+     *
+     * @param componentList La liste des composants
+     * @return Vrai si l'index est valide
+     */
+    public boolean isValid(List<PhysicComponent> componentList) {
+        if (componentList.size() != components.length) {
+            return false;
+        }
+        for (int i = 0; i < components.length; i++) {
+            PhysicComponent component = componentList.get(i);
+            if (component != components[i] || component.getVersion() != versions[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Permet d'obtenir la colonne de la grille qui contient la coordonnée x
+     *
+     * @param x La coordonnée
+     * @return La colonne
+     */
+    private int column(double x) {
+        return clamp((int) Math.floor((x - minX) / cellWidth), columns);
+    }
+
+    /**
+     * Permet d'obtenir la rangée de la grille qui contient la coordonnée y
+     *
+     * @param y La coordonnée
+     * @return La rangée
+     */
+    private int row(double y) {
+        return clamp((int) Math.floor((y - minY) / cellHeight), rows);
+    }
+
+    private static int clamp(int cell, int count) {
+        return Math.max(0, Math.min(count - 1, cell));
+    }
+
+    /**
+     * Permet de savoir si des bornes sont utilisables : leurs composantes sont des nombres finis et leurs dimensions ne sont pas négatives.
+     * Utilisée aussi par FieldLattice
+     *
+     * @param bounds Les bornes
+     * @return Vrai si les bornes sont utilisables
+     */
+    static boolean isFinite(Rectangle2D.Double bounds) {
+        return Double.isFinite(bounds.getX()) && Double.isFinite(bounds.getY())
+                && Double.isFinite(bounds.getWidth()) && Double.isFinite(bounds.getHeight())
+                && bounds.getWidth() >= 0 && bounds.getHeight() >= 0;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+}
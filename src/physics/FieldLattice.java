@@ -0,0 +1,266 @@
+package physics;
+
+import physics.component.PhysicComponent;
+
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+
+/**
+ * Grille régulière qui contient les champs électrique et magnétique créés par les composants statiques d'un monde, échantillonnés dans le plan z = 0.
+ * Le champ à un point de la grille est obtenu par interpolation bilinéaire des quatre noeuds qui l'entourent : le coût d'une évaluation
+ * ne dépend donc plus du nombre de composants. Les bords des champs uniformes sont adoucis sur la largeur d'une cellule.
+ * La grille couvre les zones d'influence des composants bornés et les bornes des autres composants ; à l'extérieur, les champs doivent être calculés exactement.
+ * La grille est une image des composants au moment où elle est construite : elle doit être reconstruite lorsque des composants sont modifiés.
+ *
+ * @author Simon Tran
+ */
+public class FieldLattice {
+
+    /**
+     * Le nombre minimal de cellules sur le plus grand côté de la grille
+     */
+    public static final int MIN_RESOLUTION = 2;
+
+    /**
+     * Le nombre maximal de cellules sur le plus grand côté de la grille
+     */
+    public static final int MAX_RESOLUTION = 4096;
+
+    private final PhysicComponent[] components;
+
+    /**
+     * Le numéro de version de chaque composant au moment de la construction de la grille
+     */
+    private final long[] versions;
+    private final int resolution;
+
+    /**
+     * Les index des composants qui ne sont pas statiques et dont les champs doivent toujours être calculés exactement
+     */
+    private final int[] dynamicComponents;
+
+    /**
+     * Les index des composants statiques, dont les champs sont calculés exactement à l'extérieur de la grille
+     */
+    private final int[] staticComponents;
+
+    private final int columns, rows;
+    private final double minX, minY, maxX, maxY;
+    private final double cellSize;
+
+    /**
+     * Les champs à chaque noeud. Le noeud (i, j) se trouve à l'index 3 * (j * (columns + 1) + i)
+     */
+    private final double[] electricField, magneticField;
+
+
+    /**
+     * Permet de construire la grille des champs des composants statiques de la liste
+     *
+     * @param componentList La liste des composants
+     * @param resolution    Le nombre de cellules sur le plus grand côté de la grille
+     */
+    public FieldLattice(List<PhysicComponent> componentList, int resolution) {
+        int size = componentList.size();
+        this.resolution = resolution;
+        components = componentList.toArray(new PhysicComponent[size]);
+        versions = new long[size];
+
+        int staticCount = 0;
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            versions[i] = components[i].getVersion();
+            if (!isSampled(components[i])) {
+                continue;
+            }
+            staticCount++;
+            Rectangle2D.Double bounds = components[i].getInfluenceBounds();
+            if (bounds == null || !ComponentIndex.isFinite(bounds)) {
+                /* Un composant qui peut créer un champ partout est échantillonné autour de ses bornes */
+                bounds = components[i].getBounds();
+            }
+            if (!ComponentIndex.isFinite(bounds)) {
+                continue;
+            }
+            minX = Math.min(minX, bounds.getMinX());
+            minY = Math.min(minY, bounds.getMinY());
+            maxX = Math.max(maxX, bounds.getMaxX());
+            maxY = Math.max(maxY, bounds.getMaxY());
+        }
+
+        staticComponents = new int[staticCount];
+        dynamicComponents = new int[size - staticCount];
+        for (int i = 0, s = 0, d = 0; i < size; i++) {
+            if (isSampled(components[i])) {
+                staticComponents[s++] = i;
+            }
+            else {
+                dynamicComponents[d++] = i;
+            }
+        }
+
+        double largestSide = Math.max(maxX - minX, maxY - minY);
+        if (staticCount == 0 || !(largestSide > 0.0) || Double.isInfinite(largestSide)) {
+            /* Aucun champ à échantillonner : tous les points sont à l'extérieur de la grille */
+            this.minX = this.minY = Double.POSITIVE_INFINITY;
+            this.maxX = this.maxY = Double.NEGATIVE_INFINITY;
+            columns = rows = 0;
+            cellSize = 0.0;
+            electricField = magneticField = new double[0];
+            return;
+        }
+
+        cellSize = largestSide / Math.max(MIN_RESOLUTION, Math.min(MAX_RESOLUTION, resolution));
+        columns = Math.max(1, (int) Math.ceil((maxX - minX) / cellSize));
+        rows = Math.max(1, (int) Math.ceil((maxY - minY) / cellSize));
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = minX + columns * cellSize;
+        this.maxY = minY + rows * cellSize;
+
+        int nodes = (columns + 1) * (rows + 1);
+        electricField = new double[nodes * 3];
+        magneticField = new double[nodes * 3];
+        double[] field = new double[3];
+        for (int j = 0; j <= rows; j++) {
+            double y = minY + j * cellSize;
+            for (int i = 0; i <= columns; i++) {
+                double x = minX + i * cellSize;
+                int node = 3 * (j * (columns + 1) + i);
+                for (int index : staticComponents) {
+                    field[0] = electricField[node];
+                    field[1] = electricField[node + 1];
+                    field[2] = electricField[node + 2];
+                    components[index].addElectricField(x, y, 0.0, 0.0, field);
+                    electricField[node] = field[0];
+                    electricField[node + 1] = field[1];
+                    electricField[node + 2] = field[2];
+
+                    field[0] = magneticField[node];
+                    field[1] = magneticField[node + 1];
+                    field[2] = magneticField[node + 2];
+                    components[index].addMagneticField(x, y, 0.0, 0.0, field);
+                    magneticField[node] = field[0];
+                    magneticField[node + 1] = field[1];
+                    magneticField[node + 2] = field[2];
+                }
+            }
+        }
+    }
+
+    /**
+     * Permet de savoir si la grille correspond toujours à la liste des composants et à la résolution demandée,
+     * c'est-à-dire si aucun composant n'a été ajouté, retiré ou modifié depuis sa construction
+     *
+     * @param componentList La liste des composants
+     * @param resolution    Le nombre de cellules sur le plus grand côté de la grille
+     * @return Vrai si la grille est valide
+     */
+    public boolean isValid(List<PhysicComponent> componentList, int resolution) {
+        if (resolution != this.resolution || componentList.size() != components.length) {
+            return false;
+        }
+        for (int i = 0; i < components.length; i++) {
+            PhysicComponent component = componentList.get(i);
+            if (component != components[i] || component.getVersion() != versions[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Permet de savoir si le point (x, y) se trouve dans la grille
+     *
+     * @param x La composante x de la position absolue
+     * @param y La composante y de la position absolue
+     * @return Vrai si le champ des composants statiques peut être interpolé à ce point
+     */
+    public boolean contains(double x, double y) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+
+    /**
+     * Permet d'additionner au tableau 'field' le champ électrique des composants statiques interpolé au point (x, y).
+     * Le point doit se trouver dans la grille
+     *
+     * @param x     La composante x de la position absolue
+     * @param y     La composante y de la position absolue
+     * @param field Le tableau [x, y, z] auquel le champ est additionné
+     */
+    public void addElectricField(double x, double y, double[] field) {
+        interpolate(electricField, x, y, field);
+    }
+
+    /**
+     * Permet d'additionner au tableau 'field' le champ magnétique des composants statiques interpolé au point (x, y).
+     * Le point doit se trouver dans la grille
+     *
+     * @param x     La composante x de la position absolue
+     * @param y     La composante y de la position absolue
+     * @param field Le tableau [x, y, z] auquel le champ est additionné
+     */
+    public void addMagneticField(double x, double y, double[] field) {
+        interpolate(magneticField, x, y, field);
+    }
+
+    /**
+     * Permet d'additionner au tableau 'field' l'interpolation bilinéaire des valeurs des quatre noeuds qui entourent le point (x, y)
+     *
+     * @param values Les valeurs aux noeuds
+     * @param x      La composante x de la position absolue
+     * @param y      La composante y de la position absolue
+     * @param field  Le tableau [x, y, z] auquel le champ est additionné
+     */
+    private void interpolate(double[] values, double x, double y, double[] field) {
+        double u = (x - minX) / cellSize;
+        double v = (y - minY) / cellSize;
+        int i = Math.min((int) u, columns - 1);
+        int j = Math.min((int) v, rows - 1);
+        u -= i;
+        v -= j;
+
+        int node00 = 3 * (j * (columns + 1) + i);
+        int node10 = node00 + 3;
+        int node01 = node00 + 3 * (columns + 1);
+        int node11 = node01 + 3;
+        double w00 = (1.0 - u) * (1.0 - v), w10 = u * (1.0 - v), w01 = (1.0 - u) * v, w11 = u * v;
+        for (int k = 0; k < 3; k++) {
+            field[k] += w00 * values[node00 + k] + w10 * values[node10 + k] + w01 * values[node01 + k] + w11 * values[node11 + k];
+        }
+    }
+
+    /* -------------------Getters------------------- */
+
+    /**
+     * Retourne les index des composants dont les champs ne sont pas échantillonnés dans la grille
+     *
+     * @return Les index dans la liste des composants
+     */
+    public int[] getDynamicComponents() {
+        return dynamicComponents;
+    }
+
+    /**
+     * Retourne les index des composants dont les champs sont échantillonnés dans la grille
+     *
+     * @return Les index dans la liste des composants
+     */
+    public int[] getStaticComponents() {
+        return staticComponents;
+    }
+
+    /**
+     * Retourne la taille d'une cellule de la grille
+     *
+     * @return La taille (m)
+     */
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    private static boolean isSampled(PhysicComponent component) {
+        return component.isInteractive() && component.isStatic();
+    }
+}
@@ -0,0 +1,46 @@
+package physics;
+
+/**
+ * Classe qui contient les tableaux temporaires utilisés par les algorithmes d'intégration sans allocation.
+ * Les tableaux sont créés une seule fois puis réutilisés à chaque pas, ce qui évite de créer des vecteurs pour chaque particule.
+ * Une instance ne doit être utilisée que par un seul fil d'exécution à la fois.
+ *
+ * @author Simon Tran
+ */
+public class IntegratorBuffers {
+
+    /* Position, vitesse et accélération initiales */
+    final double[] x0 = new double[3];
+    final double[] v0 = new double[3];
+    final double[] a0 = new double[3];
+
+    /* Première position finale */
+    final double[] xf1 = new double[3];
+    final double[] vf1 = new double[3];
+    final double[] af1 = new double[3];
+
+    /* Position à demi-temps */
+    final double[] xmid = new double[3];
+    final double[] vmid = new double[3];
+    final double[] amid = new double[3];
+
+    /* Deuxième position finale */
+    final double[] xf2 = new double[3];
+    final double[] vf2 = new double[3];
+    final double[] af2 = new double[3];
+
+    /* Accélération pondérée et résultats */
+    final double[] tempA = new double[3];
+    final double[] x = new double[3];
+    final double[] v = new double[3];
+
+    /* Champs à la position évaluée */
+    final double[] electricField = new double[3];
+    final double[] magneticField = new double[3];
+
+    /* État [x, y, z, vx, vy, vz] et dérivées des étapes de Dormand–Prince */
+    final double[] state = new double[6];
+    final double[] stageState = new double[6];
+    final double[] nextState = new double[6];
+    final double[][] derivatives = new double[7][6];
+}
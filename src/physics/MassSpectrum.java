@@ -0,0 +1,348 @@
+package physics;
+
+/**
+ * Histogramme des masses détectées par un spectromètre et compte des ions qui ont été tirés, détectés, arrêtés ou perdus.
+ * Chaque fil d'exécution remplit son propre spectre, puis les spectres sont additionnés avec merge(MassSpectrum).
+ * Une instance ne doit être modifiée que par un seul fil d'exécution à la fois.
+ *
+ * @author Simon Tran
+ */
+public class MassSpectrum {
+
+    /**
+     * Le nombre minimal de classes de l'histogramme
+     */
+    public static final int MIN_BIN_COUNT = 1;
+
+    /**
+     * Le nombre maximal de classes de l'histogramme
+     */
+    public static final int MAX_BIN_COUNT = 1 << 20;
+
+    private final double minMass, maxMass;
+    private final double binWidth;
+    private final long[] counts;
+
+    /**
+     * Le nombre de masses détectées plus petites que minMass ou plus grandes ou égales à maxMass
+     */
+    private long underflow, overflow;
+
+    private long firedCount, stoppedCount, lostCount;
+
+    /**
+     * La somme et la somme des carrés des masses détectées, pour la moyenne et l'écart type
+     */
+    private double sum, sumOfSquares;
+
+    /**
+     * Le temps réel pris pour obtenir le spectre
+     */
+    private long elapsedNanos;
+
+
+    /**
+     * Constructeur
+     *
+     * @param minMass  La plus petite masse de l'histogramme (kg)
+     * @param maxMass  La masse qui suit la dernière classe de l'histogramme (kg)
+     * @param binCount Le nombre de classes
+     */
+    public MassSpectrum(double minMass, double maxMass, int binCount) {
+        this.minMass = minMass;
+        this.maxMass = Math.max(maxMass, Math.nextUp(minMass));
+        counts = new long[Math.max(MIN_BIN_COUNT, Math.min(MAX_BIN_COUNT, binCount))];
+        binWidth = (this.maxMass - minMass) / counts.length;
+    }
+
+    /**
+     * Permet d'ajouter une masse détectée au spectre
+     *
+     * @param mass La masse détectée (kg)
+     */
+    public void record(double mass) {
+        firedCount++;
+        sum += mass;
+        sumOfSquares += mass * mass;
+        if (mass < minMass) {
+            underflow++;
+        }
+        else if (mass >= maxMass) {
+            overflow++;
+        }
+        else {
+            counts[Math.min((int) ((mass - minMass) / binWidth), counts.length - 1)]++;
+        }
+    }
+
+    /**
+     * Permet de compter un ion qui a été arrêté par le sélecteur de vitesse ou par la plaque à la sortie du sélecteur
+     */
+    public void recordStopped() {
+        firedCount++;
+        stoppedCount++;
+    }
+
+    /**
+     * Permet de compter un ion qui n'a pas été détecté avant la fin du temps alloué
+     */
+    public void recordLost() {
+        firedCount++;
+        lostCount++;
+    }
+
+    /**
+     * Permet d'additionner un autre spectre à ce spectre. Les deux spectres doivent avoir les mêmes classes
+     *
+     * @param spectrum Le spectre à additionner
+     */
+    public void merge(MassSpectrum spectrum) {
+        if (spectrum.counts.length != counts.length || spectrum.minMass != minMass || spectrum.maxMass != maxMass) {
+            throw new IllegalArgumentException("Les spectres n'ont pas les mêmes classes");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += spectrum.counts[i];
+        }
+        underflow += spectrum.underflow;
+        overflow += spectrum.overflow;
+        firedCount += spectrum.firedCount;
+        stoppedCount += spectrum.stoppedCount;
+        lostCount += spectrum.lostCount;
+        sum += spectrum.sum;
+        sumOfSquares += spectrum.sumOfSquares;
+    }
+
+    /**
+     * Retourne la masse au centre de la classe qui contient le plus de masses détectées
+     *
+     * @return La masse du pic (kg), ou NaN si aucune masse n'est dans l'histogramme
+     */
+    public double getPeakMass() {
+        int peak = getPeakBin();
+        return peak < 0 ? Double.NaN : getBinCenter(peak);
+    }
+
+    /**
+     * Retourne la largeur à mi-hauteur du pic le plus haut. Les bords du pic sont interpolés linéairement entre les classes,
+     * et la largeur vaut au moins une classe
+     *
+     * @return La largeur à mi-hauteur (kg), ou NaN si aucune masse n'est dans l'histogramme
+     */
+    public double getFullWidthHalfMaximum() {
+        int peak = getPeakBin();
+        if (peak < 0) {
+            return Double.NaN;
+        }
+        double halfMaximum = counts[peak] / 2.0;
+
+        int left = peak;
+        while (left > 0 && counts[left - 1] > halfMaximum) {
+            left--;
+        }
+        int right = peak;
+        while (right < counts.length - 1 && counts[right + 1] > halfMaximum) {
+            right++;
+        }
+
+        /* Fraction de la classe voisine qui se trouve au-dessus de la mi-hauteur */
+        double leftEdge = left > 0 ? (counts[left] - halfMaximum) / (counts[left] - counts[left - 1]) : 0.5;
+        double rightEdge = right < counts.length - 1 ? (counts[right] - halfMaximum) / (counts[right] - counts[right + 1]) : 0.5;
+        return Math.max(1.0, right - left + leftEdge + rightEdge) * binWidth;
+    }
+
+    /**
+     * Retourne la résolution en masse m / Δm, où m est la masse du pic et Δm sa largeur à mi-hauteur
+     *
+     * @return La résolution, ou NaN si aucune masse n'est dans l'histogramme
+     */
+    public double getResolution() {
+        return getPeakMass() / getFullWidthHalfMaximum();
+    }
+
+    /**
+     * Retourne la moyenne des masses détectées, y compris celles qui sont à l'extérieur de l'histogramme
+     *
+     * @return La moyenne (kg), ou NaN si aucune masse n'a été détectée
+     */
+    public double getMean() {
+        long detected = getDetectedCount();
+        return detected == 0 ? Double.NaN : sum / detected;
+    }
+
+    /**
+     * Retourne l'écart type des masses détectées
+     *
+     * @return L'écart type (kg), ou NaN si aucune masse n'a été détectée
+     */
+    public double getStandardDeviation() {
+        long detected = getDetectedCount();
+        if (detected == 0) {
+            return Double.NaN;
+        }
+        double mean = sum / detected;
+        return Math.sqrt(Math.max(0.0, sumOfSquares / detected - mean * mean));
+    }
+
+    /**
+     * Retourne la proportion des ions tirés dont la masse a été détectée
+     *
+     * @return Le taux de transmission entre 0 et 1
+     */
+    public double getTransmission() {
+        return firedCount == 0 ? 0.0 : (double) getDetectedCount() / firedCount;
+    }
+
+    /**
+     * Retourne le nombre d'ions simulés par seconde de temps réel
+     *
+     * @return Le débit (ions/s)
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0.0 : firedCount * 1e9 / elapsedNanos;
+    }
+
+    private int getPeakBin() {
+        int peak = -1;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0 && (peak < 0 || counts[i] > counts[peak])) {
+                peak = i;
+            }
+        }
+        return peak;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d ions, %d détectés (transmission %.3f), %d arrêtés, %d perdus, pic %.6g kg, résolution %.1f, %.0f ions/s",
+                firedCount, getDetectedCount(), getTransmission(), stoppedCount, lostCount, getPeakMass(), getResolution(), getThroughput());
+    }
+
+    /* -------------------Getters------------------- */
+
+    /**
+     * Retourne la masse au centre d'une classe
+     *
+     * @param bin L'index de la classe
+     * @return La masse (kg)
+     */
+    public double getBinCenter(int bin) {
+        return minMass + (bin + 0.5) * binWidth;
+    }
+
+    /**
+     * Retourne le nombre de masses détectées dans chaque classe. Le tableau ne doit pas être modifié
+     *
+     * @return Les comptes
+     */
+    public long[] getCounts() {
+        return counts;
+    }
+
+    /**
+     * Retourne le nombre de classes de l'histogramme
+     *
+     * @return Le nombre de classes
+     */
+    public int getBinCount() {
+        return counts.length;
+    }
+
+    /**
+     * Retourne la largeur d'une classe
+     *
+     * @return La largeur (kg)
+     */
+    public double getBinWidth() {
+        return binWidth;
+    }
+
+    /**
+     * Retourne la plus petite masse de l'histogramme
+     *
+     * @return La masse (kg)
+     */
+    public double getMinMass() {
+        return minMass;
+    }
+
+    /**
+     * Retourne la masse qui suit la dernière classe de l'histogramme
+     *
+     * @return La masse (kg)
+     */
+    public double getMaxMass() {
+        return maxMass;
+    }
+
+    /**
+     * Retourne le nombre de masses détectées plus petites que la plus petite masse de l'histogramme
+     *
+     * @return Le nombre de masses
+     */
+    public long getUnderflow() {
+        return underflow;
+    }
+
+    /**
+     * Retourne le nombre de masses détectées plus grandes que la dernière classe de l'histogramme
+     *
+     * @return Le nombre de masses
+     */
+    public long getOverflow() {
+        return overflow;
+    }
+
+    /**
+     * Retourne le nombre d'ions tirés
+     *
+     * @return Le nombre d'ions
+     */
+    public long getFiredCount() {
+        return firedCount;
+    }
+
+    /**
+     * Retourne le nombre d'ions dont la masse a été détectée
+     *
+     * @return Le nombre d'ions
+     */
+    public long getDetectedCount() {
+        return firedCount - stoppedCount - lostCount;
+    }
+
+    /**
+     * Retourne le nombre d'ions arrêtés avant le déflecteur
+     *
+     * @return Le nombre d'ions
+     */
+    public long getStoppedCount() {
+        return stoppedCount;
+    }
+
+    /**
+     * Retourne le nombre d'ions qui n'ont pas été détectés avant la fin du temps alloué
+     *
+     * @return Le nombre d'ions
+     */
+    public long getLostCount() {
+        return lostCount;
+    }
+
+    /**
+     * Retourne le temps réel pris pour obtenir le spectre
+     *
+     * @return Le temps (ns)
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Permet d'ajuster le temps réel pris pour obtenir le spectre
+     *
+     * @param elapsedNanos Le temps (ns)
+     */
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+}
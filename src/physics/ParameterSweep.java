@@ -0,0 +1,419 @@
+package physics;
+
+import physics.component.Particle;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Permet de balayer une grille de réglages d'un montage et de noter le résultat de chaque réglage.
+ * La grille est le produit des valeurs de chaque paramètre balayé. Chaque point est simulé par simulate(Map, Particle, PhysicsWorld.Algorithm, double, int)
+ * avec un montage indépendant, donc les points sont simulés en parallèle sur le pool ForkJoin commun.
+ * Les sous-classes fournissent les paramètres, qui savent s'appliquer au montage, la simulation d'un point et les colonnes de leur résultat.
+ *
+ * @param <P> Les paramètres qui peuvent être balayés
+ * @param <T> Le montage auquel les paramètres sont appliqués
+ * @param <R> Le résultat d'un point
+ * @author Simon Tran
+ */
+public abstract class ParameterSweep<P extends Enum<P> & ParameterSweep.Parameter<T>, T, R extends ParameterSweep.Result<P>> {
+
+    /**
+     * Un réglage qui peut être balayé
+     *
+     * @param <T> Le montage auquel le réglage est appliqué
+     */
+    public interface Parameter<T> {
+
+        /**
+         * Permet d'appliquer la valeur du paramètre au montage
+         *
+         * @param system Le montage
+         * @param value  La valeur
+         */
+        void apply(T system, double value);
+
+        /**
+         * Retourne le nom de la colonne du paramètre dans le fichier CSV
+         *
+         * @return Le nom de la colonne
+         */
+        String getColumnName();
+    }
+
+    /**
+     * Le résultat d'un point de la grille
+     *
+     * @param <P> Les paramètres qui peuvent être balayés
+     */
+    public abstract static class Result<P extends Enum<P>> {
+        private final Map<P, Double> parameters;
+
+        protected Result(EnumMap<P, Double> parameters) {
+            this.parameters = Collections.unmodifiableMap(parameters);
+        }
+
+        /**
+         * Retourne la valeur de chaque paramètre balayé à ce point
+         *
+         * @return Les valeurs, dans l'ordre d'application
+         */
+        public Map<P, Double> getParameters() {
+            return parameters;
+        }
+
+        /**
+         * Permet d'ajouter les colonnes du résultat à une ligne du fichier CSV, dans l'ordre de l'en-tête
+         *
+         * @param line La ligne
+         */
+        protected abstract void appendCsvColumns(StringBuilder line);
+    }
+
+    private final Class<P> parameterClass;
+    private final String csvHeader;
+
+    /**
+     * Les valeurs de chaque paramètre balayé, dans l'ordre d'application
+     */
+    private final EnumMap<P, double[]> grid;
+
+    private Particle particle = Particle.Electron();
+    private PhysicsWorld.Algorithm algorithm = PhysicsWorld.Algorithm.RK4;
+    private double delta_t;
+    private int maxSteps;
+    private boolean parallel = true;
+
+    private List<R> results = Collections.emptyList();
+
+
+    /**
+     * Constructeur
+     *
+     * @param parameterClass La classe des paramètres
+     * @param csvHeader      Le début de l'en-tête du fichier CSV, qui nomme les colonnes du résultat
+     * @param delta_t        La différence de temps de chaque pas par défaut
+     * @param maxSteps       Le nombre maximal de pas par défaut
+     */
+    protected ParameterSweep(Class<P> parameterClass, String csvHeader, double delta_t, int maxSteps) {
+        this.parameterClass = parameterClass;
+        this.csvHeader = csvHeader;
+        this.grid = new EnumMap<>(parameterClass);
+        this.delta_t = delta_t;
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * Permet de simuler un point de la grille avec un montage indépendant. Peut être appelée par plusieurs fils en même temps
+     *
+     * @param point     La valeur de chaque paramètre balayé, dans l'ordre d'application
+     * @param particle  La particule, qui doit être copiée avant d'être ajoutée au montage
+     * @param algorithm L'algorithme d'intégration
+     * @param delta_t   La différence de temps de chaque pas
+     * @param maxSteps  Le nombre maximal de pas
+     * @return Le résultat
+     */
+    protected abstract R simulate(EnumMap<P, Double> point, Particle particle, PhysicsWorld.Algorithm algorithm, double delta_t, int maxSteps);
+
+    /**
+     * Permet d'appliquer les valeurs d'un point au montage, dans l'ordre d'application
+     *
+     * @param system Le montage
+     * @param point  La valeur de chaque paramètre
+     */
+    protected static <P extends Enum<P> & Parameter<T>, T> void apply(T system, Map<P, Double> point) {
+        for (Map.Entry<P, Double> entry : point.entrySet()) {
+            entry.getKey().apply(system, entry.getValue());
+        }
+    }
+
+    /**
+     * Permet de balayer un paramètre sur une liste de valeurs. Une liste vide retire le paramètre de la grille
+     *
+     * @param parameter Le paramètre
+     * @param values    Les valeurs
+     */
+    public void setValues(P parameter, double... values) {
+        if (values.length == 0) {
+            grid.remove(parameter);
+        }
+        else {
+            grid.put(parameter, values.clone());
+        }
+    }
+
+    /**
+     * Permet de balayer un paramètre sur 'count' valeurs également espacées entre 'min' et 'max' inclusivement
+     *
+     * @param parameter Le paramètre
+     * @param min       La première valeur
+     * @param max       La dernière valeur
+     * @param count     Le nombre de valeurs
+     */
+    public void setRange(P parameter, double min, double max, int count) {
+        double[] values = new double[Math.max(1, count)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = values.length == 1 ? min : min + (max - min) * i / (values.length - 1);
+        }
+        setValues(parameter, values);
+    }
+
+    /**
+     * Retourne le nombre de points de la grille, c'est-à-dire le produit du nombre de valeurs de chaque paramètre
+     *
+     * @return Le nombre de points
+     */
+    public int getPointCount() {
+        long count = 1;
+        for (double[] values : grid.values()) {
+            count *= values.length;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, count);
+    }
+
+    /**
+     * Permet de simuler tous les points de la grille. Les résultats sont dans l'ordre de la grille : le dernier paramètre varie le plus vite
+     *
+     * @return Les résultats
+     */
+    public List<R> run() {
+        List<P> parameters = new ArrayList<>(grid.keySet());
+        double[][] values = grid.values().toArray(new double[0][]);
+        List<R> computed = new ArrayList<>(Collections.nCopies(getPointCount(), (R) null));
+        SweepTask task = new SweepTask(parameters, values, new Particle(particle), algorithm, delta_t, maxSteps, computed, 0, computed.size());
+        if (parallel) {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+        else {
+            task.computePoints();
+        }
+        results = Collections.unmodifiableList(computed);
+        return results;
+    }
+
+    /**
+     * Permet d'écrire les résultats de la dernière exécution dans un fichier CSV, une ligne par point de la grille
+     *
+     * @param writer L'endroit où le CSV est écrit
+     * @throws IOException Si l'écriture échoue
+     */
+    public void writeCsv(Writer writer) throws IOException {
+        StringBuilder line = new StringBuilder();
+        if (!results.isEmpty()) {
+            for (P parameter : results.get(0).getParameters().keySet()) {
+                line.append(parameter.getColumnName()).append(',');
+            }
+        }
+        writer.write(line.append(csvHeader).append('\n').toString());
+        for (R result : results) {
+            line.setLength(0);
+            for (double value : result.getParameters().values()) {
+                line.append(value).append(',');
+            }
+            result.appendCsvColumns(line);
+            writer.write(line.append('\n').toString());
+        }
+    }
+
+    /**
+     * Tâche qui simule une partie des points de la grille en se divisant en deux tant qu'elle contient plus d'un point
+     */
+    private class SweepTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<P> parameters;
+        private final double[][] values;
+        private final Particle particle;
+        private final PhysicsWorld.Algorithm algorithm;
+        private final double delta_t;
+        private final int maxSteps;
+        private final List<R> results;
+        private final int from, to;
+
+        /**
+         * Constructeur
+         *
+         * @param parameters Les paramètres balayés, dans l'ordre d'application
+         * @param values     Les valeurs de chaque paramètre
+         * @param particle   La particule
+         * @param algorithm  L'algorithme d'intégration
+         * @param delta_t    La différence de temps de chaque pas
+         * @param maxSteps   Le nombre maximal de pas
+         * @param results    La liste dans laquelle les résultats sont écrits
+         * @param from       L'index du premier point
+         * @param to         L'index qui suit le dernier point
+         */
+        SweepTask(List<P> parameters, double[][] values, Particle particle, PhysicsWorld.Algorithm algorithm, double delta_t, int maxSteps,
+                  List<R> results, int from, int to) {
+            this.parameters = parameters;
+            this.values = values;
+            this.particle = particle;
+            this.algorithm = algorithm;
+            this.delta_t = delta_t;
+            this.maxSteps = maxSteps;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                computePoints();
+            }
+            else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SweepTask(parameters, values, particle, algorithm, delta_t, maxSteps, results, from, middle),
+                        new SweepTask(parameters, values, particle, algorithm, delta_t, maxSteps, results, middle, to));
+            }
+        }
+
+        /**
+         * Permet de simuler les points de la tâche dans le fil d'exécution présent.
+         * Chaque tâche écrit des index différents de la liste, dont la taille ne change pas
+         */
+        void computePoints() {
+            for (int point = from; point < to; point++) {
+                /* Le dernier paramètre varie le plus vite */
+                EnumMap<P, Double> pointValues = new EnumMap<>(parameterClass);
+                int remainder = point;
+                for (int i = parameters.size() - 1; i >= 0; i--) {
+                    pointValues.put(parameters.get(i), values[i][remainder % values[i].length]);
+                    remainder /= values[i].length;
+                }
+                results.set(point, simulate(pointValues, particle, algorithm, delta_t, maxSteps));
+            }
+        }
+    }
+
+    /* -------------------Getters et setters------------------- */
+
+    /**
+     * Retourne les résultats de la dernière exécution
+     *
+     * @return Les résultats
+     */
+    public List<R> getResults() {
+        return results;
+    }
+
+    /**
+     * Retourne les valeurs balayées d'un paramètre
+     *
+     * @param parameter Le paramètre
+     * @return Les valeurs, ou null si le paramètre n'est pas balayé
+     */
+    public double[] getValues(P parameter) {
+        double[] values = grid.get(parameter);
+        return values == null ? null : values.clone();
+    }
+
+    /**
+     * Retourne les paramètres balayés
+     *
+     * @return Les paramètres, dans l'ordre d'application
+     */
+    public List<P> getParameters() {
+        return new ArrayList<>(grid.keySet());
+    }
+
+    /**
+     * Retourne la particule simulée à chaque point
+     *
+     * @return La particule
+     */
+    public Particle getParticle() {
+        return particle;
+    }
+
+    /**
+     * Permet d'ajuster la particule simulée à chaque point. Elle est copiée au début de l'exécution
+     *
+     * @param particle La particule
+     */
+    public void setParticle(Particle particle) {
+        this.particle = particle;
+    }
+
+    /**
+     * Retourne l'algorithme d'intégration des montages
+     *
+     * @return L'algorithme
+     */
+    public PhysicsWorld.Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Permet d'ajuster l'algorithme d'intégration des montages
+     *
+     * @param algorithm L'algorithme
+     */
+    public void setAlgorithm(PhysicsWorld.Algorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Retourne la différence de temps de chaque pas
+     *
+     * @return La différence de temps (s)
+     */
+    public double getDeltaT() {
+        return delta_t;
+    }
+
+    /**
+     * Permet d'ajuster la différence de temps de chaque pas
+     *
+     * @param delta_t La différence de temps (s)
+     */
+    public void setDeltaT(double delta_t) {
+        if (delta_t > 0.0) {
+            this.delta_t = delta_t;
+        }
+    }
+
+    /**
+     * Retourne le nombre maximal de pas d'un point. La simulation d'un point qui n'est pas terminée après ce nombre de pas est arrêtée
+     *
+     * @return Le nombre de pas
+     */
+    public int getMaxSteps() {
+        return maxSteps;
+    }
+
+    /**
+     * Permet d'ajuster le nombre maximal de pas d'un point
+     *
+     * @param maxSteps Le nombre de pas
+     */
+    public void setMaxSteps(int maxSteps) {
+        this.maxSteps = Math.max(1, maxSteps);
+    }
+
+    /**
+     * Permet de savoir si les points sont simulés en parallèle
+     *
+     * @return Vrai si les points sont simulés en parallèle
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Permet de simuler les points en parallèle ou dans le fil d'exécution qui appelle run()
+     *
+     * @param parallel Vrai si les points doivent être simulés en parallèle
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+}
@@ -65,6 +65,139 @@ public final class Physics {
     }
 
 
+    /**
+     * Permet d'obtenir la position d'un objet selon la formule x(t)=x0+v0*t+1/2 *a*t^2 sans créer d'objet.
+     * Le résultat est écrit dans le tableau 'position'
+     *
+     * @param x0       La position initiale
+     * @param v0       La vitesse initiale
+     * @param a        l'accélération
+     * @param t        le temps
+     * @param position Le tableau dans lequel la position est écrite
+     */
+    public static void position(double[] x0, double[] v0, double[] a, double t, double[] position) {
+        double halfSquaredTime = 0.5 * Math.pow(t, 2);
+        for (int i = 0; i < 3; i++) {
+            position[i] = (x0[i] + t * v0[i]) + halfSquaredTime * a[i];
+        }
+    }
+
+    /**
+     * Permet d'obtenir la vitesse d'un objet en fonction du temps et de l'accélération sans créer d'objet.
+     * Le résultat est écrit dans le tableau 'speed'
+     *
+     * @param v0    La vitesse initiale
+     * @param a     l'accélération
+     * @param t     le temps
+     * @param speed Le tableau dans lequel la vitesse est écrite
+     */
+    public static void speed(double[] v0, double[] a, double t, double[] speed) {
+        for (int i = 0; i < 3; i++) {
+            speed[i] = v0[i] + t * a[i];
+        }
+    }
+
+    /**
+     * Permet d'obtenir l'accélération d'une particule soumise aux champs électrique et magnétique selon la force de Lorentz sans créer d'objet.
+     * Le résultat est écrit dans le tableau 'acceleration'
+     *
+     * @param charge        la charge de la particule
+     * @param mass          la masse de la particule
+     * @param speed         la vitesse de la particule
+     * @param electricField le champ électrique
+     * @param magneticField le champ magnétique
+     * @param acceleration  Le tableau dans lequel l'accélération est écrite
+     */
+    public static void acceleration(double charge, double mass, double[] speed, double[] electricField, double[] magneticField, double[] acceleration) {
+        double crossX = speed[1] * magneticField[2] - speed[2] * magneticField[1];
+        double crossY = -1 * (speed[0] * magneticField[2] - speed[2] * magneticField[0]);
+        double crossZ = speed[0] * magneticField[1] - speed[1] * magneticField[0];
+        double inverseMass = 1 / mass;
+        acceleration[0] = inverseMass * (charge * electricField[0] + charge * crossX);
+        acceleration[1] = inverseMass * (charge * electricField[1] + charge * crossY);
+        acceleration[2] = inverseMass * (charge * electricField[2] + charge * crossZ);
+    }
+
+    /**
+     * Permet d'obtenir l'accélération d'une particule soumise aux champs électrique et magnétique selon la force de Lorentz
+     *
+     * @param charge        la charge de la particule
+     * @param mass          la masse de la particule
+     * @param speed         la vitesse de la particule
+     * @param electricField le champ électrique
+     * @param magneticField le champ magnétique
+     * @return l'accélération
+     */
+    public static SVector3d acceleration(double charge, double mass, SVector3d speed, SVector3d electricField, SVector3d magneticField) {
+        SVector3d electricForce = electricForce(charge, electricField);
+        SVector3d magneticForce = magneticForce(charge, speed, magneticField);
+        return acceleration(electricForce.add(magneticForce), mass);
+    }
+
+    /**
+     * Permet d'obtenir la position et la vitesse au temps t d'une particule soumise à des champs électrique et magnétique uniformes, sans créer d'objet.
+     * La vitesse est séparée en une partie parallèle au champ magnétique, qui suit un mouvement uniformément accéléré,
+     * une vitesse de dérive E x B / B^2 et une partie qui tourne autour du champ magnétique à la fréquence cyclotron.
+     *
+     * @param chargeOverMass Le rapport charge/masse de la particule (C/kg)
+     * @param x0             La position initiale
+     * @param v0             La vitesse initiale
+     * @param electricField  Le champ électrique
+     * @param magneticField  Le champ magnétique
+     * @param t              Le temps écoulé
+     * @param position       Le tableau dans lequel la position est écrite
+     * @param speed          Le tableau dans lequel la vitesse est écrite
+     */
+    public static void uniformFieldMotion(double chargeOverMass, double[] x0, double[] v0, double[] electricField, double[] magneticField, double t, double[] position, double[] speed) {
+        double bx = magneticField[0], by = magneticField[1], bz = magneticField[2];
+        double squaredB = bx * bx + by * by + bz * bz;
+        if (squaredB == 0.0 || chargeOverMass == 0.0) {
+            for (int i = 0; i < 3; i++) {
+                double acceleration = chargeOverMass * electricField[i];
+                position[i] = x0[i] + v0[i] * t + 0.5 * acceleration * t * t;
+                speed[i] = v0[i] + acceleration * t;
+            }
+            return;
+        }
+        double modulusB = Math.sqrt(squaredB);
+        double ux = bx / modulusB, uy = by / modulusB, uz = bz / modulusB;
+        double omega = chargeOverMass * modulusB;
+
+        /* Parties parallèles au champ magnétique */
+        double parallelE = electricField[0] * ux + electricField[1] * uy + electricField[2] * uz;
+        double parallelV = v0[0] * ux + v0[1] * uy + v0[2] * uz;
+        double parallelA = chargeOverMass * parallelE;
+
+        /* Vitesse de dérive E x B / B^2 */
+        double driftX = (electricField[1] * bz - electricField[2] * by) / squaredB;
+        double driftY = (electricField[2] * bx - electricField[0] * bz) / squaredB;
+        double driftZ = (electricField[0] * by - electricField[1] * bx) / squaredB;
+
+        /* Vitesse de rotation initiale, perpendiculaire au champ magnétique et sans la dérive */
+        double rx = v0[0] - parallelV * ux - driftX;
+        double ry = v0[1] - parallelV * uy - driftY;
+        double rz = v0[2] - parallelV * uz - driftZ;
+        double crossX = uy * rz - uz * ry;
+        double crossY = uz * rx - ux * rz;
+        double crossZ = ux * ry - uy * rx;
+
+        double angle = omega * t;
+        double sin = Math.sin(angle);
+        double cos = Math.cos(angle);
+        double halfSin = Math.sin(angle / 2);
+        /* (cos - 1) est calculé avec -2 sin^2(angle / 2) afin de garder la précision pour les petits angles */
+        double cosMinusOne = -2.0 * halfSin * halfSin;
+        double parallelDistance = parallelV * t + 0.5 * parallelA * t * t;
+        double parallelSpeed = parallelV + parallelA * t;
+
+        position[0] = x0[0] + parallelDistance * ux + driftX * t + (rx * sin + crossX * cosMinusOne) / omega;
+        position[1] = x0[1] + parallelDistance * uy + driftY * t + (ry * sin + crossY * cosMinusOne) / omega;
+        position[2] = x0[2] + parallelDistance * uz + driftZ * t + (rz * sin + crossZ * cosMinusOne) / omega;
+        speed[0] = parallelSpeed * ux + driftX + rx * cos - crossX * sin;
+        speed[1] = parallelSpeed * uy + driftY + ry * cos - crossY * sin;
+        speed[2] = parallelSpeed * uz + driftZ + rz * cos - crossZ * sin;
+    }
+
     /**
      * Retourne l'accélération d'un objet en fonction de la force appliquée à celui-ci et la masse de l'objet en utilisant la formule a=F/m dérivée de F=ma
      *
@@ -3,10 +3,17 @@ package physics;
 import math.SVector3d;
 import physics.component.Particle;
 import physics.component.ParticleGenerator;
+import physics.component.ParticleStore;
 import physics.component.PhysicComponent;
 
 import javax.swing.event.EventListenerList;
+import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 
 /**
@@ -24,7 +31,77 @@ public class PhysicsWorld extends PhysicComponent {
     private static final long serialVersionUID = 1L;
 
 
-    public enum Algorithm {EULER, RK4}
+    /**
+     * Les algorithmes d'intégration.
+     * RK4_PRIMITIVE donne les mêmes résultats que RK4, mais garde la position, la vitesse et l'accélération dans des tableaux réutilisés afin de ne créer aucun vecteur.
+     * RK45 (Dormand–Prince) divise chaque pas en sous-pas dont la taille est ajustée pour chaque particule selon l'erreur estimée et la tolérance.
+     * BORIS évalue les champs une seule fois par pas et fait tourner la vitesse autour du champ magnétique sans changer son module, ce qui garde les orbites fermées.
+     * ANALYTIC utilise la solution exacte du mouvement lorsque tous les champs sont uniformes et saute d'une frontière de composant à la suivante. Sinon, RK4 est utilisé
+     */
+    public enum Algorithm {EULER, RK4, RK4_PRIMITIVE, RK45, BORIS, ANALYTIC}
+
+    /**
+     * La tolérance relative par défaut de l'algorithme RK45
+     */
+    public static final double DEFAULT_TOLERANCE = 1e-6;
+
+    /**
+     * Le nombre maximal de sous-pas de l'algorithme RK45 pendant un pas
+     */
+    private static final int MAX_SUBSTEPS = 100000;
+
+    /**
+     * Le nombre maximal de segments analytiques d'une particule pendant un pas
+     */
+    private static final int MAX_ANALYTIC_SEGMENTS = 10000;
+
+    /**
+     * L'angle maximal (rad) de rotation autour du champ magnétique entre deux échantillons lors de la recherche d'une frontière
+     */
+    private static final double ANALYTIC_SAMPLE_ANGLE = Math.PI / 8;
+
+    /**
+     * Le nombre maximal d'échantillons lors de la recherche d'une frontière
+     */
+    private static final int MAX_ANALYTIC_SAMPLES = 4096;
+
+    /* Coefficients de Dormand–Prince */
+    private static final double[] DORMAND_PRINCE_C = {0.0, 1.0 / 5, 3.0 / 10, 4.0 / 5, 8.0 / 9, 1.0, 1.0};
+    private static final double[][] DORMAND_PRINCE_A = {
+            {},
+            {1.0 / 5},
+            {3.0 / 40, 9.0 / 40},
+            {44.0 / 45, -56.0 / 15, 32.0 / 9},
+            {19372.0 / 6561, -25360.0 / 2187, 64448.0 / 6561, -212.0 / 729},
+            {9017.0 / 3168, -355.0 / 33, 46732.0 / 5247, 49.0 / 176, -5103.0 / 18656},
+            {35.0 / 384, 0.0, 500.0 / 1113, 125.0 / 192, -2187.0 / 6784, 11.0 / 84}
+    };
+    /**
+     * La différence entre les solutions d'ordre 5 et d'ordre 4, qui sert à estimer l'erreur
+     */
+    private static final double[] DORMAND_PRINCE_E = {71.0 / 57600, 0.0, -71.0 / 16695, 71.0 / 1920, -17253.0 / 339200, 22.0 / 525, -1.0 / 40};
+
+    /**
+     * Les méthodes de calcul du champ électrique créé par les particules.
+     * DIRECT additionne le champ de chaque particule. BARNES_HUT approxime les groupes de particules éloignées à l'aide d'un arbre quaternaire construit au début de chaque pas
+     */
+    public enum FieldSolver {DIRECT, BARNES_HUT}
+
+    /**
+     * L'angle d'ouverture par défaut de l'arbre de Barnes–Hut
+     */
+    public static final double DEFAULT_OPENING_ANGLE = 0.5;
+
+    /**
+     * Le nombre de cellules par défaut sur le plus grand côté de la grille des champs statiques
+     */
+    public static final int DEFAULT_LATTICE_RESOLUTION = 256;
+
+    /**
+     * Le nombre maximal de particules qu'une tâche du pas parallèle met à jour sans se diviser.
+     * Le pas est séquentiel lorsque le monde contient moins de particules
+     */
+    private static final int PARALLEL_STEP_THRESHOLD = 256;
 
     private ArrayList<Particle> particleList = new ArrayList<>();
     private ArrayList<PhysicComponent> componentList = new ArrayList<>();
@@ -33,6 +110,67 @@ public class PhysicsWorld extends PhysicComponent {
 
     private Algorithm algorithm = Algorithm.RK4;
 
+    private boolean parallelStep = false;
+
+    private FieldSolver fieldSolver = FieldSolver.DIRECT;
+    private double tolerance = DEFAULT_TOLERANCE;
+    private double openingAngle = DEFAULT_OPENING_ANGLE;
+
+    private boolean fieldLatticeEnabled = false;
+    private int latticeResolution = DEFAULT_LATTICE_RESOLUTION;
+
+    private transient IntegratorBuffers integratorBuffers;
+
+    /**
+     * Le magasin qui contient l'état des particules de 'particleList' sous forme de tableaux
+     */
+    private transient ParticleStore particleStore;
+
+    /**
+     * Le numéro de version de la structure pour lequel le magasin de particules correspond à 'particleList'
+     */
+    private transient long particleStoreVersion;
+
+    /**
+     * La grille qui permet de trouver les composants qui peuvent créer un champ à un point
+     */
+    private transient ComponentIndex componentIndex;
+
+    /**
+     * L'arbre qui contient une image des particules qui créent un champ, utilisé par FieldSolver.BARNES_HUT
+     */
+    private transient ChargeTree chargeTree;
+
+    /**
+     * La grille qui contient les champs des composants statiques, utilisée lorsque 'fieldLatticeEnabled' est vrai
+     */
+    private transient FieldLattice fieldLattice;
+
+    /**
+     * Si tous les composants interactifs sont uniformes. Calculé au début de chaque pas de l'algorithme ANALYTIC
+     */
+    private transient boolean uniformComponents;
+
+    /**
+     * Le nombre de particules interactives qui créent un champ. Calculé au début de chaque pas de l'algorithme ANALYTIC
+     */
+    private transient int fieldCreatingParticles;
+
+    /**
+     * Les images de l'état des particules publiées pour l'interface
+     */
+    private transient SnapshotBuffer snapshotBuffer;
+
+    /**
+     * Le numéro de version de la structure du monde, incrémenté lorsqu'un composant, une particule ou un générateur est ajouté ou retiré
+     */
+    private transient long structureVersion = 0;
+
+    /**
+     * Le nombre de pas pendant lesquels une particule qui crée un champ a pu se déplacer
+     */
+    private transient long sourceMotionVersion = 0;
+
 
     protected final EventListenerList LISTENERS = new EventListenerList();
 
@@ -45,19 +183,34 @@ public class PhysicsWorld extends PhysicComponent {
 
 
     /**
-     * Permet d'ajouter un composant au monde
+     * Permet d'ajouter un composant au monde. Une particule qui fait déjà partie du magasin d'un monde physique est refusée,
+     * puisque son état ne peut être gardé que dans un seul magasin
      *
      * @param component Le composant
+     * @throws IllegalArgumentException Si la particule fait déjà partie d'un monde physique
      */
     public void add(PhysicComponent component) {
+        if (component instanceof Particle && ((Particle) component).getStore() != null) {
+            throw new IllegalArgumentException("La particule fait déjà partie d'un monde physique");
+        }
+        boolean storeValid = isParticleStoreValid();
+        structureVersion++;
         if (component instanceof Particle) {
             particleList.add((Particle) component);
+            if (storeValid) {
+                particleStore.add((Particle) component);
+            }
         }
         else if (component instanceof ParticleGenerator) {
             particleGeneratorsList.add((ParticleGenerator) component);
         }
         else {
             componentList.add(component);
+            componentIndex = null;
+            fieldLattice = null;
+        }
+        if (storeValid) {
+            particleStoreVersion = structureVersion;
         }
     }
 
@@ -85,14 +238,25 @@ public class PhysicsWorld extends PhysicComponent {
      * @param component Le composant à retirer
      */
     public void remove(PhysicComponent component) {
+        boolean storeValid = isParticleStoreValid();
+        structureVersion++;
         if (component instanceof Particle) {
             particleList.remove(component);
+            Particle particle = (Particle) component;
+            if (particleStore != null && particle.getStore() == particleStore) {
+                particleStore.remove(particle.getStoreIndex());
+            }
         }
         else if (component instanceof ParticleGenerator) {
             particleGeneratorsList.remove(component);
         }
         else {
             componentList.remove(component);
+            componentIndex = null;
+            fieldLattice = null;
+        }
+        if (storeValid) {
+            particleStoreVersion = structureVersion;
         }
     }
 
@@ -100,33 +264,29 @@ public class PhysicsWorld extends PhysicComponent {
 
     /**
      * Permet de calculer l'accélération future d'une particle.
-     * La méthode retourne l'accélération que la particle aura au temps t
+     * La méthode retourne l'accélération que la particle aura au temps t si elle se trouve à la position 'position' avec la vitesse 'speed'.
+     * La particule n'est pas modifiée, la méthode peut donc être appelée pour plusieurs particules en même temps
      *
      * @param particle la particle
      * @param position la position future de la particle
      * @param speed    la vitesse future de la particle
      * @param t        le temps
+     * @param field    Un tableau temporaire de trois éléments
      * @return L'accélération sous la forme d'un vecteur
      */
-    public SVector3d getParticleAcceleration(Particle particle, SVector3d position, SVector3d speed, double t) {
-        /* On garde en mémoire l'état initiale de la particle */
-        SVector3d particuleElectricField = particle.getElectricField();
-        SVector3d particuleMagneticField = particle.getMagneticField();
-        SVector3d particulePosition = particle.getPosition();
-        SVector3d particuleSpeed = particle.getPosition();
-
-        /* On met à jour la particle pour avoir son accélération au temps t */
-        particle.setPosition(position);
-        particle.setSpeed(speed);
-        updateParticle(particle, t);
-        SVector3d acceleration = particle.getAcceleration();
-
-        /* On restore l'état initiale de la particle */
-        particle.setElectricField(particuleElectricField);
-        particle.setMagneticField(particuleMagneticField);
-        particle.setPosition(particulePosition);
-        particle.setSpeed(particuleSpeed);
-        return acceleration;
+    public SVector3d getParticleAcceleration(Particle particle, SVector3d position, SVector3d speed, double t, double[] field) {
+        SVector3d electricField;
+        SVector3d magneticField;
+        if (particle.isInteractive()) {
+            electricField = getElectricField(position, t, particle, field);
+            magneticField = getMagneticField(position, t);
+        }
+        else {
+            /* Une particule qui n'est pas interactive garde les champs qu'elle avait */
+            electricField = particle.getElectricField();
+            magneticField = particle.getMagneticField();
+        }
+        return Physics.acceleration(particle.getCharge(), particle.getMass(), speed, electricField, magneticField);
     }
 
 
@@ -170,17 +330,209 @@ public class PhysicsWorld extends PhysicComponent {
     public void step(double delta_t, double time) {
         raiseEventStep(delta_t);
         updateParticleGenerators(delta_t);
+        updateCaches();
+        ParticleStore store = getParticleStore();
+        if (hasMovingSources(store)) {
+            sourceMotionVersion++;
+        }
+        if (parallelStep && store.size() > PARALLEL_STEP_THRESHOLD && isParallelStepSafe()) {
+            ForkJoinPool.commonPool().invoke(new ParticleStepTask(store, 0, store.size(), delta_t, time));
+        }
+        else {
+            stepParticles(store, 0, store.size(), delta_t, time, getIntegratorBuffers());
+        }
+    }
+
+    /**
+     * Permet de mettre à jour les particules du magasin dont l'index est compris entre 'from' (inclus) et 'to' (exclus)
+     *
+     * @param store   Le magasin de particules
+     * @param from    L'index de la première particule
+     * @param to      L'index qui suit la dernière particule
+     * @param delta_t La différence de temps
+     * @param time    Le temps présent
+     * @param buffers Les tableaux temporaires
+     */
+    private void stepParticles(ParticleStore store, int from, int to, double delta_t, double time, IntegratorBuffers buffers) {
+        for (int i = from; i < to; i++) {
+            stepParticle(store, i, delta_t, time, buffers);
+        }
+    }
+
+    /**
+     * Permet de mettre à jour la particule à l'index 'index' d'un magasin avec l'algorithme du monde.
+     * Le magasin peut être celui du monde ou un magasin séparé, par exemple pour suivre des particules qui ne font pas partie du monde sans le modifier.
+     * Les structures du monde doivent être à jour (voir updateCaches()). La méthode peut être appelée par plusieurs fils en même temps pour des particules différentes
+     * si isFieldQueryThreadSafe() est vrai et que chaque fil a ses propres tableaux temporaires
+     *
+     * @param store   Le magasin de particules
+     * @param index   L'index de la particule
+     * @param delta_t La différence de temps
+     * @param time    Le temps présent
+     * @param buffers Les tableaux temporaires
+     */
+    public void stepParticle(ParticleStore store, int index, double delta_t, double time, IntegratorBuffers buffers) {
+        if (!store.hasFlag(index, ParticleStore.MOVEABLE)) {
+            return;
+        }
+        switch (algorithm) {
+            case RK4_PRIMITIVE:
+                stepRungeKuttaPrimitive(store, index, delta_t, time, buffers);
+                break;
+            case RK45:
+                stepDormandPrince(store, index, delta_t, time, buffers);
+                break;
+            case BORIS:
+                stepBoris(store, index, delta_t, time, buffers);
+                break;
+            case ANALYTIC:
+                stepAnalytic(store, index, delta_t, time, buffers);
+                break;
+            case RK4:
+                stepRungeKutta(store.getParticle(index), delta_t, time, buffers);
+                break;
+            case EULER:
+                stepEuler(store.getParticle(index), delta_t, time, buffers);
+                break;
+        }
+    }
+
+    /**
+     * Permet de savoir si une particule interactive qui crée un champ peut se déplacer pendant le pas
+     *
+     * @param store Le magasin de particules
+     * @return Vrai si le champ créé par les particules peut changer pendant le pas
+     */
+    private boolean hasMovingSources(ParticleStore store) {
+        for (int i = 0; i < store.size(); i++) {
+            if (store.hasFlag(i, ParticleStore.INTERACTIVE) && store.hasFlag(i, ParticleStore.CREATES_FIELD) && store.hasFlag(i, ParticleStore.MOVEABLE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retourne le numéro de version de la structure du monde.
+     * Il change lorsqu'un composant, une particule ou un générateur est ajouté ou retiré, ou lorsqu'une liste est remplacée
+     *
+     * @return Le numéro de version de la structure
+     */
+    public long getStructureVersion() {
+        return structureVersion;
+    }
+
+    /**
+     * Retourne un numéro de version des champs du monde. Il est calculé à partir de la version des composants et de getParticleFieldVersion().
+     * Une carte des champs calculée pour la même version de la structure et la même version des champs n'a pas besoin d'être recalculée
+     *
+     * @return Le numéro de version des champs
+     */
+    public long getFieldVersion() {
+        long version = getParticleFieldVersion();
+        for (PhysicComponent component : componentList) {
+            version = mixVersion(version, component.getVersion());
+        }
+        return version;
+    }
+
+    /**
+     * Retourne un numéro de version du champ créé par les particules. Il est calculé à partir de l'identité et de la version des particules
+     * interactives qui créent un champ, ainsi que du nombre de pas pendant lesquels ces particules ont pu se déplacer.
+     * Ajouter ou retirer une particule qui ne crée pas de champ ne change pas ce numéro
+     *
+     * @return Le numéro de version du champ des particules
+     */
+    public long getParticleFieldVersion() {
+        long version = sourceMotionVersion;
         for (Particle particle : particleList) {
-            updateParticle(particle, time + delta_t);
-            if (particle.isMoveable()) {
-                switch (algorithm) {
-                    case RK4:
-                        stepRungeKutta(particle, delta_t, time);
-                        break;
-                    case EULER:
-                        stepEuler(particle, delta_t);
-                        break;
-                }
+            if (particle.isInteractive() && particle.getCreatesField()) {
+                version = mixVersion(mixVersion(version, System.identityHashCode(particle)), particle.getVersion());
+            }
+        }
+        return version;
+    }
+
+    /**
+     * Permet de combiner un numéro de version avec celui d'un composant. L'ordre des composants est pris en compte
+     *
+     * @param version          Le numéro de version accumulé
+     * @param componentVersion Le numéro de version du composant
+     * @return Le nouveau numéro de version
+     */
+    private static long mixVersion(long version, long componentVersion) {
+        return version * 0x9E3779B97F4A7C15L + componentVersion + 1;
+    }
+
+    /**
+     * Permet de savoir si les champs peuvent être calculés en même temps par plusieurs fils, par exemple pour une carte des champs.
+     * Le calcul ne modifie pas le monde, sauf pour les mondes dont les champs dépendent d'un état interne
+     *
+     * @return Vrai si les champs peuvent être calculés en parallèle
+     */
+    public boolean isFieldQueryThreadSafe() {
+        return true;
+    }
+
+    /**
+     * Permet de savoir si les particules peuvent être mises à jour en parallèle.
+     * C'est le cas lorsqu'aucune particule qui peut bouger ne crée de champ sur les autres : chaque particule ne lit alors que des champs qui ne changent pas pendant le pas,
+     * et le résultat est le même que celui du pas séquentiel.
+     *
+     * @return Vrai si le pas peut être parallèle
+     */
+    protected boolean isParallelStepSafe() {
+        if (fieldSolver == FieldSolver.BARNES_HUT) {
+            /* Les particules lisent l'arbre construit au début du pas, qui ne change pas pendant le pas */
+            return true;
+        }
+        ParticleStore store = getParticleStore();
+        for (int i = 0; i < store.size(); i++) {
+            if (store.hasFlag(i, ParticleStore.MOVEABLE) && store.hasFlag(i, ParticleStore.INTERACTIVE) && store.hasFlag(i, ParticleStore.CREATES_FIELD)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tâche qui met à jour une partie des particules du magasin en se divisant en deux tant qu'elle contient trop de particules
+     */
+    private class ParticleStepTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ParticleStore store;
+        private final int from, to;
+        private final double delta_t, time;
+
+        /**
+         * Constructeur
+         *
+         * @param store   Le magasin de particules
+         * @param from    L'index de la première particule
+         * @param to      L'index qui suit la dernière particule
+         * @param delta_t La différence de temps
+         * @param time    Le temps présent
+         */
+        ParticleStepTask(ParticleStore store, int from, int to, double delta_t, double time) {
+            this.store = store;
+            this.from = from;
+            this.to = to;
+            this.delta_t = delta_t;
+            this.time = time;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_STEP_THRESHOLD) {
+                /* Chaque tâche a ses propres tableaux temporaires */
+                stepParticles(store, from, to, delta_t, time, new IntegratorBuffers());
+            }
+            else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ParticleStepTask(store, from, middle, delta_t, time),
+                        new ParticleStepTask(store, middle, to, delta_t, time));
             }
         }
     }
@@ -191,32 +543,34 @@ public class PhysicsWorld extends PhysicComponent {
      * @param particle La particle à modifier
      * @param delta_t  La différence de temps
      * @param time le temps présent
+     * @param buffers  Les tableaux temporaires
      */
-    public void stepRungeKutta(Particle particle, double delta_t, double time) {
+    public void stepRungeKutta(Particle particle, double delta_t, double time, IntegratorBuffers buffers) {
+        double[] field = buffers.electricField;
         SVector3d x0 = particle.getPosition();
         SVector3d v0 = particle.getSpeed();
         double t0 = time;
-        SVector3d a0 = getParticleAcceleration(particle, x0, v0, t0);
+        SVector3d a0 = getParticleAcceleration(particle, x0, v0, t0, field);
 
         /* Calculs à la première position finale */
         SVector3d xf1 = Physics.position(x0, v0, new SVector3d(), delta_t);
         SVector3d vf1 = Physics.speed(v0, a0, delta_t);
         double tf1 = t0 + delta_t;
-        SVector3d af1 = getParticleAcceleration(particle, xf1, vf1, tf1);
+        SVector3d af1 = getParticleAcceleration(particle, xf1, vf1, tf1, field);
 
         /* Calculs à la position à demi-temps */
         SVector3d xmid = Physics.position(x0, v0, a0, delta_t / 2);
         SVector3d tempA = a0.multiply(0.75).add(af1.multiply(0.25));
         SVector3d vmid = Physics.speed(v0, tempA, delta_t / 2);
         double tmid = t0 + delta_t / 2;
-        SVector3d amid = getParticleAcceleration(particle, xmid, vmid, tmid);
+        SVector3d amid = getParticleAcceleration(particle, xmid, vmid, tmid, field);
 
         /* Calculs à la deuxième position finale */
         SVector3d xf2 = Physics.position(x0, v0, a0, delta_t);
         SVector3d tempA2 = a0.multiply(0.5).add(af1.multiply(0.5));
         SVector3d vf2 = Physics.speed(v0, tempA2, delta_t);
         double tf2 = t0 + delta_t;
-        SVector3d af2 = getParticleAcceleration(particle, xf2, vf2, tf2);
+        SVector3d af2 = getParticleAcceleration(particle, xf2, vf2, tf2, field);
 
         /* Calcul de la position finale avec pondération de l’accélération  */
         SVector3d tempA3 = a0.multiply((1.0 / 3)).add(amid.multiply(2.0 / 3));
@@ -230,126 +584,894 @@ public class PhysicsWorld extends PhysicComponent {
     }
 
     /**
-     * Permet de mettre a jour la vitesse et la position d'une particle en fonction d'un pas de Euler
+     * Permet de mettre à jour la vitesse et la position d'une particle en fonction d'un pas de Runge Kutta (RK4) sans créer de vecteurs.
+     * Les calculs sont les mêmes que ceux de stepRungeKutta, mais la position, la vitesse et l'accélération sont gardées dans les tableaux de 'buffers'
      *
      * @param particle La particle à modifier
      * @param delta_t  La différence de temps
+     * @param time     le temps présent
+     * @param buffers  Les tableaux temporaires
      */
-    public void stepEuler(Particle particle, double delta_t) {
-        SVector3d speed = particle.getSpeed().add(particle.getAcceleration().multiply(delta_t));
-        SVector3d position = particle.getPosition().add(particle.getSpeed().multiply(delta_t));
-        particle.setPosition(position);
-        particle.setSpeed(speed);
-    }
-
-
-
+    public void stepRungeKuttaPrimitive(Particle particle, double delta_t, double time, IntegratorBuffers buffers) {
+        ParticleStore store = particle.getStore();
+        if (store != null) {
+            stepRungeKuttaPrimitive(store, particle.getStoreIndex(), delta_t, time, buffers);
+            return;
+        }
 
+        Rectangle2D.Double bounds = particle.getBounds();
+        SVector3d speed = particle.getSpeed();
+        buffers.x0[0] = bounds.getX();
+        buffers.x0[1] = bounds.getY();
+        buffers.x0[2] = 0.0;
+        buffers.v0[0] = speed.getX();
+        buffers.v0[1] = speed.getY();
+        buffers.v0[2] = speed.getZ();
 
-    /* Écouteurs */
+        integrateRungeKuttaPrimitive(particle, delta_t, time, buffers);
 
+        /* La position est modifiée directement dans les bornes de la particule */
+        bounds.setRect(buffers.x[0], buffers.x[1], bounds.getWidth(), bounds.getHeight());
+        particle.setSpeed(new SVector3d(buffers.v[0], buffers.v[1], buffers.v[2]));
+    }
 
     /**
-     * Permet d'ajouter un écouteur de type PhysicsWorldListener
+     * Permet de mettre à jour la vitesse et la position de la particule à l'index 'index' du magasin en fonction d'un pas de Runge Kutta (RK4).
+     * La position et la vitesse sont lues et écrites directement dans les tableaux du magasin
      *
-     * @param listener l'écouteur
+     * @param store   Le magasin de particules
+     * @param index   L'index de la particule
+     * @param delta_t La différence de temps
+     * @param time    le temps présent
+     * @param buffers Les tableaux temporaires
      */
-    public void addPhysicsWorldListener(PhysicsWorldListener listener) {
-        LISTENERS.add(PhysicsWorldListener.class, listener);
+    public void stepRungeKuttaPrimitive(ParticleStore store, int index, double delta_t, double time, IntegratorBuffers buffers) {
+        buffers.x0[0] = store.getX()[index];
+        buffers.x0[1] = store.getY()[index];
+        buffers.x0[2] = store.getZ()[index];
+        buffers.v0[0] = store.getVx()[index];
+        buffers.v0[1] = store.getVy()[index];
+        buffers.v0[2] = store.getVz()[index];
+
+        integrateRungeKuttaPrimitive(store.getParticle(index), delta_t, time, buffers);
+
+        store.getX()[index] = buffers.x[0];
+        store.getY()[index] = buffers.x[1];
+        store.getZ()[index] = buffers.x[2];
+        store.getVx()[index] = buffers.v[0];
+        store.getVy()[index] = buffers.v[1];
+        store.getVz()[index] = buffers.v[2];
     }
 
     /**
-     * Permet de lever un évènement lorsque la simulation fait un pas
+     * Permet de calculer un pas de Runge Kutta (RK4) à partir de la position buffers.x0 et de la vitesse buffers.v0.
+     * La position et la vitesse finales sont écrites dans buffers.x et buffers.v
      *
-     * @param delta_t La différence de temps
+     * @param particle La particle
+     * @param delta_t  La différence de temps
+     * @param time     le temps présent
+     * @param buffers  Les tableaux temporaires
      */
-    public void raiseEventStep(double delta_t) {
-        for (PhysicsWorldListener listener : LISTENERS.getListeners(PhysicsWorldListener.class)) {
-            listener.step(delta_t);
+    private void integrateRungeKuttaPrimitive(Particle particle, double delta_t, double time, IntegratorBuffers buffers) {
+        double[] x0 = buffers.x0, v0 = buffers.v0, a0 = buffers.a0;
+        double[] tempA = buffers.tempA;
+
+        double t0 = time;
+        getParticleAcceleration(particle, x0, v0, t0, buffers, a0);
+
+        /* Calculs à la première position finale */
+        Arrays.fill(tempA, 0.0);
+        Physics.position(x0, v0, tempA, delta_t, buffers.xf1);
+        Physics.speed(v0, a0, delta_t, buffers.vf1);
+        getParticleAcceleration(particle, buffers.xf1, buffers.vf1, t0 + delta_t, buffers, buffers.af1);
+
+        /* Calculs à la position à demi-temps */
+        Physics.position(x0, v0, a0, delta_t / 2, buffers.xmid);
+        weightAccelerations(0.75, a0, 0.25, buffers.af1, tempA);
+        Physics.speed(v0, tempA, delta_t / 2, buffers.vmid);
+        getParticleAcceleration(particle, buffers.xmid, buffers.vmid, t0 + delta_t / 2, buffers, buffers.amid);
+
+        /* Calculs à la deuxième position finale */
+        Physics.position(x0, v0, a0, delta_t, buffers.xf2);
+        weightAccelerations(0.5, a0, 0.5, buffers.af1, tempA);
+        Physics.speed(v0, tempA, delta_t, buffers.vf2);
+        getParticleAcceleration(particle, buffers.xf2, buffers.vf2, t0 + delta_t, buffers, buffers.af2);
+
+        /* Calcul de la position finale avec pondération de l’accélération  */
+        weightAccelerations((1.0 / 3), a0, 2.0 / 3, buffers.amid, tempA);
+        Physics.position(x0, v0, tempA, delta_t, buffers.x);
+        weightAccelerations(1.0 / 6, a0, 4.0 / 6, buffers.amid, tempA);
+        for (int i = 0; i < 3; i++) {
+            tempA[i] += (1.0 / 6) * buffers.af2[i];
         }
+        Physics.speed(v0, tempA, delta_t, buffers.v);
     }
 
     /**
-     * Permet de lever un évènement lorsqu'une particule est générée
+     * Permet de mettre à jour la vitesse et la position de la particule à l'index 'index' du magasin en fonction de l'algorithme de Dormand–Prince (RK45).
+     * Le pas est divisé en sous-pas. Chaque sous-pas estime son erreur en comparant les solutions d'ordre 4 et 5 : il est refusé et recommencé avec un pas plus petit
+     * si l'erreur dépasse la tolérance, et le pas suivant est agrandi lorsque l'erreur est petite. Le dernier pas accepté est gardé dans le magasin pour le pas suivant.
+     * La dernière dérivée d'un sous-pas accepté est réutilisée comme première dérivée du sous-pas suivant.
+     *
+     * @param store   Le magasin de particules
+     * @param index   L'index de la particule
+     * @param delta_t La différence de temps
+     * @param time    le temps présent
+     * @param buffers Les tableaux temporaires
      */
-    public void raiseEventParticleGenerated() {
-        for (PhysicsWorldListener listener : LISTENERS.getListeners(PhysicsWorldListener.class)) {
-            listener.particleGenerated();
+    public void stepDormandPrince(ParticleStore store, int index, double delta_t, double time, IntegratorBuffers buffers) {
+        Particle particle = store.getParticle(index);
+        double[] state = buffers.state, stageState = buffers.stageState, nextState = buffers.nextState;
+        double[][] k = buffers.derivatives;
+
+        state[0] = store.getX()[index];
+        state[1] = store.getY()[index];
+        state[2] = store.getZ()[index];
+        state[3] = store.getVx()[index];
+        state[4] = store.getVy()[index];
+        state[5] = store.getVz()[index];
+
+        double h = store.getStepSize()[index];
+        if (!(h > 0.0)) {
+            h = delta_t;
         }
-    }
-
-
+        double minimumStep = delta_t * 1e-9;
+        double t = time;
+        double end = time + delta_t;
+        getStateDerivative(particle, state, t, buffers, k[0]);
+
+        int substeps = 0;
+        while (t < end) {
+            double step = h;
+            boolean last = t + step >= end;
+            if (last) {
+                step = end - t;
+            }
 
+            for (int s = 1; s < 7; s++) {
+                double[] stage = s == 6 ? nextState : stageState;
+                double[] a = DORMAND_PRINCE_A[s];
+                for (int i = 0; i < 6; i++) {
+                    double sum = 0.0;
+                    for (int j = 0; j < s; j++) {
+                        sum += a[j] * k[j][i];
+                    }
+                    stage[i] = state[i] + step * sum;
+                }
+                getStateDerivative(particle, stage, t + DORMAND_PRINCE_C[s] * step, buffers, k[s]);
+            }
 
+            /* Erreur relative, avec une valeur minimale de 1 pour les composantes proches de zéro */
+            double error = 0.0;
+            for (int i = 0; i < 6; i++) {
+                double sum = 0.0;
+                for (int j = 0; j < 7; j++) {
+                    sum += DORMAND_PRINCE_E[j] * k[j][i];
+                }
+                double scale = tolerance * (1.0 + Math.max(Math.abs(state[i]), Math.abs(nextState[i])));
+                error = Math.max(error, Math.abs(step * sum) / scale);
+            }
 
-    /* ------------------Méthodes "Override"------------------- */
+            substeps++;
+            boolean accepted = error <= 1.0 || step <= minimumStep || substeps >= MAX_SUBSTEPS;
+            double factor = error == 0.0 ? 5.0 : Math.min(5.0, Math.max(0.2, 0.9 * Math.pow(error, -0.2)));
+            if (accepted) {
+                t = last ? end : t + step;
+                System.arraycopy(nextState, 0, state, 0, 6);
+                System.arraycopy(k[6], 0, k[0], 0, 6);
+                /* Un dernier pas raccourci ne doit pas réduire le pas suivant */
+                h = last ? Math.max(h, step * factor) : step * factor;
+            }
+            else {
+                h = step * Math.min(1.0, factor);
+            }
+        }
 
+        store.getX()[index] = state[0];
+        store.getY()[index] = state[1];
+        store.getZ()[index] = state[2];
+        store.getVx()[index] = state[3];
+        store.getVy()[index] = state[4];
+        store.getVz()[index] = state[5];
+        store.getStepSize()[index] = h;
+    }
 
+    /**
+     * Permet de mettre à jour la vitesse et la position de la particule à l'index 'index' du magasin en fonction d'un pas de Boris.
+     * La particule avance d'un demi-pas, les champs sont évalués à cette position, puis la vitesse reçoit la moitié de l'impulsion électrique,
+     * tourne autour du champ magnétique et reçoit l'autre moitié de l'impulsion électrique. La particule avance ensuite d'un autre demi-pas avec la nouvelle vitesse.
+     * La rotation conserve le module de la vitesse, le rayon d'une orbite dans un champ magnétique uniforme ne dérive donc pas.
+     *
+     * @param store   Le magasin de particules
+     * @param index   L'index de la particule
+     * @param delta_t La différence de temps
+     * @param time    le temps présent
+     * @param buffers Les tableaux temporaires
+     */
+    public void stepBoris(ParticleStore store, int index, double delta_t, double time, IntegratorBuffers buffers) {
+        Particle particle = store.getParticle(index);
+        double[] position = buffers.x, speed = buffers.v;
+        double halfStep = delta_t / 2;
+
+        speed[0] = store.getVx()[index];
+        speed[1] = store.getVy()[index];
+        speed[2] = store.getVz()[index];
+        position[0] = store.getX()[index] + halfStep * speed[0];
+        position[1] = store.getY()[index] + halfStep * speed[1];
+        position[2] = store.getZ()[index] + halfStep * speed[2];
+
+        getParticleFields(particle, position, time + halfStep, buffers);
+        double[] electricField = buffers.electricField, magneticField = buffers.magneticField;
+        double chargeOverMass = particle.getCharge() / particle.getMass();
+        double impulse = chargeOverMass * halfStep;
+
+        /* Première moitié de l'impulsion électrique */
+        double vx = speed[0] + impulse * electricField[0];
+        double vy = speed[1] + impulse * electricField[1];
+        double vz = speed[2] + impulse * electricField[2];
+
+        /* Rotation autour du champ magnétique */
+        double tx = impulse * magneticField[0];
+        double ty = impulse * magneticField[1];
+        double tz = impulse * magneticField[2];
+        double sFactor = 2.0 / (1.0 + tx * tx + ty * ty + tz * tz);
+        double sx = sFactor * tx, sy = sFactor * ty, sz = sFactor * tz;
+        double px = vx + (vy * tz - vz * ty);
+        double py = vy + (vz * tx - vx * tz);
+        double pz = vz + (vx * ty - vy * tx);
+        vx += py * sz - pz * sy;
+        vy += pz * sx - px * sz;
+        vz += px * sy - py * sx;
+
+        /* Deuxième moitié de l'impulsion électrique */
+        vx += impulse * electricField[0];
+        vy += impulse * electricField[1];
+        vz += impulse * electricField[2];
+
+        store.getX()[index] = position[0] + halfStep * vx;
+        store.getY()[index] = position[1] + halfStep * vy;
+        store.getZ()[index] = position[2] + halfStep * vz;
+        store.getVx()[index] = vx;
+        store.getVy()[index] = vy;
+        store.getVz()[index] = vz;
+    }
 
     /**
-     * Permet de calculer le champ électrique vectoriel à la position absolue 'position' au temps t
+     * Permet de savoir si les champs du monde sont uniformes par régions, c'est-à-dire si tous les composants interactifs sont uniformes,
+     * et de compter les particules qui créent un champ
      *
-     * @param position La position absolue où il faut calculer le champ
-     * @param t        Le temps auquel il faut calculer le champ
-     * @return Un vecteur décrivant le champ électrique à cette position
+     * @param store Le magasin de particules
      */
-    @Override
-    public SVector3d getElectricField(SVector3d position, double t) {
-        SVector3d electricField = new SVector3d();
-        for (Particle particle : particleList) {
-            if (particle.isInteractive() && particle.getCreatesField()) {
-                electricField = electricField.add(particle.getElectricField(position, t));
+    private void updateUniformity(ParticleStore store) {
+        uniformComponents = true;
+        for (PhysicComponent component : componentList) {
+            if (component.isInteractive() && (!component.isUniform() || component.getInfluenceBounds() == null)) {
+                uniformComponents = false;
+                break;
             }
         }
-        for (PhysicComponent component : componentList) {
-            if (component.isInteractive()) {
-                electricField = electricField.add(component.getElectricField(position, t));
+        fieldCreatingParticles = 0;
+        for (int i = 0; i < store.size(); i++) {
+            if (store.hasFlag(i, ParticleStore.INTERACTIVE) && store.hasFlag(i, ParticleStore.CREATES_FIELD)) {
+                fieldCreatingParticles++;
             }
         }
-        return electricField;
     }
 
-
     /**
-     * Permet de calculer le champ magnétique vectoriel à la position absolue 'position' au temps t
+     * Permet de mettre à jour la vitesse et la position de la particule à l'index 'index' du magasin avec la solution exacte du mouvement dans des champs uniformes.
+     * Le pas est divisé en segments : chaque segment se termine lorsque la particule traverse la frontière d'un composant, où les champs changent.
+     * Si des champs ne sont pas uniformes (composants non uniformes ou autres particules qui créent un champ), un pas de RK4 est utilisé à la place.
      *
-     * @param position La position absolue où il faut calculer le champ
-     * @param t        Le temps auquel il faut calculer le champ
-     * @return Un vecteur décrivant le champ magnétique à cette position
+     * @param store   Le magasin de particules
+     * @param index   L'index de la particule
+     * @param delta_t La différence de temps
+     * @param time    le temps présent
+     * @param buffers Les tableaux temporaires
      */
-    @Override
-    public SVector3d getMagneticField(SVector3d position, double t) {
-        SVector3d magneticField = new SVector3d();
-        for (PhysicComponent component : componentList) {
+    public void stepAnalytic(ParticleStore store, int index, double delta_t, double time, IntegratorBuffers buffers) {
+        Particle particle = store.getParticle(index);
+        boolean createsField = store.hasFlag(index, ParticleStore.INTERACTIVE) && store.hasFlag(index, ParticleStore.CREATES_FIELD);
+        int otherFieldCreatingParticles = fieldCreatingParticles - (createsField ? 1 : 0);
+        if (!uniformComponents || (particle.isInteractive() && otherFieldCreatingParticles > 0)) {
+            stepRungeKuttaPrimitive(store, index, delta_t, time, buffers);
+            return;
+        }
 
-            if (component.isInteractive()) {
-                magneticField = magneticField.add(component.getMagneticField(position, t));
+        double[] x0 = buffers.x0, v0 = buffers.v0;
+        x0[0] = store.getX()[index];
+        x0[1] = store.getY()[index];
+        x0[2] = store.getZ()[index];
+        v0[0] = store.getVx()[index];
+        v0[1] = store.getVy()[index];
+        v0[2] = store.getVz()[index];
+        double chargeOverMass = particle.getCharge() / particle.getMass();
+
+        double t = time;
+        double end = time + delta_t;
+        int segments = 0;
+        while (t < end) {
+            getParticleFields(particle, x0, t, buffers);
+            double remaining = end - t;
+            double duration = remaining;
+            segments++;
+            if (particle.isInteractive() && segments < MAX_ANALYTIC_SEGMENTS) {
+                /* Une particule qui n'est pas interactive garde les mêmes champs, elle ne traverse donc aucune frontière */
+                duration = findBoundaryCrossing(chargeOverMass, remaining, buffers);
             }
+            Physics.uniformFieldMotion(chargeOverMass, x0, v0, buffers.electricField, buffers.magneticField, duration, buffers.x, buffers.v);
+            System.arraycopy(buffers.x, 0, x0, 0, 3);
+            System.arraycopy(buffers.v, 0, v0, 0, 3);
+            t = duration == remaining ? end : t + duration;
         }
-        return magneticField;
-    }
 
+        store.getX()[index] = x0[0];
+        store.getY()[index] = x0[1];
+        store.getZ()[index] = x0[2];
+        store.getVx()[index] = v0[0];
+        store.getVy()[index] = v0[1];
+        store.getVz()[index] = v0[2];
+    }
 
     /**
-     * Permet d'obtenir le nom du composant
+     * Permet de trouver le moment où une particule qui part de buffers.x0 avec la vitesse buffers.v0 dans les champs buffers.electricField et buffers.magneticField
+     * traverse pour la première fois la frontière d'un composant uniforme.
+     * La trajectoire est échantillonnée (au plus un huitième de tour entre deux échantillons, et au sommet des paraboles lorsqu'il n'y a pas de champ magnétique),
+     * puis le moment de la traversée est trouvé par bissection entre les deux échantillons.
      *
-     * @return Le nom
+     * @param chargeOverMass Le rapport charge/masse de la particule (C/kg)
+     * @param remaining      Le temps restant dans le pas
+     * @param buffers        Les tableaux temporaires
+     * @return Le temps écoulé juste après la traversée, ou un temps sans traversée qui ne dépasse pas 'remaining'
      */
-    @Override
-    public String getName() {
-        return name;
-    }
-
-    /* -------------------Getters & Setters------------------- */
+    private double findBoundaryCrossing(double chargeOverMass, double remaining, IntegratorBuffers buffers) {
+        double[] magneticField = buffers.magneticField;
+        double omega = Math.abs(chargeOverMass) * Math.sqrt(magneticField[0] * magneticField[0] + magneticField[1] * magneticField[1] + magneticField[2] * magneticField[2]);
+
+        double horizon = remaining;
+        int samples = 1;
+        if (omega > 0.0) {
+            horizon = Math.min(remaining, MAX_ANALYTIC_SAMPLES * ANALYTIC_SAMPLE_ANGLE / omega);
+            samples = (int) Math.max(1, Math.ceil(omega * horizon / ANALYTIC_SAMPLE_ANGLE));
+        }
 
+        /* Sans champ magnétique, chaque coordonnée est une parabole : on ajoute son sommet aux échantillons pour qu'elle soit monotone entre deux échantillons */
+        double firstVertex = horizon, secondVertex = horizon;
+        if (omega == 0.0) {
+            double vertexX = vertexTime(buffers.v0[0], chargeOverMass * buffers.electricField[0]);
+            double vertexY = vertexTime(buffers.v0[1], chargeOverMass * buffers.electricField[1]);
+            firstVertex = Math.min(vertexX, vertexY);
+            secondVertex = Math.max(vertexX, vertexY);
+        }
 
+        double start = 0.0;
+        int sample = 1;
+        boolean firstVertexUsed = !(firstVertex > 0.0 && firstVertex < horizon);
+        boolean secondVertexUsed = !(secondVertex > 0.0 && secondVertex < horizon) || secondVertex == firstVertex;
+        while (start < horizon) {
+            double finish = sample >= samples ? horizon : horizon * sample / samples;
+            if (!firstVertexUsed && firstVertex <= finish) {
+                finish = firstVertex;
+                firstVertexUsed = true;
+            }
+            else if (!secondVertexUsed && secondVertex <= finish) {
+                finish = secondVertex;
+                secondVertexUsed = true;
+            }
+            else {
+                sample++;
+            }
+            double crossing = findBoundaryCrossing(chargeOverMass, start, finish, buffers);
+            if (crossing >= 0.0) {
+                return crossing;
+            }
+            start = finish;
+        }
+        return horizon;
+    }
 
     /**
-     * Retourne l'algorithme qui est utilisé pour la simulation
+     * Permet de trouver la première traversée d'une frontière d'un composant uniforme entre les temps 'start' et 'finish'
      *
-     * @return l'algorithme
+     * @param chargeOverMass Le rapport charge/masse de la particule (C/kg)
+     * @param start          Le début de l'intervalle
+     * @param finish         La fin de l'intervalle
+     * @param buffers        Les tableaux temporaires
+     * @return Le temps juste après la traversée, ou -1 s'il n'y a pas de traversée
      */
-    public Algorithm getAlgorithm() {
+    private double findBoundaryCrossing(double chargeOverMass, double start, double finish, IntegratorBuffers buffers) {
+        double[] startPosition = buffers.xf1, finishPosition = buffers.xf2;
+        uniformFieldPosition(chargeOverMass, start, buffers, startPosition);
+        uniformFieldPosition(chargeOverMass, finish, buffers, finishPosition);
+
+        double crossing = -1.0;
+        for (PhysicComponent component : componentList) {
+            if (!component.isInteractive()) {
+                continue;
+            }
+            Rectangle2D.Double bounds = component.getInfluenceBounds();
+            double left = bounds.getX(), top = bounds.getY();
+            double right = left + bounds.getWidth(), bottom = top + bounds.getHeight();
+            for (int edge = 0; edge < 4; edge++) {
+                int axis = edge < 2 ? 0 : 1;
+                double value = edge == 0 ? left : edge == 1 ? right : edge == 2 ? top : bottom;
+                if ((startPosition[axis] >= value) == (finishPosition[axis] >= value)) {
+                    continue;
+                }
+                /* Bissection sur le côté de la frontière où se trouve la particule */
+                double low = start, high = finish;
+                boolean startSide = startPosition[axis] >= value;
+                double[] position = buffers.xmid;
+                for (int i = 0; i < 200; i++) {
+                    double middle = (low + high) / 2;
+                    if (middle <= low || middle >= high) {
+                        break;
+                    }
+                    uniformFieldPosition(chargeOverMass, middle, buffers, position);
+                    if ((position[axis] >= value) == startSide) {
+                        low = middle;
+                    }
+                    else {
+                        high = middle;
+                    }
+                }
+                if (crossing >= 0.0 && high >= crossing) {
+                    continue;
+                }
+                /* La traversée ne compte que si elle a lieu sur le côté du rectangle */
+                uniformFieldPosition(chargeOverMass, high, buffers, position);
+                double other = position[1 - axis];
+                double otherMin = axis == 0 ? top : left, otherMax = axis == 0 ? bottom : right;
+                if (other >= otherMin && other <= otherMax) {
+                    crossing = high;
+                }
+            }
+        }
+        return crossing;
+    }
+
+    /**
+     * Permet de calculer la position d'une particule au temps t dans les champs uniformes de 'buffers'
+     *
+     * @param chargeOverMass Le rapport charge/masse de la particule (C/kg)
+     * @param t              Le temps écoulé depuis buffers.x0
+     * @param buffers        Les tableaux temporaires
+     * @param position       Le tableau dans lequel la position est écrite
+     */
+    private static void uniformFieldPosition(double chargeOverMass, double t, IntegratorBuffers buffers, double[] position) {
+        Physics.uniformFieldMotion(chargeOverMass, buffers.x0, buffers.v0, buffers.electricField, buffers.magneticField, t, position, buffers.vmid);
+    }
+
+    /**
+     * Permet d'obtenir le temps auquel une coordonnée qui suit une parabole atteint son sommet
+     *
+     * @param speed        La vitesse initiale selon la coordonnée
+     * @param acceleration L'accélération selon la coordonnée
+     * @return Le temps du sommet, ou -1 s'il n'y en a pas
+     */
+    private static double vertexTime(double speed, double acceleration) {
+        if (acceleration == 0.0) {
+            return -1.0;
+        }
+        return -speed / acceleration;
+    }
+
+    /**
+     * Permet de calculer la dérivée [vx, vy, vz, ax, ay, az] de l'état [x, y, z, vx, vy, vz] d'une particule au temps t
+     *
+     * @param particle   la particle
+     * @param state      l'état de la particule
+     * @param t          le temps
+     * @param buffers    Les tableaux temporaires
+     * @param derivative Le tableau dans lequel la dérivée est écrite
+     */
+    private void getStateDerivative(Particle particle, double[] state, double t, IntegratorBuffers buffers, double[] derivative) {
+        double[] position = buffers.x, speed = buffers.v, acceleration = buffers.tempA;
+        System.arraycopy(state, 0, position, 0, 3);
+        System.arraycopy(state, 3, speed, 0, 3);
+        getParticleAcceleration(particle, position, speed, t, buffers, acceleration);
+        System.arraycopy(speed, 0, derivative, 0, 3);
+        System.arraycopy(acceleration, 0, derivative, 3, 3);
+    }
+
+    /**
+     * Permet de calculer l'accélération d'une particule à la position et à la vitesse données au temps t sans créer d'objet.
+     *
+     * @param particle     la particle
+     * @param position     la position de la particle
+     * @param speed        la vitesse de la particle
+     * @param t            le temps
+     * @param buffers      Les tableaux temporaires qui contiendront les champs
+     * @param acceleration Le tableau dans lequel l'accélération est écrite
+     */
+    public void getParticleAcceleration(Particle particle, double[] position, double[] speed, double t, IntegratorBuffers buffers, double[] acceleration) {
+        getParticleFields(particle, position, t, buffers);
+        Physics.acceleration(particle.getCharge(), particle.getMass(), speed, buffers.electricField, buffers.magneticField, acceleration);
+    }
+
+    /**
+     * Permet de calculer les champs subis par une particule à la position donnée au temps t sans créer d'objet.
+     * Les champs sont écrits dans buffers.electricField et buffers.magneticField
+     *
+     * @param particle la particle
+     * @param position la position de la particle
+     * @param t        le temps
+     * @param buffers  Les tableaux temporaires qui contiendront les champs
+     */
+    private void getParticleFields(Particle particle, double[] position, double t, IntegratorBuffers buffers) {
+        double[] electricField = buffers.electricField;
+        double[] magneticField = buffers.magneticField;
+        if (particle.isInteractive()) {
+            getElectricField(position[0], position[1], position[2], t, particle, electricField);
+            getMagneticField(position[0], position[1], position[2], t, particle, magneticField);
+        }
+        else {
+            /* Une particule qui n'est pas interactive garde les champs qu'elle avait */
+            SVector3d particleElectricField = particle.getElectricField();
+            SVector3d particleMagneticField = particle.getMagneticField();
+            electricField[0] = particleElectricField.getX();
+            electricField[1] = particleElectricField.getY();
+            electricField[2] = particleElectricField.getZ();
+            magneticField[0] = particleMagneticField.getX();
+            magneticField[1] = particleMagneticField.getY();
+            magneticField[2] = particleMagneticField.getZ();
+        }
+    }
+
+    /**
+     * Permet de calculer la somme pondérée de deux accélérations (weight1 * a1 + weight2 * a2)
+     *
+     * @param weight1 Le poids de la première accélération
+     * @param a1      La première accélération
+     * @param weight2 Le poids de la seconde accélération
+     * @param a2      La seconde accélération
+     * @param result  Le tableau dans lequel le résultat est écrit
+     */
+    private static void weightAccelerations(double weight1, double[] a1, double weight2, double[] a2, double[] result) {
+        for (int i = 0; i < 3; i++) {
+            result[i] = weight1 * a1[i] + weight2 * a2[i];
+        }
+    }
+
+    /**
+     * Permet de mettre a jour la vitesse et la position d'une particle en fonction d'un pas de Euler.
+     * L'accélération est celle que les champs au temps time + delta_t donnent à la particule, sans que ses champs soient modifiés
+     *
+     * @param particle La particle à modifier
+     * @param delta_t  La différence de temps
+     * @param time     le temps présent
+     * @param buffers  Les tableaux temporaires
+     */
+    public void stepEuler(Particle particle, double delta_t, double time, IntegratorBuffers buffers) {
+        SVector3d acceleration = getParticleAcceleration(particle, particle.getPosition(), particle.getSpeed(), time + delta_t, buffers.electricField);
+        SVector3d speed = particle.getSpeed().add(acceleration.multiply(delta_t));
+        SVector3d position = particle.getPosition().add(particle.getSpeed().multiply(delta_t));
+        particle.setPosition(position);
+        particle.setSpeed(speed);
+    }
+
+
+
+
+
+    /* Écouteurs */
+
+
+    /**
+     * Permet d'ajouter un écouteur de type PhysicsWorldListener
+     *
+     * @param listener l'écouteur
+     */
+    public void addPhysicsWorldListener(PhysicsWorldListener listener) {
+        LISTENERS.add(PhysicsWorldListener.class, listener);
+    }
+
+    /**
+     * Permet de lever un évènement lorsque la simulation fait un pas
+     *
+     * @param delta_t La différence de temps
+     */
+    public void raiseEventStep(double delta_t) {
+        for (PhysicsWorldListener listener : LISTENERS.getListeners(PhysicsWorldListener.class)) {
+            listener.step(delta_t);
+        }
+    }
+
+    /**
+     * Permet de lever un évènement lorsqu'une particule est générée
+     */
+    public void raiseEventParticleGenerated() {
+        for (PhysicsWorldListener listener : LISTENERS.getListeners(PhysicsWorldListener.class)) {
+            listener.particleGenerated();
+        }
+    }
+
+
+
+
+
+    /* ------------------Méthodes "Override"------------------- */
+
+
+
+    /**
+     * Permet de calculer le champ électrique vectoriel à la position absolue 'position' au temps t
+     *
+     * @param position La position absolue où il faut calculer le champ
+     * @param t        Le temps auquel il faut calculer le champ
+     * @return Un vecteur décrivant le champ électrique à cette position
+     */
+    @Override
+    public SVector3d getElectricField(SVector3d position, double t) {
+        return getElectricField(position, t, null, new double[3]);
+    }
+
+    /**
+     * Permet de calculer le champ électrique vectoriel à la position absolue 'position' au temps t.
+     * Le champ créé par la particule 'source' n'est pas compté, puisqu'une particule ne subit pas son propre champ.
+     *
+     * @param position La position absolue où il faut calculer le champ
+     * @param t        Le temps auquel il faut calculer le champ
+     * @param source   La particule pour laquelle le champ est calculé. Peut être nulle
+     * @param field    Un tableau temporaire de trois éléments, dans lequel les champs calculés sans créer d'objet sont additionnés
+     * @return Un vecteur décrivant le champ électrique à cette position
+     */
+    public SVector3d getElectricField(SVector3d position, double t, Particle source, double[] field) {
+        SVector3d electricField = new SVector3d();
+        if (fieldSolver == FieldSolver.BARNES_HUT) {
+            field[0] = 0.0;
+            field[1] = 0.0;
+            field[2] = 0.0;
+            getChargeTree().addElectricField(position.getX(), position.getY(), position.getZ(), getStoreIndex(source), openingAngle, field);
+            electricField = electricField.add(new SVector3d(field[0], field[1], field[2]));
+        }
+        else {
+            for (Particle particle : particleList) {
+                if (particle != source && particle.isInteractive() && particle.getCreatesField()) {
+                    electricField = electricField.add(particle.getElectricField(position, t));
+                }
+            }
+        }
+        if (isInFieldLattice(position.getX(), position.getY())) {
+            field[0] = 0.0;
+            field[1] = 0.0;
+            field[2] = 0.0;
+            addComponentElectricField(position.getX(), position.getY(), position.getZ(), t, field);
+            return electricField.add(new SVector3d(field[0], field[1], field[2]));
+        }
+        for (int index : getComponentIndex().query(position.getX(), position.getY())) {
+            PhysicComponent component = componentList.get(index);
+            if (component.isInteractive()) {
+                electricField = electricField.add(component.getElectricField(position, t));
+            }
+        }
+        return electricField;
+    }
+
+
+    /**
+     * Permet de calculer le champ magnétique vectoriel à la position absolue 'position' au temps t
+     *
+     * @param position La position absolue où il faut calculer le champ
+     * @param t        Le temps auquel il faut calculer le champ
+     * @return Un vecteur décrivant le champ magnétique à cette position
+     */
+    @Override
+    public SVector3d getMagneticField(SVector3d position, double t) {
+        if (isInFieldLattice(position.getX(), position.getY())) {
+            double[] field = new double[3];
+            addComponentMagneticField(position.getX(), position.getY(), position.getZ(), t, field);
+            return new SVector3d(field[0], field[1], field[2]);
+        }
+        SVector3d magneticField = new SVector3d();
+        for (int index : getComponentIndex().query(position.getX(), position.getY())) {
+            PhysicComponent component = componentList.get(index);
+            if (component.isInteractive()) {
+                magneticField = magneticField.add(component.getMagneticField(position, t));
+            }
+        }
+        return magneticField;
+    }
+
+
+    /**
+     * Permet de calculer le champ électrique au point (x, y, z) au temps t sans créer d'objet.
+     * Le champ créé par la particule 'source' n'est pas compté, puisqu'une particule ne subit pas son propre champ.
+     *
+     * @param x      La composante x de la position absolue
+     * @param y      La composante y de la position absolue
+     * @param z      La composante z de la position absolue
+     * @param t      Le temps auquel il faut calculer le champ
+     * @param source La particule pour laquelle le champ est calculé. Peut être nulle
+     * @param field  Le tableau [x, y, z] dans lequel le champ est écrit
+     */
+    public void getElectricField(double x, double y, double z, double t, Particle source, double[] field) {
+        field[0] = 0.0;
+        field[1] = 0.0;
+        field[2] = 0.0;
+        addElectricField(x, y, z, t, source, field);
+    }
+
+    /**
+     * Permet de calculer le champ magnétique au point (x, y, z) au temps t sans créer d'objet.
+     *
+     * @param x      La composante x de la position absolue
+     * @param y      La composante y de la position absolue
+     * @param z      La composante z de la position absolue
+     * @param t      Le temps auquel il faut calculer le champ
+     * @param source La particule pour laquelle le champ est calculé. Peut être nulle
+     * @param field  Le tableau [x, y, z] dans lequel le champ est écrit
+     */
+    public void getMagneticField(double x, double y, double z, double t, Particle source, double[] field) {
+        field[0] = 0.0;
+        field[1] = 0.0;
+        field[2] = 0.0;
+        addMagneticField(x, y, z, t, source, field);
+    }
+
+    /**
+     * Permet d'additionner le champ électrique créé par les éléments du monde au tableau 'field'.
+     * Le champ créé par la particule 'source' n'est pas compté.
+     *
+     * @param x      La composante x de la position absolue
+     * @param y      La composante y de la position absolue
+     * @param z      La composante z de la position absolue
+     * @param t      Le temps auquel il faut calculer le champ
+     * @param source La particule pour laquelle le champ est calculé. Peut être nulle
+     * @param field  Le tableau [x, y, z] auquel le champ est additionné
+     */
+    public void addElectricField(double x, double y, double z, double t, Particle source, double[] field) {
+        if (fieldSolver == FieldSolver.BARNES_HUT) {
+            getChargeTree().addElectricField(x, y, z, getStoreIndex(source), openingAngle, field);
+        }
+        else {
+            ParticleStore store = getParticleStore();
+            double[] particleX = store.getX(), particleY = store.getY(), particleZ = store.getZ();
+            double[] particleCharge = store.getCharge();
+            for (int i = 0; i < store.size(); i++) {
+                if (store.hasFlag(i, ParticleStore.INTERACTIVE) && store.hasFlag(i, ParticleStore.CREATES_FIELD) && store.getParticle(i) != source) {
+                    Particle.addElectricField(particleCharge[i], particleX[i], particleY[i], particleZ[i], x, y, z, field);
+                }
+            }
+        }
+        addComponentElectricField(x, y, z, t, field);
+    }
+
+    /**
+     * Permet d'additionner le champ magnétique créé par les éléments du monde au tableau 'field'.
+     *
+     * @param x      La composante x de la position absolue
+     * @param y      La composante y de la position absolue
+     * @param z      La composante z de la position absolue
+     * @param t      Le temps auquel il faut calculer le champ
+     * @param source La particule pour laquelle le champ est calculé. Peut être nulle
+     * @param field  Le tableau [x, y, z] auquel le champ est additionné
+     */
+    public void addMagneticField(double x, double y, double z, double t, Particle source, double[] field) {
+        addComponentMagneticField(x, y, z, t, field);
+    }
+
+    /**
+     * Permet d'additionner le champ électrique créé par les composants au tableau 'field'.
+     * Le champ des composants statiques est interpolé dans la grille des champs lorsqu'elle est utilisée et que le point s'y trouve
+     *
+     * @param x     La composante x de la position absolue
+     * @param y     La composante y de la position absolue
+     * @param z     La composante z de la position absolue
+     * @param t     Le temps auquel il faut calculer le champ
+     * @param field Le tableau [x, y, z] auquel le champ est additionné
+     */
+    private void addComponentElectricField(double x, double y, double z, double t, double[] field) {
+        FieldLattice lattice = fieldLattice;
+        if (fieldLatticeEnabled && lattice != null && lattice.contains(x, y)) {
+            lattice.addElectricField(x, y, field);
+            for (int index : lattice.getDynamicComponents()) {
+                PhysicComponent component = componentList.get(index);
+                if (component.isInteractive()) {
+                    component.addElectricField(x, y, z, t, field);
+                }
+            }
+            return;
+        }
+        for (int index : getComponentIndex().query(x, y)) {
+            PhysicComponent component = componentList.get(index);
+            if (component.isInteractive()) {
+                component.addElectricField(x, y, z, t, field);
+            }
+        }
+    }
+
+    /**
+     * Permet d'additionner le champ magnétique créé par les composants au tableau 'field'.
+     * Le champ des composants statiques est interpolé dans la grille des champs lorsqu'elle est utilisée et que le point s'y trouve
+     *
+     * @param x     La composante x de la position absolue
+     * @param y     La composante y de la position absolue
+     * @param z     La composante z de la position absolue
+     * @param t     Le temps auquel il faut calculer le champ
+     * @param field Le tableau [x, y, z] auquel le champ est additionné
+     */
+    private void addComponentMagneticField(double x, double y, double z, double t, double[] field) {
+        FieldLattice lattice = fieldLattice;
+        if (fieldLatticeEnabled && lattice != null && lattice.contains(x, y)) {
+            lattice.addMagneticField(x, y, field);
+            for (int index : lattice.getDynamicComponents()) {
+                PhysicComponent component = componentList.get(index);
+                if (component.isInteractive()) {
+                    component.addMagneticField(x, y, z, t, field);
+                }
+            }
+            return;
+        }
+        for (int index : getComponentIndex().query(x, y)) {
+            PhysicComponent component = componentList.get(index);
+            if (component.isInteractive()) {
+                component.addMagneticField(x, y, z, t, field);
+            }
+        }
+    }
+
+    /**
+     * Permet de savoir si le champ des composants au point (x, y) est interpolé dans la grille des champs
+     *
+     * @param x La composante x de la position absolue
+     * @param y La composante y de la position absolue
+     * @return Vrai si la grille est utilisée et que le point s'y trouve
+     */
+    private boolean isInFieldLattice(double x, double y) {
+        FieldLattice lattice = fieldLattice;
+        return fieldLatticeEnabled && lattice != null && lattice.contains(x, y);
+    }
+
+    /**
+     * Permet d'additionner le champ électrique créé par le monde au tableau 'field'
+     *
+     * @param x     La composante x de la position absolue
+     * @param y     La composante y de la position absolue
+     * @param z     La composante z de la position absolue
+     * @param t     Le temps auquel il faut calculer le champ
+     * @param field Le tableau [x, y, z] auquel le champ est additionné
+     */
+    @Override
+    public void addElectricField(double x, double y, double z, double t, double[] field) {
+        addElectricField(x, y, z, t, null, field);
+    }
+
+    /**
+     * Permet d'additionner le champ magnétique créé par le monde au tableau 'field'
+     *
+     * @param x     La composante x de la position absolue
+     * @param y     La composante y de la position absolue
+     * @param z     La composante z de la position absolue
+     * @param t     Le temps auquel il faut calculer le champ
+     * @param field Le tableau [x, y, z] auquel le champ est additionné
+     */
+    @Override
+    public void addMagneticField(double x, double y, double z, double t, double[] field) {
+        addMagneticField(x, y, z, t, null, field);
+    }
+
+
+    /**
+     * Permet d'obtenir le nom du composant
+     *
+     * @return Le nom
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /* -------------------Getters & Setters------------------- */
+
+
+
+    /**
+     * Retourne l'algorithme qui est utilisé pour la simulation
+     *
+     * @return l'algorithme
+     */
+    public Algorithm getAlgorithm() {
         return algorithm;
     }
 
@@ -364,21 +1486,334 @@ public class PhysicsWorld extends PhysicComponent {
 
 
     /**
-     * Permet d'obtenir la liste des particules
+     * Permet de savoir si les particules sont mises à jour en parallèle
+     *
+     * @return Vrai si le pas est parallèle
+     */
+    public boolean isParallelStep() {
+        return parallelStep;
+    }
+
+    /**
+     * Permet de définir si les particules doivent être mises à jour en parallèle.
+     * Le pas reste séquentiel lorsqu'il y a peu de particules ou lorsque des particules qui bougent créent un champ
+     *
+     * @param parallelStep Vrai si le pas doit être parallèle
+     */
+    public void setParallelStep(boolean parallelStep) {
+        this.parallelStep = parallelStep;
+    }
+
+    /**
+     * Retourne la tolérance relative de l'algorithme RK45
+     *
+     * @return la tolérance
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Défini la tolérance relative de l'algorithme RK45. Une tolérance plus petite donne des sous-pas plus petits et des résultats plus précis
+     *
+     * @param tolerance la tolérance
+     */
+    public void setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Retourne la méthode de calcul du champ électrique créé par les particules
+     *
+     * @return la méthode de calcul
+     */
+    public FieldSolver getFieldSolver() {
+        return fieldSolver;
+    }
+
+    /**
+     * Défini la méthode de calcul du champ électrique créé par les particules
+     *
+     * @param fieldSolver la méthode de calcul
+     */
+    public void setFieldSolver(FieldSolver fieldSolver) {
+        this.fieldSolver = fieldSolver;
+        chargeTree = null;
+    }
+
+    /**
+     * Retourne l'angle d'ouverture de l'arbre de Barnes–Hut
+     *
+     * @return l'angle d'ouverture
+     */
+    public double getOpeningAngle() {
+        return openingAngle;
+    }
+
+    /**
+     * Défini l'angle d'ouverture de l'arbre de Barnes–Hut. Un angle plus grand est plus rapide, mais moins précis. Un angle nul donne le champ exact
+     *
+     * @param openingAngle l'angle d'ouverture
+     */
+    public void setOpeningAngle(double openingAngle) {
+        this.openingAngle = openingAngle;
+    }
+
+    /**
+     * Permet de savoir si les champs des composants statiques sont interpolés dans une grille plutôt que calculés exactement
+     *
+     * @return Vrai si la grille des champs est utilisée
+     */
+    public boolean isFieldLatticeEnabled() {
+        return fieldLatticeEnabled;
+    }
+
+    /**
+     * Permet de définir si les champs des composants statiques sont interpolés dans une grille.
+     * Les champs des particules et des composants qui dépendent du temps sont toujours calculés exactement
+     *
+     * @param fieldLatticeEnabled Vrai pour utiliser la grille des champs
+     */
+    public void setFieldLatticeEnabled(boolean fieldLatticeEnabled) {
+        this.fieldLatticeEnabled = fieldLatticeEnabled;
+    }
+
+    /**
+     * Permet d'obtenir le nombre de cellules sur le plus grand côté de la grille des champs
+     *
+     * @return La résolution de la grille
+     */
+    public int getLatticeResolution() {
+        return latticeResolution;
+    }
+
+    /**
+     * Permet de définir le nombre de cellules sur le plus grand côté de la grille des champs.
+     * La valeur est ramenée entre FieldLattice.MIN_RESOLUTION et FieldLattice.MAX_RESOLUTION
+     *
+     * @param latticeResolution La résolution de la grille
+     */
+    public void setLatticeResolution(int latticeResolution) {
+        this.latticeResolution = Math.max(FieldLattice.MIN_RESOLUTION, Math.min(FieldLattice.MAX_RESOLUTION, latticeResolution));
+    }
+
+    /**
+     * Permet d'obtenir les tableaux temporaires utilisés par les algorithmes sans allocation.
+     * Ils sont créés au premier appel
+     *
+     * @return Les tableaux temporaires
+     */
+    public IntegratorBuffers getIntegratorBuffers() {
+        if (integratorBuffers == null) {
+            integratorBuffers = new IntegratorBuffers();
+        }
+        return integratorBuffers;
+    }
+
+
+    /**
+     * Permet de publier une image de l'état actuel des particules. Doit être appelée par le fil qui fait avancer la simulation, entre deux pas
+     *
+     * @param time Le temps de la simulation
+     */
+    public void publishSnapshot(double time) {
+        getSnapshotBuffer().publish(getParticleStore(), time);
+    }
+
+    /**
+     * Permet d'obtenir la dernière image publiée de l'état des particules. L'image reste valide jusqu'au prochain appel.
+     * Doit seulement être appelée par le fil de l'interface
+     *
+     * @return La dernière image publiée
+     */
+    public WorldSnapshot acquireSnapshot() {
+        return getSnapshotBuffer().acquire();
+    }
+
+    /**
+     * Permet d'obtenir les tampons qui contiennent les images publiées. Ils sont créés au premier appel
+     *
+     * @return Les tampons des images
+     */
+    private synchronized SnapshotBuffer getSnapshotBuffer() {
+        if (snapshotBuffer == null) {
+            snapshotBuffer = new SnapshotBuffer();
+        }
+        return snapshotBuffer;
+    }
+
+    /**
+     * Permet d'obtenir le magasin qui contient l'état des particules du monde sous forme de tableaux.
+     * Le magasin est reconstruit s'il n'existe pas, si la liste des particules a été remplacée ou si elle a été modifiée sans passer par le monde.
+     * Une particule qui appartient au magasin d'un autre monde n'en est pas retirée : une IllegalArgumentException est lancée
+     *
+     * @return Le magasin de particules
+     */
+    public ParticleStore getParticleStore() {
+        if (!isParticleStoreValid()) {
+            if (particleStore != null) {
+                particleStore.clear();
+            }
+            particleStore = new ParticleStore();
+            for (Particle particle : particleList) {
+                particleStore.add(particle);
+            }
+            particleStoreVersion = structureVersion;
+        }
+        return particleStore;
+    }
+
+    /**
+     * Permet de savoir si le magasin de particules correspond à la liste des particules, c'est-à-dire s'il a été construit ou mis à jour
+     * pour la version présente de la structure du monde
+     *
+     * @return Vrai si le magasin est à jour
+     */
+    private boolean isParticleStoreValid() {
+        return particleStore != null && particleStoreVersion == structureVersion && particleStore.size() == particleList.size();
+    }
+
+    /**
+     * Permet de reconstruire les structures utilisées pour calculer les champs lorsque le monde a changé :
+     * la grille des composants, l'arbre de Barnes–Hut, la grille des champs statiques et le magasin de particules,
+     * ainsi que l'uniformité des champs utilisée par l'algorithme ANALYTIC.
+     * Cette méthode est appelée au début de chaque pas. Puisque les pas lisent ces structures, elle ne doit être appelée que par le fil qui simule le monde,
+     * entre deux pas, ou lorsque le monde n'est pas simulé (voir ViewController.execute(Runnable))
+     */
+    public void updateCaches() {
+        updateComponentIndex();
+        updateChargeTree();
+        updateFieldLattice();
+        ParticleStore store = getParticleStore();
+        if (algorithm == Algorithm.ANALYTIC) {
+            updateUniformity(store);
+        }
+    }
+
+    /**
+     * Permet d'obtenir la grille des composants. Elle est construite si elle n'existe pas, mais elle n'est pas validée :
+     * updateComponentIndex() doit être appelée lorsque des composants ont pu être déplacés
+     *
+     * @return La grille des composants
+     */
+    public ComponentIndex getComponentIndex() {
+        if (componentIndex == null) {
+            componentIndex = new ComponentIndex(componentList);
+        }
+        return componentIndex;
+    }
+
+    /**
+     * Permet de reconstruire la grille des composants si des composants ont été ajoutés, retirés ou déplacés.
+     * Cette méthode est appelée au début de chaque pas
+     */
+    public void updateComponentIndex() {
+        if (componentIndex == null || !componentIndex.isValid(componentList)) {
+            componentIndex = new ComponentIndex(componentList);
+        }
+    }
+
+    /**
+     * Permet de reconstruire la grille des champs statiques si elle est utilisée et que des composants ont été ajoutés, retirés ou modifiés.
+     * Cette méthode est appelée au début de chaque pas
+     */
+    public void updateFieldLattice() {
+        if (!fieldLatticeEnabled) {
+            fieldLattice = null;
+        }
+        else if (fieldLattice == null || !fieldLattice.isValid(componentList, latticeResolution)) {
+            fieldLattice = new FieldLattice(componentList, latticeResolution);
+        }
+    }
+
+    /**
+     * Permet d'obtenir la grille des champs statiques. Elle n'est pas validée : updateFieldLattice() doit être appelée lorsque des composants ont pu être modifiés
+     *
+     * @return La grille des champs, ou null si elle n'est pas utilisée ou pas encore construite
+     */
+    public FieldLattice getFieldLattice() {
+        return fieldLattice;
+    }
+
+    /**
+     * Permet d'obtenir l'arbre de Barnes–Hut. Il est construit s'il n'existe pas
+     *
+     * @return L'arbre des particules qui créent un champ
+     */
+    public ChargeTree getChargeTree() {
+        if (chargeTree == null) {
+            chargeTree = new ChargeTree();
+            chargeTree.build(getParticleStore());
+        }
+        return chargeTree;
+    }
+
+    /**
+     * Permet de reconstruire l'arbre de Barnes–Hut à partir de la position actuelle des particules.
+     * Cette méthode est appelée au début de chaque pas lorsque FieldSolver.BARNES_HUT est utilisé
+     */
+    public void updateChargeTree() {
+        if (fieldSolver == FieldSolver.BARNES_HUT) {
+            if (chargeTree == null) {
+                chargeTree = new ChargeTree();
+            }
+            chargeTree.build(getParticleStore());
+        }
+    }
+
+    /**
+     * Permet d'obtenir l'index d'une particule dans le magasin du monde
+     *
+     * @param particle La particule. Peut être nulle
+     * @return L'index ou -1 si la particule ne fait pas partie du magasin
+     */
+    private int getStoreIndex(Particle particle) {
+        if (particle == null || particle.getStore() != getParticleStore()) {
+            return -1;
+        }
+        return particle.getStoreIndex();
+    }
+
+    /**
+     * Permet de retirer toutes les particules du monde
+     */
+    public void clearParticles() {
+        structureVersion++;
+        particleList.clear();
+        if (particleStore != null) {
+            particleStore.clear();
+            particleStoreVersion = structureVersion;
+        }
+    }
+
+    /**
+     * Permet d'obtenir la liste des particules. La liste ne peut pas être modifiée :
+     * les particules doivent être ajoutées et retirées avec add(), remove() et clearParticles()
      *
      * @return la liste des particules
      */
-    public ArrayList<Particle> getParticleList() {
-        return particleList;
+    public List<Particle> getParticleList() {
+        return Collections.unmodifiableList(particleList);
     }
 
     /**
-     * Permet de définir une nouvelle liste de particules
+     * Permet de définir une nouvelle liste de particules. La liste est copiée
      *
      * @param particleList la nouvelle liste de particules
+     * @throws IllegalArgumentException Si une des particules fait déjà partie d'un autre monde physique
      */
     public void setParticleList(ArrayList<Particle> particleList) {
-        this.particleList = particleList;
+        for (Particle particle : particleList) {
+            if (particle.getStore() != null && particle.getStore() != particleStore) {
+                throw new IllegalArgumentException("La particule fait déjà partie d'un monde physique");
+            }
+        }
+        if (particleStore != null) {
+            particleStore.clear();
+            particleStore = null;
+        }
+        this.particleList = new ArrayList<>(particleList);
+        structureVersion++;
     }
 
     /**
@@ -396,7 +1831,14 @@ public class PhysicsWorld extends PhysicComponent {
      * @param componentList La liste des composants
      */
     public void setComponentList(ArrayList<PhysicComponent> componentList) {
+        boolean storeValid = isParticleStoreValid();
         this.componentList = componentList;
+        componentIndex = null;
+        fieldLattice = null;
+        structureVersion++;
+        if (storeValid) {
+            particleStoreVersion = structureVersion;
+        }
     }
 
     /**
@@ -414,7 +1856,12 @@ public class PhysicsWorld extends PhysicComponent {
      * @param particleGeneratorsList La liste des générateurs de particules
      */
     public void setParticleGeneratorsList(ArrayList<ParticleGenerator> particleGeneratorsList) {
+        boolean storeValid = isParticleStoreValid();
         this.particleGeneratorsList = particleGeneratorsList;
+        structureVersion++;
+        if (storeValid) {
+            particleStoreVersion = structureVersion;
+        }
     }
 
 
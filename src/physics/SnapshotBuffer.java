@@ -0,0 +1,64 @@
+package physics;
+
+import physics.component.ParticleStore;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Classe qui permet de transmettre des images (WorldSnapshot) du fil de la simulation au fil de l'interface à l'aide de trois tampons.
+ * L'écrivain remplit toujours le tampon arrière puis l'échange avec le tampon du milieu; le lecteur échange son tampon avec celui du milieu seulement si une nouvelle image y a été publiée.
+ * Les échanges sont atomiques : ni l'écrivain, ni le lecteur n'attend l'autre, et l'image que le lecteur utilise n'est jamais modifiée.
+ * Il ne peut y avoir qu'un seul lecteur (le fil de l'interface). Les écrivains sont synchronisés entre eux.
+ *
+ * @author Simon Tran
+ */
+public class SnapshotBuffer {
+
+    /**
+     * Le bit qui indique que le tampon du milieu contient une image qui n'a pas encore été lue
+     */
+    private static final int FRESH = 1 << 2;
+    private static final int INDEX_MASK = FRESH - 1;
+
+    private final WorldSnapshot[] snapshots = {new WorldSnapshot(), new WorldSnapshot(), new WorldSnapshot()};
+
+    /**
+     * L'index du tampon du milieu et le bit FRESH
+     */
+    private final AtomicInteger middle = new AtomicInteger(1);
+
+    /**
+     * L'index du tampon utilisé par l'écrivain
+     */
+    private int back = 2;
+
+    /**
+     * L'index du tampon utilisé par le lecteur
+     */
+    private int front = 0;
+
+
+    /**
+     * Permet de publier une nouvelle image de l'état des particules du magasin
+     *
+     * @param store Le magasin de particules
+     * @param time  Le temps de la simulation
+     */
+    public synchronized void publish(ParticleStore store, double time) {
+        snapshots[back].copy(store, time);
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Permet d'obtenir la dernière image publiée. L'image retournée reste valide jusqu'au prochain appel.
+     * Cette méthode ne doit être appelée que par le lecteur
+     *
+     * @return La dernière image publiée
+     */
+    public WorldSnapshot acquire() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return snapshots[front];
+    }
+}
@@ -0,0 +1,486 @@
+package physics;
+
+import math.SVector3d;
+import physics.component.Cyclotron;
+import physics.component.Particle;
+import physics.component.ParticleStore;
+import physics.component.Spectrometre;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Permet de tirer une population d'ions à travers le cyclotron, le sélecteur de vitesse et le déflecteur d'un spectromètre et d'obtenir le spectre des masses détectées.
+ * La masse, la charge et la vitesse à la sortie du cyclotron de chaque ion sont tirées au hasard. Les ions ne s'influencent pas : ils sont simulés indépendamment,
+ * en parallèle, sans modifier le spectromètre. Chaque tâche a son propre générateur SplittableRandom, séparé de celui de la tâche qui l'a créée,
+ * donc le spectre obtenu avec une graine ne dépend pas du nombre de fils d'exécution.
+ * Chaque ion est poussé avec l'algorithme du spectromètre et passe d'une étape à l'autre avec Spectrometre.updateStage(ParticleStore, int, double[], double, double),
+ * donc avec les mêmes règles que Spectrometre.step(double, double). Chaque tâche garde ses ions dans son propre magasin de particules.
+ * Le spectromètre ne doit pas être modifié ni simulé pendant l'exécution.
+ *
+ * @author Simon Tran
+ */
+public class SpectrometreEnsemble {
+
+    public static final int DEFAULT_ION_COUNT = 1000;
+    public static final double DEFAULT_MASS_SPREAD = 0.01;
+    public static final double DEFAULT_SPEED_SPREAD = 0.001;
+    public static final double DEFAULT_DELTA_T = 1e-8;
+    public static final int DEFAULT_MAX_STEPS = 100000;
+    public static final int DEFAULT_BIN_COUNT = 200;
+
+    /**
+     * La demi-largeur minimale de l'histogramme, relative à la masse moyenne
+     */
+    private static final double MIN_RELATIVE_RANGE = 0.05;
+
+    /**
+     * Le nombre d'écarts types de la masse couverts de chaque côté de la masse moyenne par l'histogramme
+     */
+    private static final double RANGE_STANDARD_DEVIATIONS = 4.0;
+
+    /**
+     * Le nombre maximal d'ions simulés par une tâche qui ne se divise plus
+     */
+    private static final int IONS_PER_TASK = 16;
+
+    private final Spectrometre spectrometre;
+
+    private int ionCount = DEFAULT_ION_COUNT;
+    private double mass;
+
+    /**
+     * L'écart type de la masse, relatif à la masse moyenne
+     */
+    private double massSpread = DEFAULT_MASS_SPREAD;
+
+    /**
+     * Les charges possibles, tirées avec la même probabilité
+     */
+    private double[] charges;
+
+    /**
+     * L'écart type de la vitesse à la sortie du cyclotron, relatif à la vitesse finale du cyclotron
+     */
+    private double speedSpread = DEFAULT_SPEED_SPREAD;
+
+    private double delta_t = DEFAULT_DELTA_T;
+    private int maxSteps = DEFAULT_MAX_STEPS;
+    private int binCount = DEFAULT_BIN_COUNT;
+
+    /**
+     * Les bornes de l'histogramme. Elles sont calculées à partir de la population lorsqu'elles ne sont pas des nombres
+     */
+    private double minMass = Double.NaN, maxMass = Double.NaN;
+
+    private long seed = System.nanoTime();
+    private boolean parallel = true;
+
+
+    /**
+     * Constructeur. La masse et la charge des ions sont celles de la particule du cyclotron
+     *
+     * @param spectrometre Le spectromètre
+     */
+    public SpectrometreEnsemble(Spectrometre spectrometre) {
+        this.spectrometre = spectrometre;
+        Particle particle = spectrometre.getParticle();
+        mass = particle.getMass();
+        charges = new double[]{particle.getCharge()};
+    }
+
+    /**
+     * Permet de tirer tous les ions et d'obtenir le spectre des masses détectées
+     *
+     * @return Le spectre
+     */
+    public MassSpectrum run() {
+        long start = System.nanoTime();
+
+        /* Les structures construites à la demande le sont avant que les tâches lisent les champs en même temps */
+        spectrometre.updateCaches();
+
+        Cyclotron cyclotron = spectrometre.getCyclotron();
+        Particle exit = cyclotron.generateParticle();
+        Chain chain = new Chain(exit.getPosition(), cyclotron.getDirection(), cyclotron.getFinalSpeed());
+
+        double halfRange = mass * Math.max(MIN_RELATIVE_RANGE, RANGE_STANDARD_DEVIATIONS * massSpread);
+        double min = Double.isNaN(minMass) ? Math.max(0.0, mass - halfRange) : minMass;
+        double max = Double.isNaN(maxMass) ? mass + halfRange : maxMass;
+
+        EnsembleTask task = new EnsembleTask(chain, new SplittableRandom(seed), 0, ionCount, min, max, parallel && spectrometre.isFieldQueryThreadSafe());
+        MassSpectrum spectrum = task.parallel ? ForkJoinPool.commonPool().invoke(task) : task.compute();
+        spectrum.setElapsedNanos(System.nanoTime() - start);
+        return spectrum;
+    }
+
+    /**
+     * La sortie du cyclotron et la population d'ions, qui ne changent pas pendant l'exécution
+     */
+    private class Chain {
+        final double exitX, exitY;
+        final double directionX, directionY;
+        final double speed;
+        final double mass, massSpread, speedSpread;
+        final double[] charges;
+        final double delta_t;
+        final int maxSteps, binCount;
+
+        Chain(SVector3d exit, SVector3d direction, double speed) {
+            exitX = exit.getX();
+            exitY = exit.getY();
+            directionX = direction.getX();
+            directionY = direction.getY();
+            this.speed = speed;
+            mass = SpectrometreEnsemble.this.mass;
+            massSpread = SpectrometreEnsemble.this.massSpread;
+            speedSpread = SpectrometreEnsemble.this.speedSpread;
+            charges = SpectrometreEnsemble.this.charges.clone();
+            delta_t = SpectrometreEnsemble.this.delta_t;
+            maxSteps = SpectrometreEnsemble.this.maxSteps;
+            binCount = SpectrometreEnsemble.this.binCount;
+        }
+    }
+
+    /**
+     * Tâche qui tire une partie des ions en se divisant en deux tant qu'elle contient trop d'ions
+     */
+    private class EnsembleTask extends RecursiveTask<MassSpectrum> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Chain chain;
+        private final SplittableRandom random;
+        private final int from, to;
+        private final double minMass, maxMass;
+        private final boolean parallel;
+
+        /**
+         * Constructeur
+         *
+         * @param chain    La sortie du cyclotron et la population
+         * @param random   Le générateur de la tâche
+         * @param from     L'index du premier ion
+         * @param to       L'index qui suit le dernier ion
+         * @param minMass  La plus petite masse de l'histogramme
+         * @param maxMass  La masse qui suit la dernière classe de l'histogramme
+         * @param parallel Vrai si les sous-tâches peuvent être exécutées en parallèle
+         */
+        EnsembleTask(Chain chain, SplittableRandom random, int from, int to, double minMass, double maxMass, boolean parallel) {
+            this.chain = chain;
+            this.random = random;
+            this.from = from;
+            this.to = to;
+            this.minMass = minMass;
+            this.maxMass = maxMass;
+            this.parallel = parallel;
+        }
+
+        @Override
+        protected MassSpectrum compute() {
+            if (to - from <= IONS_PER_TASK) {
+                MassSpectrum spectrum = new MassSpectrum(minMass, maxMass, chain.binCount);
+                IntegratorBuffers buffers = new IntegratorBuffers();
+                ParticleStore ionStore = new ParticleStore();
+                double[] state = new double[BoundaryCrossing.STATE_SIZE];
+                for (int i = from; i < to; i++) {
+                    fire(chain, random, ionStore, buffers, state, spectrum);
+                }
+                return spectrum;
+            }
+
+            int middle = (from + to) >>> 1;
+            /* La séparation est faite ici, dans le même ordre quel que soit le fil qui exécute la tâche */
+            EnsembleTask left = new EnsembleTask(chain, random.split(), from, middle, minMass, maxMass, parallel);
+            EnsembleTask right = new EnsembleTask(chain, random, middle, to, minMass, maxMass, parallel);
+            if (parallel) {
+                invokeAll(left, right);
+                MassSpectrum spectrum = left.join();
+                spectrum.merge(right.join());
+                return spectrum;
+            }
+            MassSpectrum spectrum = left.compute();
+            spectrum.merge(right.compute());
+            return spectrum;
+        }
+    }
+
+    /**
+     * Permet de tirer un ion à la sortie du cyclotron et de le suivre jusqu'à ce que sa masse soit détectée, qu'il soit arrêté ou que le nombre maximal de pas soit atteint
+     *
+     * @param chain    La sortie du cyclotron et la population
+     * @param random   Le générateur
+     * @param ionStore Le magasin de la tâche, vidé avant d'y ajouter l'ion
+     * @param buffers  Les tableaux temporaires
+     * @param state    Le tableau qui reçoit l'état de l'ion pendant chaque pas (voir BoundaryCrossing.STATE_SIZE)
+     * @param spectrum Le spectre dans lequel le résultat est ajouté
+     */
+    private void fire(Chain chain, SplittableRandom random, ParticleStore ionStore, IntegratorBuffers buffers, double[] state, MassSpectrum spectrum) {
+        double mass;
+        do {
+            mass = chain.mass * (1.0 + chain.massSpread * nextGaussian(random));
+        } while (mass <= 0.0);
+        double charge = chain.charges[random.nextInt(chain.charges.length)];
+        double speed = chain.speed * (1.0 + chain.speedSpread * nextGaussian(random));
+
+        Particle ion = new Particle(mass, charge, new SVector3d(chain.exitX, chain.exitY));
+        ion.setCreatesField(false);
+        ion.setSpeed(new SVector3d(chain.directionX * speed, chain.directionY * speed));
+        ionStore.clear();
+        ionStore.add(ion);
+
+        double time = 0.0;
+        for (int step = 0; step < chain.maxSteps; step++) {
+            state[0] = ionStore.getX()[0];
+            state[1] = ionStore.getY()[0];
+            state[2] = ionStore.getZ()[0];
+            state[3] = ionStore.getVx()[0];
+            state[4] = ionStore.getVy()[0];
+            state[5] = ionStore.getVz()[0];
+            spectrometre.stepParticle(ionStore, 0, chain.delta_t, time, buffers);
+
+            Spectrometre.StageChange change = spectrometre.updateStage(ionStore, 0, state, time, chain.delta_t);
+            if (change != null) {
+                if (change.getStage() == Spectrometre.Stage.STOPPED) {
+                    spectrum.recordStopped();
+                    return;
+                }
+                if (change.getStage() == Spectrometre.Stage.DETECTED) {
+                    spectrum.record(change.getDetectedMass());
+                    return;
+                }
+            }
+            time += chain.delta_t;
+        }
+        spectrum.recordLost();
+    }
+
+    /**
+     * Permet de tirer un nombre selon une loi normale centrée réduite avec la méthode polaire de Marsaglia,
+     * puisque SplittableRandom n'a pas de nextGaussian()
+     *
+     * @param random Le générateur
+     * @return Le nombre tiré
+     */
+    private static double nextGaussian(SplittableRandom random) {
+        double u, v, s;
+        do {
+            u = 2.0 * random.nextDouble() - 1.0;
+            v = 2.0 * random.nextDouble() - 1.0;
+            s = u * u + v * v;
+        } while (s >= 1.0 || s == 0.0);
+        return u * Math.sqrt(-2.0 * Math.log(s) / s);
+    }
+
+    /* -------------------Getters et setters------------------- */
+
+    /**
+     * Retourne le spectromètre
+     *
+     * @return Le spectromètre
+     */
+    public Spectrometre getSpectrometre() {
+        return spectrometre;
+    }
+
+    /**
+     * Retourne le nombre d'ions tirés par exécution
+     *
+     * @return Le nombre d'ions
+     */
+    public int getIonCount() {
+        return ionCount;
+    }
+
+    /**
+     * Permet d'ajuster le nombre d'ions tirés par exécution
+     *
+     * @param ionCount Le nombre d'ions
+     */
+    public void setIonCount(int ionCount) {
+        this.ionCount = Math.max(0, ionCount);
+    }
+
+    /**
+     * Retourne la masse moyenne des ions
+     *
+     * @return La masse (kg)
+     */
+    public double getMass() {
+        return mass;
+    }
+
+    /**
+     * Permet d'ajuster la masse moyenne des ions
+     *
+     * @param mass La masse (kg)
+     */
+    public void setMass(double mass) {
+        this.mass = Math.max(Double.MIN_NORMAL, mass);
+    }
+
+    /**
+     * Retourne l'écart type de la masse, relatif à la masse moyenne
+     *
+     * @return L'écart type relatif
+     */
+    public double getMassSpread() {
+        return massSpread;
+    }
+
+    /**
+     * Permet d'ajuster l'écart type de la masse, relatif à la masse moyenne
+     *
+     * @param massSpread L'écart type relatif
+     */
+    public void setMassSpread(double massSpread) {
+        this.massSpread = Math.max(0.0, massSpread);
+    }
+
+    /**
+     * Retourne les charges possibles des ions
+     *
+     * @return Les charges (C)
+     */
+    public double[] getCharges() {
+        return charges.clone();
+    }
+
+    /**
+     * Permet d'ajuster les charges possibles des ions. Chaque ion reçoit une des charges, avec la même probabilité
+     *
+     * @param charges Les charges (C). Une liste vide est ignorée
+     */
+    public void setCharges(double... charges) {
+        if (charges.length > 0) {
+            this.charges = charges.clone();
+        }
+    }
+
+    /**
+     * Retourne l'écart type de la vitesse à la sortie du cyclotron, relatif à la vitesse finale du cyclotron
+     *
+     * @return L'écart type relatif
+     */
+    public double getSpeedSpread() {
+        return speedSpread;
+    }
+
+    /**
+     * Permet d'ajuster l'écart type de la vitesse à la sortie du cyclotron, relatif à la vitesse finale du cyclotron
+     *
+     * @param speedSpread L'écart type relatif
+     */
+    public void setSpeedSpread(double speedSpread) {
+        this.speedSpread = Math.max(0.0, speedSpread);
+    }
+
+    /**
+     * Retourne le pas de temps utilisé pour suivre les ions
+     *
+     * @return Le pas de temps (s)
+     */
+    public double getDeltaT() {
+        return delta_t;
+    }
+
+    /**
+     * Permet d'ajuster le pas de temps utilisé pour suivre les ions
+     *
+     * @param delta_t Le pas de temps (s)
+     */
+    public void setDeltaT(double delta_t) {
+        if (delta_t > 0.0) {
+            this.delta_t = delta_t;
+        }
+    }
+
+    /**
+     * Retourne le nombre maximal de pas d'un ion. Un ion qui n'est pas détecté après ce nombre de pas est perdu
+     *
+     * @return Le nombre de pas
+     */
+    public int getMaxSteps() {
+        return maxSteps;
+    }
+
+    /**
+     * Permet d'ajuster le nombre maximal de pas d'un ion
+     *
+     * @param maxSteps Le nombre de pas
+     */
+    public void setMaxSteps(int maxSteps) {
+        this.maxSteps = Math.max(1, maxSteps);
+    }
+
+    /**
+     * Retourne le nombre de classes de l'histogramme
+     *
+     * @return Le nombre de classes
+     */
+    public int getBinCount() {
+        return binCount;
+    }
+
+    /**
+     * Permet d'ajuster le nombre de classes de l'histogramme
+     *
+     * @param binCount Le nombre de classes
+     */
+    public void setBinCount(int binCount) {
+        this.binCount = Math.max(MassSpectrum.MIN_BIN_COUNT, Math.min(MassSpectrum.MAX_BIN_COUNT, binCount));
+    }
+
+    /**
+     * Permet d'ajuster les bornes de l'histogramme. Lorsqu'une borne n'est pas un nombre, les bornes sont calculées à partir de la masse et de son écart type
+     *
+     * @param minMass La plus petite masse de l'histogramme (kg)
+     * @param maxMass La masse qui suit la dernière classe de l'histogramme (kg)
+     */
+    public void setMassRange(double minMass, double maxMass) {
+        if (Double.isNaN(minMass) || Double.isNaN(maxMass) || maxMass <= minMass) {
+            this.minMass = this.maxMass = Double.NaN;
+        }
+        else {
+            this.minMass = minMass;
+            this.maxMass = maxMass;
+        }
+    }
+
+    /**
+     * Retourne la graine du générateur
+     *
+     * @return La graine
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Permet d'ajuster la graine du générateur. Deux exécutions avec la même graine et la même population donnent le même spectre
+     *
+     * @param seed La graine
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Permet de savoir si les ions sont simulés en parallèle
+     *
+     * @return Vrai si les ions sont simulés en parallèle
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Permet de simuler les ions en parallèle ou dans le fil d'exécution qui appelle run()
+     *
+     * @param parallel Vrai si les ions doivent être simulés en parallèle
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+}
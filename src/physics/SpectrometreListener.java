@@ -1,6 +1,7 @@
 package physics;
 
 import physics.component.Particle;
+import physics.component.PhysicComponent;
 /**
  * Interface des écouteur personnalisés du spectromètre
  * @author Simon
@@ -25,12 +26,22 @@ public interface SpectrometreListener extends PhysicsWorldListener{
      */
     void particleStopped(Particle particle);
 
+    /**
+     * Écouteur lorsque la particule traverse le bord du sélecteur de vitesse ou du déflecteur.
+     * Le temps et la position de la traversée sont ceux du bord, et non ceux de la fin du pas
+     * @param particle La particule
+     * @param component Le composant dont le bord est traversé
+     * @param crossing Le point de traversée
+     */
+    void boundaryCrossed(Particle particle, PhysicComponent component, BoundaryCrossing crossing);
+
     /**
      * Écouteur lorsque la masse de la particule est détectée
+     * @param particle La particule
      * @param diameter Le diamètre de la trajectoire
      * @param detectedMass La masse détectée
      */
-    void massDetected(double diameter, double detectedMass);
+    void massDetected(Particle particle, double diameter, double detectedMass);
 
     /**
      * Écouteur lorsque la position de la particule change
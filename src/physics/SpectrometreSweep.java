@@ -0,0 +1,217 @@
+package physics;
+
+import physics.component.Particle;
+import physics.component.PhysicComponent;
+import physics.component.Spectrometre;
+
+import java.util.EnumMap;
+
+/**
+ * Permet de balayer une grille de réglages d'un spectromètre et de noter le résultat de chaque réglage.
+ * Un spectromètre indépendant est construit pour chaque point de la grille, puis une particule y est tirée et simulée avec Spectrometre.step(double, double)
+ * jusqu'à ce que sa masse soit détectée, qu'elle soit arrêtée ou que le nombre maximal de pas soit atteint.
+ * Les points sont simulés en parallèle par ParameterSweep, puisque les spectromètres ne partagent aucun composant.
+ *
+ * @author Simon Tran
+ */
+public class SpectrometreSweep extends ParameterSweep<SpectrometreSweep.Parameter, Spectrometre, SpectrometreSweep.Result> {
+
+    public static final double DEFAULT_DELTA_T = SpectrometreEnsemble.DEFAULT_DELTA_T;
+    public static final int DEFAULT_MAX_STEPS = SpectrometreEnsemble.DEFAULT_MAX_STEPS;
+
+    /**
+     * Le début de l'en-tête du fichier CSV. Il est précédé du nom des paramètres balayés
+     */
+    public static final String CSV_HEADER = "outcome,diameter,mass,steps,time";
+
+    /**
+     * Les réglages qui peuvent être balayés. Ils sont appliqués dans l'ordre de l'énumération :
+     * l'intensité du champ magnétique du sélecteur est ajustée avant la vitesse de sélection, qui en dépend
+     */
+    public enum Parameter implements ParameterSweep.Parameter<Spectrometre> {
+        CYCLOTRON_FINAL_SPEED("cyclotronFinalSpeed") {
+            @Override
+            public void apply(Spectrometre spectrometre, double value) {
+                spectrometre.getCyclotron().setFinalSpeed(value);
+            }
+        },
+        SELECTEUR_MAGNETIC_FIELD("selecteurMagneticField") {
+            @Override
+            public void apply(Spectrometre spectrometre, double value) {
+                spectrometre.getSelecteurDeVitesse().setMagneticFieldIntensity(value);
+            }
+        },
+        SELECTION_SPEED("selectionSpeed") {
+            @Override
+            public void apply(Spectrometre spectrometre, double value) {
+                spectrometre.getSelecteurDeVitesse().setSelectionSpeed(value);
+            }
+        },
+        SELECTEUR_PRECISION("selecteurPrecision") {
+            @Override
+            public void apply(Spectrometre spectrometre, double value) {
+                spectrometre.setSelecteurDeVitessePrecision(value);
+            }
+        },
+        DEFLECTEUR_INTENSITY("deflecteurIntensity") {
+            @Override
+            public void apply(Spectrometre spectrometre, double value) {
+                spectrometre.getDeflecteur().setIntensity(value);
+            }
+        };
+
+        private final String columnName;
+
+        Parameter(String columnName) {
+            this.columnName = columnName;
+        }
+
+        @Override
+        public String getColumnName() {
+            return columnName;
+        }
+    }
+
+    /**
+     * Le résultat de la simulation d'une particule
+     */
+    public enum Outcome {DETECTED, STOPPED, LOST}
+
+    /**
+     * Constructeur
+     */
+    public SpectrometreSweep() {
+        super(Parameter.class, CSV_HEADER, DEFAULT_DELTA_T, DEFAULT_MAX_STEPS);
+    }
+
+    /**
+     * Permet de construire le spectromètre d'un point de la grille et d'y simuler une particule
+     *
+     * @param point     La valeur de chaque paramètre balayé
+     * @param particle  La particule tirée par le cyclotron
+     * @param algorithm L'algorithme d'intégration
+     * @param delta_t   La différence de temps de chaque pas
+     * @param maxSteps  Le nombre maximal de pas
+     * @return Le résultat
+     */
+    @Override
+    protected Result simulate(EnumMap<Parameter, Double> point, Particle particle, PhysicsWorld.Algorithm algorithm, double delta_t, int maxSteps) {
+        Spectrometre spectrometre = new Spectrometre();
+        spectrometre.setAlgorithm(algorithm);
+        spectrometre.getCyclotron().setParticle(new Particle(particle));
+        apply(spectrometre, point);
+
+        Result result = new Result(point);
+        spectrometre.addSpectrometreListener(new SpectrometreListener() {
+            @Override
+            public void particleStopped(Particle particle) {
+                result.outcome = Outcome.STOPPED;
+            }
+
+            @Override
+            public void massDetected(Particle particle, double diameter, double detectedMass) {
+                result.outcome = Outcome.DETECTED;
+                result.diameter = diameter;
+                result.detectedMass = detectedMass;
+            }
+
+            @Override
+            public void particleEnteredSelecteur(Particle particle) {
+            }
+
+            @Override
+            public void particleEnteredDeflecteur(Particle particle) {
+            }
+
+            @Override
+            public void particlePositionChanged(Particle particle) {
+            }
+
+            @Override
+            public void boundaryCrossed(Particle particle, PhysicComponent component, BoundaryCrossing crossing) {
+            }
+
+            @Override
+            public void step(double delta_t) {
+            }
+
+            @Override
+            public void particleGenerated() {
+            }
+        });
+
+        spectrometre.add(spectrometre.generateParticle());
+        double time = 0.0;
+        while (result.outcome == Outcome.LOST && result.stepCount < maxSteps) {
+            spectrometre.step(delta_t, time);
+            time += delta_t;
+            result.stepCount++;
+        }
+        result.time = time;
+        return result;
+    }
+
+    /**
+     * Le résultat d'un point de la grille
+     */
+    public static class Result extends ParameterSweep.Result<Parameter> {
+        private Outcome outcome = Outcome.LOST;
+        private double diameter = Double.NaN, detectedMass = Double.NaN;
+        private int stepCount;
+        private double time;
+
+        Result(EnumMap<Parameter, Double> parameters) {
+            super(parameters);
+        }
+
+        @Override
+        protected void appendCsvColumns(StringBuilder line) {
+            line.append(outcome).append(',').append(diameter).append(',').append(detectedMass).append(',').append(stepCount).append(',').append(time);
+        }
+
+        /**
+         * Retourne le résultat de la simulation
+         *
+         * @return Le résultat
+         */
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        /**
+         * Retourne le diamètre de la trajectoire dans le déflecteur
+         *
+         * @return Le diamètre (m), ou NaN si la masse n'a pas été détectée
+         */
+        public double getDiameter() {
+            return diameter;
+        }
+
+        /**
+         * Retourne la masse détectée
+         *
+         * @return La masse (kg), ou NaN si la masse n'a pas été détectée
+         */
+        public double getDetectedMass() {
+            return detectedMass;
+        }
+
+        /**
+         * Retourne le nombre de pas simulés
+         *
+         * @return Le nombre de pas
+         */
+        public int getStepCount() {
+            return stepCount;
+        }
+
+        /**
+         * Retourne le temps simulé
+         *
+         * @return Le temps (s)
+         */
+        public double getTime() {
+            return time;
+        }
+    }
+}
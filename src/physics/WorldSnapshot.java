@@ -0,0 +1,200 @@
+package physics;
+
+import math.SVector3d;
+import physics.component.Particle;
+import physics.component.ParticleStore;
+
+import java.util.IdentityHashMap;
+
+/**
+ * Classe qui contient une image de l'état des particules d'un monde physique à un instant donné.
+ * Les images sont remplies par le fil de la simulation dans un SnapshotBuffer et ne sont jamais modifiées pendant qu'un lecteur les utilise,
+ * ce qui permet à l'interface de dessiner les particules sans lire l'état que la simulation est en train de modifier.
+ *
+ * @author Simon Tran
+ */
+public class WorldSnapshot {
+
+    private double time = 0.0;
+    private int size = 0;
+
+    private double[] x = new double[0];
+    private double[] y = new double[0];
+    private double[] z = new double[0];
+    private double[] vx = new double[0];
+    private double[] vy = new double[0];
+    private double[] vz = new double[0];
+    private Particle[] particles = new Particle[0];
+
+    /**
+     * L'index de chaque particule dans l'image. La table est remplie par le fil de la simulation avec le reste de l'image
+     */
+    private final IdentityHashMap<Particle, Integer> indices = new IdentityHashMap<>();
+
+
+    /**
+     * Permet de copier l'état des particules du magasin dans l'image. Seul le SnapshotBuffer peut remplir une image
+     *
+     * @param store Le magasin de particules
+     * @param time  Le temps de la simulation
+     */
+    void copy(ParticleStore store, double time) {
+        int size = store.size();
+        if (particles.length < size) {
+            int capacity = Math.max(size, particles.length * 2);
+            x = new double[capacity];
+            y = new double[capacity];
+            z = new double[capacity];
+            vx = new double[capacity];
+            vy = new double[capacity];
+            vz = new double[capacity];
+            particles = new Particle[capacity];
+        }
+        System.arraycopy(store.getX(), 0, x, 0, size);
+        System.arraycopy(store.getY(), 0, y, 0, size);
+        System.arraycopy(store.getZ(), 0, z, 0, size);
+        System.arraycopy(store.getVx(), 0, vx, 0, size);
+        System.arraycopy(store.getVy(), 0, vy, 0, size);
+        System.arraycopy(store.getVz(), 0, vz, 0, size);
+        indices.clear();
+        for (int i = 0; i < size; i++) {
+            particles[i] = store.getParticle(i);
+            indices.put(particles[i], i);
+        }
+        /* On retire les références vers les particules qui ne font plus partie du monde */
+        for (int i = size; i < this.size; i++) {
+            particles[i] = null;
+        }
+        this.size = size;
+        this.time = time;
+    }
+
+    /**
+     * Permet de trouver l'index d'une particule dans l'image
+     *
+     * @param particle La particule
+     * @return L'index de la particule, ou -1 si elle ne fait pas partie de l'image
+     */
+    public int indexOf(Particle particle) {
+        Integer index = indices.get(particle);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Permet d'obtenir la position d'une particule au moment de l'image
+     *
+     * @param particle La particule
+     * @return La position (m), ou null si la particule ne fait pas partie de l'image
+     */
+    public SVector3d getPosition(Particle particle) {
+        int index = indexOf(particle);
+        if (index < 0) {
+            return null;
+        }
+        return new SVector3d(x[index], y[index], z[index]);
+    }
+
+    /**
+     * Permet d'obtenir la vitesse d'une particule au moment de l'image
+     *
+     * @param particle La particule
+     * @return La vitesse (m/s), ou null si la particule ne fait pas partie de l'image
+     */
+    public SVector3d getSpeed(Particle particle) {
+        int index = indexOf(particle);
+        if (index < 0) {
+            return null;
+        }
+        return new SVector3d(vx[index], vy[index], vz[index]);
+    }
+
+    /* -------------------Getters------------------- */
+
+    /**
+     * Retourne le temps de la simulation au moment de l'image
+     *
+     * @return Le temps (s)
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * Retourne le nombre de particules dans l'image
+     *
+     * @return Le nombre de particules
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retourne la particule à l'index 'index'
+     *
+     * @param index L'index
+     * @return La particule
+     */
+    public Particle getParticle(int index) {
+        return particles[index];
+    }
+
+    /**
+     * Retourne la position en x (m) de la particule à l'index 'index'
+     *
+     * @param index L'index
+     * @return La position en x (m)
+     */
+    public double getX(int index) {
+        return x[index];
+    }
+
+    /**
+     * Retourne la position en y (m) de la particule à l'index 'index'
+     *
+     * @param index L'index
+     * @return La position en y (m)
+     */
+    public double getY(int index) {
+        return y[index];
+    }
+
+    /**
+     * Retourne la position en z (m) de la particule à l'index 'index'
+     *
+     * @param index L'index
+     * @return La position en z (m)
+     */
+    public double getZ(int index) {
+        return z[index];
+    }
+
+    /**
+     * Retourne la vitesse en x (m/s) de la particule à l'index 'index'
+     *
+     * @param index L'index
+     * @return La vitesse en x (m/s)
+     */
+    public double getVx(int index) {
+        return vx[index];
+    }
+
+    /**
+     * Retourne la vitesse en y (m/s) de la particule à l'index 'index'
+     *
+     * @param index L'index
+     * @return La vitesse en y (m/s)
+     */
+    public double getVy(int index) {
+        return vy[index];
+    }
+
+    /**
+     * Retourne la vitesse en z (m/s) de la particule à l'index 'index'
+     *
+     * @param index L'index
+     * @return La vitesse en z (m/s)
+     */
+    public double getVz(int index) {
+        return vz[index];
+    }
+}
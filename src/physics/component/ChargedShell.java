@@ -5,6 +5,8 @@ import math.MathUtil;
 import math.SVector3d;
 import physics.Physics;
 
+import java.awt.geom.Rectangle2D;
+
 /**
  * Composant représentant une coquille sphérique uniformément chargée
  * Celle-ci crée un champ électrique équivalent au champ généré par une charge ponctuelle unique en son centre
@@ -81,6 +83,44 @@ public class ChargedShell extends PhysicComponent {
         return new SVector3d();
     }
 
+    /**
+     * Permet d'additionner le champ électrique créé par la coquille au tableau 'field' sans créer d'objet
+     *
+     * @param x     La composante x de la position absolue
+     * @param y     La composante y de la position absolue
+     * @param z     La composante z de la position absolue
+     * @param t     Le temps auquel il faut calculer le champ
+     * @param field Le tableau [x, y, z] auquel le champ électrique est additionné
+     */
+    @Override
+    public void addElectricField(double x, double y, double z, double t, double[] field) {
+        Rectangle2D.Double bounds = getBounds();
+        double dx = x - bounds.getX();
+        double dy = y - bounds.getY();
+        double dz = z;
+        double distance = Math.sqrt((dx * dx) + (dy * dy) + (dz * dz));
+        if (distance <= getRadius()) {
+            return;
+        }
+        double electricField = getElectricField(distance);
+        field[0] += electricField * (dx / distance);
+        field[1] += electricField * (dy / distance);
+        field[2] += electricField * (dz / distance);
+    }
+
+    /**
+     * Le champ magnétique d'une coquille chargée est nul. La méthode ne fait donc rien.
+     *
+     * @param x     La composante x de la position absolue
+     * @param y     La composante y de la position absolue
+     * @param z     La composante z de la position absolue
+     * @param t     Le temps auquel il faut calculer le champ
+     * @param field Le tableau [x, y, z] auquel le champ magnétique est additionné
+     */
+    @Override
+    public void addMagneticField(double x, double y, double z, double t, double[] field) {
+    }
+
     /**
      * Permet d'obtenir le nom du composant
      *
@@ -109,6 +149,16 @@ public class ChargedShell extends PhysicComponent {
         return MathUtil.sphereArea(getRadius());
     }
 
+    /**
+     * Permet de savoir si le champ de la coquille est statique. Le champ ne dépend que du rayon et de la densité de charge
+     *
+     * @return Vrai
+     */
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     /**
      * Retourne la densité de charge (c/m^2)
      *
@@ -125,6 +175,7 @@ public class ChargedShell extends PhysicComponent {
      */
     public void setChargeDensity(double chargeDensity) {
         this.chargeDensity = chargeDensity;
+        markChanged();
     }
 
     /**
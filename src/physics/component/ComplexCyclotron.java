@@ -28,6 +28,9 @@ public class ComplexCyclotron extends PhysicsWorld {
     private MagneticField magneticField2;
 
     private double cylenderRadius = DEFAULT_CYLENER_RADIUS, distanceBetweenCylenders = DEFAULT_DISTANCE_BETWEEN_CYLENDERS, voltage = DEFAULT_VOLTAGE;
+    /**
+     * Le sens du champ électrique entre les dés selon l'axe des x
+     */
     private int directionX = 1;
 
     /**
@@ -133,6 +136,7 @@ public class ComplexCyclotron extends PhysicsWorld {
     public void setMagneticFieldIntensity(double intensity) {
         magneticField1.setIntensity(intensity);
         magneticField2.setIntensity(intensity);
+        markChanged();
     }
 
     /**
@@ -144,7 +148,7 @@ public class ComplexCyclotron extends PhysicsWorld {
         particle = new Particle(particle);
         particle.setSpeed(new SVector3d());
         particle.setPosition(new SVector3d(cylenderRadius + distanceBetweenCylenders / 2.0, cylenderRadius));
-        getParticleList().clear();
+        controller.execute(this::clearParticles);
         controller.addToWorld(ComponentView.generateView(particle));
     }
 
@@ -160,6 +164,26 @@ public class ComplexCyclotron extends PhysicsWorld {
         }
     }
 
+    /**
+     * Le champ électrique du cyclotron dépend de la position de sa particule, le pas ne peut donc pas être parallèle
+     *
+     * @return Faux
+     */
+    @Override
+    protected boolean isParallelStepSafe() {
+        return false;
+    }
+
+    /**
+     * Le calcul du champ électrique du cyclotron modifie le sens de son champ, il ne peut donc pas être fait en parallèle
+     *
+     * @return Faux
+     */
+    @Override
+    public boolean isFieldQueryThreadSafe() {
+        return false;
+    }
+
     @Override
     /**
      * Méthode qui retourne le champ électrique
@@ -167,15 +191,50 @@ public class ComplexCyclotron extends PhysicsWorld {
     public SVector3d getElectricField(SVector3d position, double t) {
         Particle particle = getParticleList().get(0);
         if (particle != null) {
-            if (magneticField1.getBounds().contains(particle.getPosition().toPoint())) {
-                directionX = 1;
-            }
-            if (magneticField2.getBounds().contains(particle.getPosition().toPoint())) {
-                directionX = -1;
-            }
+            updateDirection(particle.getPosition());
         }
-        electricField.setFieldDirection(new SVector3d(directionX, 0.0));
-        return electricField.getElectricField(position, t);
+        return electricField.getElectricField(position, t).multiply(directionX);
+    }
+
+    @Override
+    /**
+     * Méthode qui retourne le champ électrique subi par la particule 'source' à la position 'position'.
+     * La direction du champ dépend de la position évaluée de la particule plutôt que de sa position actuelle.
+     * Le tableau temporaire n'est pas utilisé
+     */
+    public SVector3d getElectricField(SVector3d position, double t, Particle source, double[] field) {
+        if (source == null) {
+            return getElectricField(position, t);
+        }
+        updateDirection(position);
+        return electricField.getElectricField(position, t).multiply(directionX);
+    }
+
+    /**
+     * Méthode qui change le sens du champ électrique lorsque la particule se trouve dans un des dés.
+     * Le sens est gardé par le cyclotron et multiplie le champ calculé : le champ électrique entre les dés n'est pas modifié,
+     * afin que sa version ne change pas à chaque calcul et que les structures qui dépendent des composants restent valides
+     * @param particlePosition La position de la particule
+     */
+    private void updateDirection(SVector3d particlePosition) {
+        if (magneticField1.getBounds().contains(particlePosition.toPoint())) {
+            directionX = 1;
+        }
+        if (magneticField2.getBounds().contains(particlePosition.toPoint())) {
+            directionX = -1;
+        }
+    }
+
+    @Override
+    /**
+     * Méthode qui additionne le champ électrique au tableau 'field'.
+     * Le champ dépend de la position de la particule, on utilise donc getElectricField(SVector3d, double, Particle, double[])
+     */
+    public void addElectricField(double x, double y, double z, double t, Particle source, double[] field) {
+        SVector3d electricField = getElectricField(new SVector3d(x, y, z), t, source, null);
+        field[0] += electricField.getX();
+        field[1] += electricField.getY();
+        field[2] += electricField.getZ();
     }
 
     @Override
@@ -217,6 +276,7 @@ public class ComplexCyclotron extends PhysicsWorld {
     public void setCylenderRadius(double cylenderRadius) {
         this.cylenderRadius = cylenderRadius;
         updateFields();
+        markChanged();
     }
 
     /**
@@ -234,6 +294,7 @@ public class ComplexCyclotron extends PhysicsWorld {
     public void setDistanceBetweenCylenders(double distanceBetweenCylenders) {
         this.distanceBetweenCylenders = distanceBetweenCylenders;
         updateFields();
+        markChanged();
     }
 
     /**
@@ -251,6 +312,7 @@ public class ComplexCyclotron extends PhysicsWorld {
     public void setVoltage(double voltage) {
         this.voltage = voltage;
         updateFields();
+        markChanged();
     }
 
 }
@@ -95,6 +95,7 @@ public class Cyclotron extends ParticleGenerator {
      */
     public void setFinalSpeed(double finalSpeed) {
         this.finalSpeed = finalSpeed;
+        markChanged();
     }
 
     /**
@@ -113,5 +114,6 @@ public class Cyclotron extends ParticleGenerator {
      */
     public void setDirection(SVector3d direction) {
         this.direction = direction.normalize();
+        markChanged();
     }
 }
@@ -22,8 +22,6 @@ public class Deflecteur extends MagneticField{
 
 	public static final String name = "Déflecteur";
 
-	private SVector3d entrancePosition = new SVector3d();
-
 	/**
 	 * Constructeur du déflecteur par défaut
 	 */
@@ -62,22 +60,6 @@ public class Deflecteur extends MagneticField{
 
 
 
-	/**
-	 * Méthode qui retourne la position d'entrée dans le déflecteur
-	 * @return La position d'entrée
-	 */
-	public SVector3d getEntrancePosition() {
-		return entrancePosition;
-	}
-
-	/**
-	 * Méthode qui ajuste la position d'entrée
-	 * @param entrancePosition la position d'entrée
-	 */
-	public void setEntrancePosition(SVector3d entrancePosition) {
-		this.entrancePosition = entrancePosition;
-	}
-
 	/**
 	 * Méthode qui retourne le nom du composant
 	 * @return Le nom du composant
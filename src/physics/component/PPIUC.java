@@ -142,6 +142,7 @@ public class PPIUC extends PhysicComponent {
      */
     public void setChargeDensity(double chargeDensity) {
         this.chargeDensity = chargeDensity;
+        markChanged();
     }
 
     /**
@@ -160,9 +161,20 @@ public class PPIUC extends PhysicComponent {
      */
     public void setNormal(SVector3d normal) {
         this.normal = normal.normalize();
+        markChanged();
     }
 
 
+    /**
+     * Permet de savoir si le champ de la plaque est statique. Le champ ne dépend que de la géométrie et de la densité de charge
+     *
+     * @return Vrai
+     */
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     /**
      * Permet de savoir si la plaque doit être considérée comme étant infinie
      *
@@ -179,5 +191,6 @@ public class PPIUC extends PhysicComponent {
      */
     public void setInfinite(boolean infinite) {
         this.infinite = infinite;
+        markChanged();
     }
 }
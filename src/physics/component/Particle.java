@@ -3,6 +3,8 @@ package physics.component;
 import math.SVector3d;
 import physics.Physics;
 
+import java.awt.geom.Rectangle2D;
+
 /**
  * Classe représentant une particule.
  *
@@ -62,6 +64,27 @@ public class Particle extends PhysicComponent {
      */
     private SVector3d speed = new SVector3d();
 
+    /**
+     * L'étape d'un montage comme le spectromètre où se trouve la particule (voir ParticleStore.getStage())
+     */
+    private byte stage;
+
+    /**
+     * La position où la particule est entrée dans son étape
+     */
+    private double entranceX, entranceY;
+
+    /**
+     * Le magasin de particules dans lequel l'état de la particule est gardé lorsqu'elle fait partie d'un monde physique.
+     * Si le magasin est nul, l'état de la particule est gardé dans ses propres variables
+     */
+    private transient ParticleStore store;
+
+    /**
+     * L'index de la particule dans le magasin
+     */
+    private transient int storeIndex;
+
     /**
      * Permet de construire une particule sans information
      */
@@ -136,6 +159,55 @@ public class Particle extends PhysicComponent {
     }
 
 
+    /**
+     * Permet d'additionner au tableau 'field' le champ électrique créé au point (x, y, z) par une charge ponctuelle située au point (px, py, pz)
+     * Le champ est nul à la position de la charge.
+     *
+     * @param charge La charge (C)
+     * @param px     La composante x de la position de la charge
+     * @param py     La composante y de la position de la charge
+     * @param pz     La composante z de la position de la charge
+     * @param x      La composante x de la position absolue
+     * @param y      La composante y de la position absolue
+     * @param z      La composante z de la position absolue
+     * @param field  Le tableau [x, y, z] auquel le champ électrique est additionné
+     */
+    public static void addElectricField(double charge, double px, double py, double pz, double x, double y, double z, double[] field) {
+        if (Double.compare(x, px) == 0 && Double.compare(y, py) == 0 && Double.compare(z, pz) == 0) {
+            /* Une particule ne crée pas de champ à sa propre position */
+            return;
+        }
+        double dx = x - px;
+        double dy = y - py;
+        double dz = z - pz;
+        double r = Math.sqrt((dx * dx) + (dy * dy) + (dz * dz));
+        double electricField = Physics.electricField(charge, r);
+        field[0] += electricField * (dx / r);
+        field[1] += electricField * (dy / r);
+        field[2] += electricField * (dz / r);
+    }
+
+    /**
+     * Permet de lier la particule à un magasin de particules. L'état de la particule sera lu et écrit dans le magasin
+     *
+     * @param store Le magasin
+     * @param index L'index de la particule dans le magasin
+     */
+    void attach(ParticleStore store, int index) {
+        this.store = store;
+        this.storeIndex = index;
+    }
+
+    /**
+     * Permet de délier la particule de son magasin. L'état de la particule est recopié dans ses propres variables
+     */
+    void detach() {
+        if (store != null) {
+            prepareSerialization();
+            store = null;
+        }
+    }
+
     /* ------------------Méthodes "Override"------------------- */
 
     /**
@@ -167,6 +239,42 @@ public class Particle extends PhysicComponent {
         return new SVector3d();
     }
 
+    /**
+     * Permet d'additionner le champ électrique créé par la particule au tableau 'field' sans créer d'objet
+     *
+     * @param x     La composante x de la position absolue
+     * @param y     La composante y de la position absolue
+     * @param z     La composante z de la position absolue
+     * @param t     le temps de la simulation. Cette valeur est ignorée.
+     * @param field Le tableau [x, y, z] auquel le champ électrique est additionné
+     */
+    @Override
+    public void addElectricField(double x, double y, double z, double t, double[] field) {
+        if (!getCreatesField()) {
+            return;
+        }
+        if (store != null) {
+            addElectricField(getCharge(), store.getX()[storeIndex], store.getY()[storeIndex], store.getZ()[storeIndex], x, y, z, field);
+        }
+        else {
+            Rectangle2D.Double bounds = getBounds();
+            addElectricField(getCharge(), bounds.getX(), bounds.getY(), 0.0, x, y, z, field);
+        }
+    }
+
+    /**
+     * Une particule ne crée pas de champ magnétique. La méthode ne fait donc rien.
+     *
+     * @param x     La composante x de la position absolue
+     * @param y     La composante y de la position absolue
+     * @param z     La composante z de la position absolue
+     * @param t     Le temps auquel il faut calculer le champ
+     * @param field Le tableau [x, y, z] auquel le champ magnétique est additionné
+     */
+    @Override
+    public void addMagneticField(double x, double y, double z, double t, double[] field) {
+    }
+
 
     /**
      * Permet d'obtenir le nom du composant
@@ -179,8 +287,152 @@ public class Particle extends PhysicComponent {
     }
 
 
+    /**
+     * Permet de recopier l'état gardé dans le magasin dans les variables de la particule avant qu'elle soit sérialisée
+     */
+    @Override
+    protected void prepareSerialization() {
+        if (store != null) {
+            getBounds();
+            speed = getSpeed();
+            stage = getStage();
+            entranceX = getEntranceX();
+            entranceY = getEntranceY();
+        }
+    }
+
+    /**
+     * Permet d'obtenir la position (m)
+     *
+     * @return la position (m)
+     */
+    @Override
+    public SVector3d getPosition() {
+        if (store != null) {
+            return new SVector3d(store.getX()[storeIndex], store.getY()[storeIndex], store.getZ()[storeIndex]);
+        }
+        return super.getPosition();
+    }
+
+    /**
+     * Permet de définir la position (m)
+     *
+     * @param position La nouvelle position (m)
+     */
+    @Override
+    public void setPosition(SVector3d position) {
+        if (store != null) {
+            store.getX()[storeIndex] = position.getX();
+            store.getY()[storeIndex] = position.getY();
+            store.getZ()[storeIndex] = position.getZ();
+            markChanged();
+        }
+        else {
+            super.setPosition(position);
+        }
+    }
+
+    /**
+     * Permet d'obtenir les bornes (m). Si la particule fait partie d'un magasin, la position des bornes est mise à jour
+     *
+     * @return Les bornes
+     */
+    @Override
+    public Rectangle2D.Double getBounds() {
+        Rectangle2D.Double bounds = super.getBounds();
+        if (store != null) {
+            bounds.x = store.getX()[storeIndex];
+            bounds.y = store.getY()[storeIndex];
+        }
+        return bounds;
+    }
+
+    /**
+     * Permet de définir les bornes (m)
+     *
+     * @param bounds Les bornes (m)
+     */
+    @Override
+    public void setBounds(Rectangle2D.Double bounds) {
+        super.setBounds(bounds);
+        if (store != null) {
+            store.getX()[storeIndex] = bounds.getX();
+            store.getY()[storeIndex] = bounds.getY();
+        }
+    }
+
+    /**
+     * Permet de définir si la particule doit intéragir avec les autres composants du monde physique
+     *
+     * @param interactive Si la particule est interactive
+     */
+    @Override
+    public void setInteractive(boolean interactive) {
+        super.setInteractive(interactive);
+        if (store != null) {
+            store.setFlag(storeIndex, ParticleStore.INTERACTIVE, interactive);
+        }
+    }
+
     /* -------------------Getters & Setters------------------- */
 
+    /**
+     * Permet d'obtenir le magasin de particules dans lequel l'état de la particule est gardé
+     *
+     * @return Le magasin ou null si la particule ne fait pas partie d'un monde physique
+     */
+    public ParticleStore getStore() {
+        return store;
+    }
+
+    /**
+     * Permet d'obtenir l'index de la particule dans son magasin
+     *
+     * @return L'index
+     */
+    public int getStoreIndex() {
+        return storeIndex;
+    }
+
+    /**
+     * Permet d'obtenir l'étape d'un montage comme le spectromètre où se trouve la particule
+     *
+     * @return L'index de l'étape
+     */
+    byte getStage() {
+        return store != null ? store.getStage()[storeIndex] : stage;
+    }
+
+    /**
+     * Permet de définir l'étape d'un montage comme le spectromètre où se trouve la particule
+     *
+     * @param stage L'index de l'étape
+     */
+    void setStage(byte stage) {
+        this.stage = stage;
+        if (store != null) {
+            store.getStage()[storeIndex] = stage;
+        }
+    }
+
+    /**
+     * Permet d'obtenir la composante x de la position d'entrée dans l'étape présente
+     *
+     * @return La composante x (m)
+     */
+    double getEntranceX() {
+        return store != null ? store.getEntranceX()[storeIndex] : entranceX;
+    }
+
+    /**
+     * Permet d'obtenir la composante y de la position d'entrée dans l'étape présente
+     *
+     * @return La composante y (m)
+     */
+    double getEntranceY() {
+        return store != null ? store.getEntranceY()[storeIndex] : entranceY;
+    }
+
     /**
      * Permet de savoir si la particule crée un champ électrique
      * @return Si la particule crée un champ électrique
@@ -195,6 +447,10 @@ public class Particle extends PhysicComponent {
      */
     public void setCreatesField(boolean createsField) {
         this.createsField = createsField;
+        if (store != null) {
+            store.setFlag(storeIndex, ParticleStore.CREATES_FIELD, createsField);
+        }
+        markChanged();
     }
 
     /**
@@ -214,6 +470,10 @@ public class Particle extends PhysicComponent {
      */
     public void setCharge(double charge) {
         this.charge = charge;
+        if (store != null) {
+            store.getCharge()[storeIndex] = charge;
+        }
+        markChanged();
     }
 
     /**
@@ -240,6 +500,9 @@ public class Particle extends PhysicComponent {
      * @return la vitesse
      */
     public SVector3d getSpeed() {
+        if (store != null) {
+            return new SVector3d(store.getVx()[storeIndex], store.getVy()[storeIndex], store.getVz()[storeIndex]);
+        }
         return speed;
     }
 
@@ -249,7 +512,15 @@ public class Particle extends PhysicComponent {
      * @param speed La nouvelle vitesse
      */
     public void setSpeed(SVector3d speed) {
-        this.speed = speed;
+        if (store != null) {
+            store.getVx()[storeIndex] = speed.getX();
+            store.getVy()[storeIndex] = speed.getY();
+            store.getVz()[storeIndex] = speed.getZ();
+        }
+        else {
+            this.speed = speed;
+        }
+        markChanged();
     }
 
 
@@ -280,6 +551,10 @@ public class Particle extends PhysicComponent {
      */
     public void setMass(double mass) {
         this.mass = mass;
+        if (store != null) {
+            store.getMass()[storeIndex] = mass;
+        }
+        markChanged();
     }
 
     /**
@@ -335,6 +610,10 @@ public class Particle extends PhysicComponent {
      */
     public void setMoveable(boolean moveable) {
         this.moveable = moveable;
+        if (store != null) {
+            store.setFlag(storeIndex, ParticleStore.MOVEABLE, moveable);
+        }
+        markChanged();
     }
 
 
@@ -122,6 +122,32 @@ public class ParticleGenerator extends PhysicComponent {
         return new SVector3d();
     }
 
+    /**
+     * Le générateur de particules ne crée pas de champ électrique. La méthode ne fait donc rien.
+     *
+     * @param x     La composante x de la position absolue
+     * @param y     La composante y de la position absolue
+     * @param z     La composante z de la position absolue
+     * @param t     Le temps auquel il faut calculer le champ
+     * @param field Le tableau [x, y, z] auquel le champ électrique est additionné
+     */
+    @Override
+    public void addElectricField(double x, double y, double z, double t, double[] field) {
+    }
+
+    /**
+     * Le générateur de particules ne crée pas de champ magnétique. La méthode ne fait donc rien.
+     *
+     * @param x     La composante x de la position absolue
+     * @param y     La composante y de la position absolue
+     * @param z     La composante z de la position absolue
+     * @param t     Le temps auquel il faut calculer le champ
+     * @param field Le tableau [x, y, z] auquel le champ magnétique est additionné
+     */
+    @Override
+    public void addMagneticField(double x, double y, double z, double t, double[] field) {
+    }
+
     /**
      * Permet d'obtenir le nom en français du composant
      * @return Le nom du composant
@@ -149,6 +175,7 @@ public class ParticleGenerator extends PhysicComponent {
      */
     public void setPeriod(double period) {
         this.period = period;
+        markChanged();
     }
 
     /**
@@ -165,6 +192,7 @@ public class ParticleGenerator extends PhysicComponent {
      */
     public void setParticle(Particle particle) {
         this.particle = particle;
+        markChanged();
     }
 
 
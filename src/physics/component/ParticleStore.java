@@ -0,0 +1,322 @@
+package physics.component;
+
+import math.SVector3d;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+
+/**
+ * Classe qui contient l'état des particules d'un monde physique sous forme de tableaux parallèles (une colonne par propriété).
+ * La particule à l'index i possède la position (x[i], y[i], z[i]), la vitesse (vx[i], vy[i], vz[i]), la masse mass[i], la charge charge[i] et les drapeaux flags[i].
+ * La colonne stepSize contient le dernier pas utilisé par les algorithmes à pas adaptatif pour chaque particule (0 s'il n'a pas encore été choisi).
+ * Les colonnes stage, entranceX et entranceY contiennent l'étape d'un montage comme le spectromètre où se trouve chaque particule
+ * et la position où elle est entrée dans cette étape. Elles sont copiées de la particule à l'ajout et lui sont rendues lorsqu'elle est retirée,
+ * donc une particule garde son étape lorsque le magasin est reconstruit.
+ * Les objets Particle ajoutés au magasin deviennent des façades qui lisent et écrivent dans ces tableaux, ce qui permet aux algorithmes de parcourir les particules de façon séquentielle.
+ * L'ordre des particules est le même que l'ordre dans lequel elles ont été ajoutées.
+ *
+ * @author Simon Tran
+ */
+public class ParticleStore {
+
+    /**
+     * Les drapeaux d'une particule
+     */
+    public static final byte MOVEABLE = 1, CREATES_FIELD = 1 << 1, INTERACTIVE = 1 << 2;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int size = 0;
+
+    private double[] x = new double[DEFAULT_CAPACITY];
+    private double[] y = new double[DEFAULT_CAPACITY];
+    private double[] z = new double[DEFAULT_CAPACITY];
+    private double[] vx = new double[DEFAULT_CAPACITY];
+    private double[] vy = new double[DEFAULT_CAPACITY];
+    private double[] vz = new double[DEFAULT_CAPACITY];
+    private double[] mass = new double[DEFAULT_CAPACITY];
+    private double[] charge = new double[DEFAULT_CAPACITY];
+    private byte[] flags = new byte[DEFAULT_CAPACITY];
+    private double[] stepSize = new double[DEFAULT_CAPACITY];
+    private byte[] stage = new byte[DEFAULT_CAPACITY];
+    private double[] entranceX = new double[DEFAULT_CAPACITY];
+    private double[] entranceY = new double[DEFAULT_CAPACITY];
+    private Particle[] particles = new Particle[DEFAULT_CAPACITY];
+
+
+    /**
+     * Permet d'ajouter une particule à la fin du magasin. L'état de la particule est copié dans les tableaux et la particule devient une façade du magasin.
+     * Une particule qui appartient déjà à un magasin est refusée : la retirer de son magasin modifierait un autre monde sans qu'il le sache.
+     *
+     * @param particle La particule
+     * @return L'index de la particule
+     * @throws IllegalArgumentException Si la particule appartient déjà à un magasin
+     */
+    public int add(Particle particle) {
+        if (particle.getStore() != null) {
+            throw new IllegalArgumentException("La particule appartient déjà à un magasin");
+        }
+        ensureCapacity(size + 1);
+
+        int index = size;
+        Rectangle2D.Double bounds = particle.getBounds();
+        SVector3d speed = particle.getSpeed();
+        x[index] = bounds.getX();
+        y[index] = bounds.getY();
+        z[index] = 0.0;
+        vx[index] = speed.getX();
+        vy[index] = speed.getY();
+        vz[index] = speed.getZ();
+        mass[index] = particle.getMass();
+        charge[index] = particle.getCharge();
+        flags[index] = 0;
+        stepSize[index] = 0.0;
+        stage[index] = particle.getStage();
+        entranceX[index] = particle.getEntranceX();
+        entranceY[index] = particle.getEntranceY();
+        setFlag(index, MOVEABLE, particle.isMoveable());
+        setFlag(index, CREATES_FIELD, particle.getCreatesField());
+        setFlag(index, INTERACTIVE, particle.isInteractive());
+        particles[index] = particle;
+        size++;
+
+        particle.attach(this, index);
+        return index;
+    }
+
+    /**
+     * Permet de retirer la particule à l'index 'index'. La particule récupère son état et n'est plus une façade du magasin.
+     * Les particules suivantes sont décalées afin de garder l'ordre.
+     *
+     * @param index L'index de la particule
+     */
+    public void remove(int index) {
+        Particle particle = particles[index];
+        particle.detach();
+
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(x, index + 1, x, index, moved);
+            System.arraycopy(y, index + 1, y, index, moved);
+            System.arraycopy(z, index + 1, z, index, moved);
+            System.arraycopy(vx, index + 1, vx, index, moved);
+            System.arraycopy(vy, index + 1, vy, index, moved);
+            System.arraycopy(vz, index + 1, vz, index, moved);
+            System.arraycopy(mass, index + 1, mass, index, moved);
+            System.arraycopy(charge, index + 1, charge, index, moved);
+            System.arraycopy(flags, index + 1, flags, index, moved);
+            System.arraycopy(stepSize, index + 1, stepSize, index, moved);
+            System.arraycopy(stage, index + 1, stage, index, moved);
+            System.arraycopy(entranceX, index + 1, entranceX, index, moved);
+            System.arraycopy(entranceY, index + 1, entranceY, index, moved);
+            System.arraycopy(particles, index + 1, particles, index, moved);
+            for (int i = index; i < size - 1; i++) {
+                particles[i].attach(this, i);
+            }
+        }
+        size--;
+        particles[size] = null;
+    }
+
+    /**
+     * Permet de retirer toutes les particules du magasin
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            particles[i].detach();
+            particles[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Permet de s'assurer que les tableaux peuvent contenir 'capacity' particules
+     *
+     * @param capacity La capacité minimale
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= particles.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, particles.length * 2);
+        x = Arrays.copyOf(x, newCapacity);
+        y = Arrays.copyOf(y, newCapacity);
+        z = Arrays.copyOf(z, newCapacity);
+        vx = Arrays.copyOf(vx, newCapacity);
+        vy = Arrays.copyOf(vy, newCapacity);
+        vz = Arrays.copyOf(vz, newCapacity);
+        mass = Arrays.copyOf(mass, newCapacity);
+        charge = Arrays.copyOf(charge, newCapacity);
+        flags = Arrays.copyOf(flags, newCapacity);
+        stepSize = Arrays.copyOf(stepSize, newCapacity);
+        stage = Arrays.copyOf(stage, newCapacity);
+        entranceX = Arrays.copyOf(entranceX, newCapacity);
+        entranceY = Arrays.copyOf(entranceY, newCapacity);
+        particles = Arrays.copyOf(particles, newCapacity);
+    }
+
+    /**
+     * Permet de savoir si la particule à l'index 'index' possède le drapeau 'flag'
+     *
+     * @param index L'index de la particule
+     * @param flag  Le drapeau
+     * @return Vrai si la particule possède le drapeau
+     */
+    public boolean hasFlag(int index, byte flag) {
+        return (flags[index] & flag) != 0;
+    }
+
+    /**
+     * Permet de définir le drapeau 'flag' de la particule à l'index 'index'
+     *
+     * @param index L'index de la particule
+     * @param flag  Le drapeau
+     * @param value La valeur du drapeau
+     */
+    void setFlag(int index, byte flag, boolean value) {
+        if (value) {
+            flags[index] |= flag;
+        }
+        else {
+            flags[index] &= ~flag;
+        }
+    }
+
+    /* -------------------Getters & Setters------------------- */
+
+    /**
+     * Permet d'obtenir le nombre de particules
+     *
+     * @return Le nombre de particules
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Permet d'obtenir la façade de la particule à l'index 'index'
+     *
+     * @param index L'index
+     * @return La particule
+     */
+    public Particle getParticle(int index) {
+        return particles[index];
+    }
+
+    /**
+     * Permet d'obtenir les positions en x. Le tableau peut être remplacé lorsqu'une particule est ajoutée.
+     *
+     * @return Les positions en x
+     */
+    public double[] getX() {
+        return x;
+    }
+
+    /**
+     * Permet d'obtenir les positions en y. Le tableau peut être remplacé lorsqu'une particule est ajoutée.
+     *
+     * @return Les positions en y
+     */
+    public double[] getY() {
+        return y;
+    }
+
+    /**
+     * Permet d'obtenir les positions en z. Le tableau peut être remplacé lorsqu'une particule est ajoutée.
+     *
+     * @return Les positions en z
+     */
+    public double[] getZ() {
+        return z;
+    }
+
+    /**
+     * Permet d'obtenir les vitesses en x. Le tableau peut être remplacé lorsqu'une particule est ajoutée.
+     *
+     * @return Les vitesses en x
+     */
+    public double[] getVx() {
+        return vx;
+    }
+
+    /**
+     * Permet d'obtenir les vitesses en y. Le tableau peut être remplacé lorsqu'une particule est ajoutée.
+     *
+     * @return Les vitesses en y
+     */
+    public double[] getVy() {
+        return vy;
+    }
+
+    /**
+     * Permet d'obtenir les vitesses en z. Le tableau peut être remplacé lorsqu'une particule est ajoutée.
+     *
+     * @return Les vitesses en z
+     */
+    public double[] getVz() {
+        return vz;
+    }
+
+    /**
+     * Permet d'obtenir les masses (Kg). Le tableau peut être remplacé lorsqu'une particule est ajoutée.
+     *
+     * @return Les masses
+     */
+    public double[] getMass() {
+        return mass;
+    }
+
+    /**
+     * Permet d'obtenir les charges (C). Le tableau peut être remplacé lorsqu'une particule est ajoutée.
+     *
+     * @return Les charges
+     */
+    public double[] getCharge() {
+        return charge;
+    }
+
+    /**
+     * Permet d'obtenir les drapeaux. Le tableau peut être remplacé lorsqu'une particule est ajoutée.
+     *
+     * @return Les drapeaux
+     */
+    public byte[] getFlags() {
+        return flags;
+    }
+
+    /**
+     * Permet d'obtenir les derniers pas (s) des algorithmes à pas adaptatif. Le tableau peut être remplacé lorsqu'une particule est ajoutée.
+     *
+     * @return Les pas
+     */
+    public double[] getStepSize() {
+        return stepSize;
+    }
+
+    /**
+     * Permet d'obtenir l'étape où se trouve chaque particule dans un montage comme le spectromètre. Le tableau peut être remplacé lorsqu'une particule est ajoutée.
+     *
+     * @return Les étapes
+     */
+    public byte[] getStage() {
+        return stage;
+    }
+
+    /**
+     * Permet d'obtenir la composante x de la position d'entrée dans l'étape présente. Le tableau peut être remplacé lorsqu'une particule est ajoutée.
+     *
+     * @return Les composantes x
+     */
+    public double[] getEntranceX() {
+        return entranceX;
+    }
+
+    /**
+     * Permet d'obtenir la composante y de la position d'entrée dans l'étape présente. Le tableau peut être remplacé lorsqu'une particule est ajoutée.
+     *
+     * @return Les composantes y
+     */
+    public double[] getEntranceY() {
+        return entranceY;
+    }
+}
@@ -4,6 +4,8 @@ import math.MathUtil;
 import math.SVector3d;
 
 import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 
 /**
@@ -26,6 +28,11 @@ public abstract class PhysicComponent implements Serializable {
     private Rectangle2D.Double bounds = new Rectangle2D.Double();
     private boolean isInteractive = true;
 
+    /**
+     * Le numéro de version du composant. Il augmente chaque fois qu'une propriété du composant est modifiée
+     */
+    private transient long version = 0;
+
     /**
      * Permet de calculer le champ électrique vectoriel à la position absolue 'position' au temps t créé par le composant
      *
@@ -44,6 +51,40 @@ public abstract class PhysicComponent implements Serializable {
      */
     public abstract SVector3d getMagneticField(SVector3d position, double t);
 
+    /**
+     * Permet d'additionner le champ électrique créé par le composant au point (x, y, z) au temps t au tableau 'field'.
+     * Par défaut, la méthode utilise getElectricField(SVector3d, double). Les composants peuvent la redéfinir afin de ne créer aucun objet.
+     *
+     * @param x     La composante x de la position absolue
+     * @param y     La composante y de la position absolue
+     * @param z     La composante z de la position absolue
+     * @param t     Le temps auquel il faut calculer le champ
+     * @param field Le tableau [x, y, z] auquel le champ électrique est additionné
+     */
+    public void addElectricField(double x, double y, double z, double t, double[] field) {
+        SVector3d electricField = getElectricField(new SVector3d(x, y, z), t);
+        field[0] += electricField.getX();
+        field[1] += electricField.getY();
+        field[2] += electricField.getZ();
+    }
+
+    /**
+     * Permet d'additionner le champ magnétique créé par le composant au point (x, y, z) au temps t au tableau 'field'.
+     * Par défaut, la méthode utilise getMagneticField(SVector3d, double). Les composants peuvent la redéfinir afin de ne créer aucun objet.
+     *
+     * @param x     La composante x de la position absolue
+     * @param y     La composante y de la position absolue
+     * @param z     La composante z de la position absolue
+     * @param t     Le temps auquel il faut calculer le champ
+     * @param field Le tableau [x, y, z] auquel le champ magnétique est additionné
+     */
+    public void addMagneticField(double x, double y, double z, double t, double[] field) {
+        SVector3d magneticField = getMagneticField(new SVector3d(x, y, z), t);
+        field[0] += magneticField.getX();
+        field[1] += magneticField.getY();
+        field[2] += magneticField.getZ();
+    }
+
 
 
     /**
@@ -78,6 +119,7 @@ public abstract class PhysicComponent implements Serializable {
      */
     public void setInteractive(boolean interactive) {
         this.isInteractive = interactive;
+        markChanged();
     }
 
     /**
@@ -148,6 +190,72 @@ public abstract class PhysicComponent implements Serializable {
         setSize(new SVector3d(getWidth(), height));
     }
 
+    /**
+     * Permet d'obtenir la zone à l'extérieur de laquelle les champs créés par le composant sont nuls.
+     * Par défaut, le composant peut créer un champ partout et la méthode retourne null
+     *
+     * @return La zone d'influence (m) ou null si elle n'est pas bornée
+     */
+    public Rectangle2D.Double getInfluenceBounds() {
+        return null;
+    }
+
+    /**
+     * Permet de savoir si les champs créés par le composant sont constants à l'intérieur de sa zone d'influence et nuls à l'extérieur.
+     * Par défaut, les champs ne sont pas considérés uniformes
+     *
+     * @return Vrai si les champs sont uniformes
+     */
+    public boolean isUniform() {
+        return false;
+    }
+
+    /**
+     * Permet de savoir si les champs créés par le composant ne dépendent pas du temps, c'est-à-dire seulement de sa géométrie et de ses propriétés.
+     * Le champ d'un composant statique peut être échantillonné une seule fois dans un FieldLattice.
+     * Par défaut, les champs ne sont pas considérés statiques
+     *
+     * @return Vrai si les champs sont statiques
+     */
+    public boolean isStatic() {
+        return false;
+    }
+
+    /**
+     * Permet d'obtenir le numéro de version du composant.
+     * Si le numéro n'a pas changé depuis la dernière lecture, aucune propriété du composant n'a été modifiée et les valeurs calculées à partir du composant sont encore valides
+     *
+     * @return Le numéro de version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Permet d'indiquer qu'une propriété du composant a été modifiée. Doit être appelée par les méthodes qui modifient le composant
+     */
+    protected void markChanged() {
+        version++;
+    }
+
+    /**
+     * Permet de mettre à jour les variables du composant avant qu'il soit sérialisé.
+     * Les composants dont l'état est gardé ailleurs peuvent redéfinir cette méthode afin de le recopier dans leurs variables
+     */
+    protected void prepareSerialization() {
+    }
+
+    /**
+     * Permet de sérialiser le composant
+     *
+     * @param out Le flux de sortie
+     * @throws IOException Si l'écriture échoue
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        prepareSerialization();
+        out.defaultWriteObject();
+    }
+
     /**
      * Permet  d'obtenir les bornes (m)
      * @return Les bornes
@@ -162,5 +270,6 @@ public abstract class PhysicComponent implements Serializable {
      */
     public void setBounds(Rectangle2D.Double bounds) {
         this.bounds = bounds;
+        markChanged();
     }
 }
@@ -33,9 +33,6 @@ public class SelecteurDeVitesse extends PhysicComponent {
 
     public static final String name = "Sélecteur de vitesse";
 
-    private SVector3d entrancePosition = new SVector3d();
-    private double entranceSpeed = 0.0;
-
     /**
      * Constructeur par défaut du sélecteur de vitesse
      */
@@ -113,6 +110,7 @@ public class SelecteurDeVitesse extends PhysicComponent {
      */
     public void setSelectionSpeed(double selectionSpeed) {
         getElectricField().setIntensity(selectionSpeed * getMagneticField().getIntensity());
+        markChanged();
     }
 
 
@@ -149,6 +147,7 @@ public class SelecteurDeVitesse extends PhysicComponent {
      */
     public void setMagneticFieldIntensity(double intensity) {
         getMagneticField().setIntensity(intensity);
+        markChanged();
     }
 
     /**
@@ -157,6 +156,7 @@ public class SelecteurDeVitesse extends PhysicComponent {
      */
     public void setElectricFieldIntensity(double intensity) {
         getElectricField().setIntensity(intensity);
+        markChanged();
     }
 
 
@@ -182,55 +182,80 @@ public class SelecteurDeVitesse extends PhysicComponent {
         return magneticField.getMagneticField(position, t);
     }
 
-
     /**
-     * Méthode qui retourne le nom du composant
+     * Méthode qui additionne le champ électrique au tableau 'field' sans créer d'objet
      *
-     * @return Le nom du composant
+     * @param x     La composante x de la position
+     * @param y     La composante y de la position
+     * @param z     La composante z de la position
+     * @param t     Le temps
+     * @param field Le tableau auquel le champ électrique est additionné
      */
-    public String getName() {
-        return name;
+    @Override
+    public void addElectricField(double x, double y, double z, double t, double[] field) {
+        electricField.addElectricField(x, y, z, t, field);
     }
 
-    @Override
     /**
-     * Méthode qui ajuste les dimensions du sélecteur de vitesse
+     * Méthode qui additionne le champ magnétique au tableau 'field' sans créer d'objet
+     *
+     * @param x     La composante x de la position
+     * @param y     La composante y de la position
+     * @param z     La composante z de la position
+     * @param t     Le temps
+     * @param field Le tableau auquel le champ magnétique est additionné
      */
-    public void setBounds(Rectangle2D.Double bounds) {
-        super.setBounds(bounds);
-        updateFields();
+    @Override
+    public void addMagneticField(double x, double y, double z, double t, double[] field) {
+        magneticField.addMagneticField(x, y, z, t, field);
     }
 
+    /**
+     * Méthode qui retourne la zone d'influence du sélecteur de vitesse. Ses champs sont nuls à l'extérieur de ses bornes
+     *
+     * @return Les bornes du sélecteur de vitesse
+     */
+    @Override
+    public Rectangle2D.Double getInfluenceBounds() {
+        return getBounds();
+    }
 
     /**
-     * Méthode qui retourne la position d'entrée
-     * @return La position d'entrée
+     * Méthode qui indique que les champs du sélecteur de vitesse sont uniformes dans ses bornes
+     *
+     * @return Vrai
      */
-    public SVector3d getEntrancePosition() {
-        return entrancePosition;
+    @Override
+    public boolean isUniform() {
+        return true;
     }
 
     /**
-     * Méthode qui ajuste la position d'entrée
-     * @param entrancePosition La position d'entrée
+     * Méthode qui indique que les champs du sélecteur de vitesse ne dépendent pas du temps
+     *
+     * @return Vrai
      */
-    public void setEntrancePosition(SVector3d entrancePosition) {
-        this.entrancePosition = entrancePosition;
+    @Override
+    public boolean isStatic() {
+        return true;
     }
 
+
     /**
-     * Méthode qui retourne la vitesse à l'entrée 
-     * @return La vitesse à l'entrée 
+     * Méthode qui retourne le nom du composant
+     *
+     * @return Le nom du composant
      */
-    public double getEntranceSpeed() {
-        return entranceSpeed;
+    public String getName() {
+        return name;
     }
 
+    @Override
     /**
-     * Méthode qui ajuste la vitesse à l'entrée
-     * @param entranceSpeed La vitesse à l'entrée 
+     * Méthode qui ajuste les dimensions du sélecteur de vitesse
      */
-    public void setEntranceSpeed(double entranceSpeed) {
-        this.entranceSpeed = entranceSpeed;
+    public void setBounds(Rectangle2D.Double bounds) {
+        super.setBounds(bounds);
+        updateFields();
     }
 }
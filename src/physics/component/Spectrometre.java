@@ -1,17 +1,25 @@
 package physics.component;
 
 import math.SVector3d;
+import physics.BoundaryCrossing;
 import physics.Physics;
 import physics.PhysicsWorld;
 import physics.SpectrometreListener;
 
 /**
- * Classe qui permet de créer un spectromètre
+ * Classe qui permet de créer un spectromètre.
+ * Chaque particule du monde est suivie indépendamment : son étape et sa position d'entrée dans l'étape sont gardées dans les colonnes du magasin de particules.
+ * Plusieurs ions peuvent donc être en vol en même temps, par exemple un faisceau continu lorsque la période du cyclotron n'est pas nulle
  * @author Sofianne
  *
  */
 public class Spectrometre extends PhysicsWorld {
-    public enum Stage {NONE, CYCLOTRON, SELECTEUR_DE_VITESSE, DEFLECTEUR}
+    /**
+     * L'étape où se trouve une particule. Une particule arrêtée ou dont la masse a été détectée n'est plus suivie
+     */
+    public enum Stage {NONE, CYCLOTRON, SELECTEUR_DE_VITESSE, DEFLECTEUR, STOPPED, DETECTED}
+
+    private static final Stage[] STAGES = Stage.values();
 
     /**
      *
@@ -21,10 +29,18 @@ public class Spectrometre extends PhysicsWorld {
     Cyclotron cyclotron;
     SelecteurDeVitesse selecteurDeVitesse;
     Deflecteur deflecteur;
-    Particle particle = new Particle();
 
     private double selecteurDeVitessePrecision = 0.1;
-    private Stage stage = Stage.NONE;
+
+    /**
+     * La position et la vitesse de chaque particule au début du pas, afin de trouver les points de traversée des bords
+     */
+    private transient double[] startX, startY, startZ, startVx, startVy, startVz;
+
+    /**
+     * L'état d'une particule pendant le pas (voir BoundaryCrossing.STATE_SIZE), passé à updateStage(ParticleStore, int, double[], double, double)
+     */
+    private transient double[] state;
 
 
     /**
@@ -60,9 +76,7 @@ public class Spectrometre extends PhysicsWorld {
      * @return La particule
      */
     public Particle generateParticle() {
-        stage = Stage.NONE;
-        particle = cyclotron.generateParticle();
-        return particle;
+        return cyclotron.generateParticle();
     }
 
     /**
@@ -108,13 +122,27 @@ public class Spectrometre extends PhysicsWorld {
         }
     }
 
+    /**
+     * Un événement est levé lorsque la particule traverse le bord du sélecteur de vitesse ou du déflecteur
+     * @param particle la particule
+     * @param component le composant dont le bord est traversé
+     * @param crossing le point de traversée
+     */
+    public void raiseEventBoundaryCrossed(Particle particle, PhysicComponent component, BoundaryCrossing crossing) {
+        for (SpectrometreListener spectrometreListener : LISTENERS.getListeners(SpectrometreListener.class)) {
+            spectrometreListener.boundaryCrossed(particle, component, crossing);
+        }
+    }
+
     /**
      * Un événement est levé lorsque la masse de la particule est détectée
      * @param particle la particule
+     * @param diameter le diamètre de la trajectoire
+     * @param detectedMass la masse détectée
      */
-    public void raiseEventMassDetected(double diameter, double detectedMass) {
+    public void raiseEventMassDetected(Particle particle, double diameter, double detectedMass) {
         for (SpectrometreListener spectrometreListener : LISTENERS.getListeners(SpectrometreListener.class)) {
-            spectrometreListener.massDetected(diameter, detectedMass);
+            spectrometreListener.massDetected(particle, diameter, detectedMass);
         }
     }
 
@@ -139,52 +167,181 @@ public class Spectrometre extends PhysicsWorld {
 
     @Override
     /**
-     * Méthode qui calcule la valeur du step
+     * Méthode qui calcule la valeur du step et fait avancer chaque particule d'une étape à l'autre avec updateStage(ParticleStore, int, double[], double, double).
+     * Les positions d'entrée et de sortie sont celles où la trajectoire traverse le bord des composants pendant le pas,
+     * et non la position de la particule à la fin du pas : la masse détectée dépend donc peu de delta_t
      */
     public void step(double delta_t, double time) {
+        int startCount = saveStartState();
         super.step(delta_t, time);
-        raiseEventParticlePositionChanged(particle);
-
-        if (stage.compareTo(Stage.CYCLOTRON) <= 0 && cyclotron.getBounds().contains(particle.getPosition().toPoint())) {
-            stage = Stage.CYCLOTRON;
 
+        ParticleStore store = getParticleStore();
+        if (state == null) {
+            state = new double[BoundaryCrossing.STATE_SIZE];
         }
-        else if (stage.compareTo(Stage.SELECTEUR_DE_VITESSE) <= 0 && selecteurDeVitesse.getBounds().contains(particle.getPosition().toPoint())) {
-            if (stage != Stage.SELECTEUR_DE_VITESSE) {
-                selecteurDeVitesse.setEntrancePosition(particle.getPosition());
-                selecteurDeVitesse.setEntranceSpeed(particle.getSpeedModulus());
-                stage = Stage.SELECTEUR_DE_VITESSE;
-                raiseEventParticleEnteredSelecteur(particle);
+        for (int i = 0; i < store.size(); i++) {
+            Particle particle = store.getParticle(i);
+            raiseEventParticlePositionChanged(particle);
+
+            if (i < startCount) {
+                state[0] = startX[i];
+                state[1] = startY[i];
+                state[2] = startZ[i];
+                state[3] = startVx[i];
+                state[4] = startVy[i];
+                state[5] = startVz[i];
+            }
+            StageChange change = updateStage(store, i, i < startCount ? state : null, time, delta_t);
+            if (change == null) {
+                continue;
+            }
+            if (change.getCrossing() != null) {
+                raiseEventBoundaryCrossed(particle, change.getComponent(), change.getCrossing());
+            }
+            switch (change.getStage()) {
+                case SELECTEUR_DE_VITESSE:
+                    raiseEventParticleEnteredSelecteur(particle);
+                    break;
+                case DEFLECTEUR:
+                    raiseEventParticleEnteredDeflecteur(particle);
+                    break;
+                case STOPPED:
+                    raiseEventParticleStopped(particle);
+                    break;
+                case DETECTED:
+                    raiseEventMassDetected(particle, change.getDiameter(), change.getDetectedMass());
+                    break;
+                default:
+                    break;
             }
         }
-        else if (deflecteur.getBounds().contains(particle.getPosition().toPoint())) {
-            if (stage != Stage.DEFLECTEUR) {
-                if (Math.abs(particle.getPosition().getY() - selecteurDeVitesse.getEntrancePosition().getY()) <= selecteurDeVitessePrecision) {
-                    /* La particule est détectée sur la plaque */
-
-                    deflecteur.setEntrancePosition(particle.getPosition());
-                    stage = Stage.DEFLECTEUR;
+    }
 
-                    raiseEventParticleEnteredDeflecteur(particle);
+    /**
+     * Méthode qui fait avancer une particule d'une étape à l'autre après un pas. L'étape et la position d'entrée sont lues et écrites dans les colonnes du magasin.
+     * Le magasin peut être celui du spectromètre ou un magasin séparé : la méthode ne modifie pas le spectromètre et ne lève aucun événement,
+     * elle peut donc être appelée par plusieurs fils en même temps pour des particules différentes
+     * @param store Le magasin de particules
+     * @param index L'index de la particule
+     * @param state Un tableau de BoundaryCrossing.STATE_SIZE valeurs dont les six premières sont la position et la vitesse au début du pas {x, y, z, vx, vy, vz}.
+     *              Les valeurs suivantes sont remplacées par l'état à la fin du pas. Null si la particule a été ajoutée pendant le pas
+     * @param time Le temps au début du pas
+     * @param delta_t La différence de temps du pas
+     * @return Le changement d'étape, ou null si la particule reste dans la même étape
+     */
+    public StageChange updateStage(ParticleStore store, int index, double[] state, double time, double delta_t) {
+        Stage stage = STAGES[store.getStage()[index]];
+        if (stage == Stage.STOPPED || stage == Stage.DETECTED) {
+            return null;
+        }
+        double x = store.getX()[index], y = store.getY()[index];
 
-                }
-                else {
-                    /* La particule n'a pas passée par le trou à la sortie du sélecteur de vitesse */
-                    raiseEventParticleStopped(particle);
-                }
+        if (stage.compareTo(Stage.CYCLOTRON) <= 0 && cyclotron.getBounds().contains(x, y)) {
+            if (stage == Stage.CYCLOTRON) {
+                return null;
             }
+            setStage(store, index, Stage.CYCLOTRON);
+            return new StageChange(Stage.CYCLOTRON, null, null, Double.NaN, Double.NaN);
         }
-        else {
+        else if (stage.compareTo(Stage.SELECTEUR_DE_VITESSE) <= 0 && selecteurDeVitesse.getBounds().contains(x, y)) {
             if (stage == Stage.SELECTEUR_DE_VITESSE) {
-                /* Le selecteur de vitesse a intercepté la particule */
-                raiseEventParticleStopped(particle);
+                return null;
             }
-            else if (stage == Stage.DEFLECTEUR) {
-                double radius = Math.abs(particle.getPosition().getY() - deflecteur.getEntrancePosition().getY()) / 2.0;
-                double calculatedMass = deflecteur.calculateMass(particle.getCharge(), particle.getSpeedModulus(), radius);
-                raiseEventMassDetected(radius * 2.0, calculatedMass);
+            BoundaryCrossing crossing = findCrossing(selecteurDeVitesse, store, index, state, time, delta_t);
+            store.getEntranceX()[index] = crossing.getPosition().getX();
+            store.getEntranceY()[index] = crossing.getPosition().getY();
+            setStage(store, index, Stage.SELECTEUR_DE_VITESSE);
+            return new StageChange(Stage.SELECTEUR_DE_VITESSE, selecteurDeVitesse, crossing, Double.NaN, Double.NaN);
+        }
+        else if (deflecteur.getBounds().contains(x, y)) {
+            if (stage == Stage.DEFLECTEUR) {
+                return null;
             }
+            BoundaryCrossing crossing = findCrossing(deflecteur, store, index, state, time, delta_t);
+            if (stage == Stage.SELECTEUR_DE_VITESSE && Math.abs(crossing.getPosition().getY() - store.getEntranceY()[index]) <= selecteurDeVitessePrecision) {
+                /* La particule est détectée sur la plaque */
+                store.getEntranceX()[index] = crossing.getPosition().getX();
+                store.getEntranceY()[index] = crossing.getPosition().getY();
+                setStage(store, index, Stage.DEFLECTEUR);
+                return new StageChange(Stage.DEFLECTEUR, deflecteur, crossing, Double.NaN, Double.NaN);
+            }
+            /* La particule n'a pas passée par le trou à la sortie du sélecteur de vitesse */
+            setStage(store, index, Stage.STOPPED);
+            return new StageChange(Stage.STOPPED, deflecteur, crossing, Double.NaN, Double.NaN);
+        }
+        else if (stage == Stage.SELECTEUR_DE_VITESSE) {
+            /* Le selecteur de vitesse a intercepté la particule */
+            BoundaryCrossing crossing = findCrossing(selecteurDeVitesse, store, index, state, time, delta_t);
+            setStage(store, index, Stage.STOPPED);
+            return new StageChange(Stage.STOPPED, selecteurDeVitesse, crossing, Double.NaN, Double.NaN);
         }
+        else if (stage == Stage.DEFLECTEUR) {
+            BoundaryCrossing crossing = findCrossing(deflecteur, store, index, state, time, delta_t);
+            double radius = Math.abs(crossing.getPosition().getY() - store.getEntranceY()[index]) / 2.0;
+            double calculatedMass = deflecteur.calculateMass(store.getCharge()[index], crossing.getSpeed().modulus(), radius);
+            setStage(store, index, Stage.DETECTED);
+            return new StageChange(Stage.DETECTED, deflecteur, crossing, radius * 2.0, calculatedMass);
+        }
+        return null;
+    }
+
+    /**
+     * Méthode qui garde la position et la vitesse de chaque particule au début du pas
+     * @return Le nombre de particules au début du pas
+     */
+    private int saveStartState() {
+        ParticleStore store = getParticleStore();
+        int size = store.size();
+        if (startX == null || startX.length < size) {
+            int capacity = Math.max(size, startX == null ? 16 : startX.length * 2);
+            startX = new double[capacity];
+            startY = new double[capacity];
+            startZ = new double[capacity];
+            startVx = new double[capacity];
+            startVy = new double[capacity];
+            startVz = new double[capacity];
+        }
+        System.arraycopy(store.getX(), 0, startX, 0, size);
+        System.arraycopy(store.getY(), 0, startY, 0, size);
+        System.arraycopy(store.getZ(), 0, startZ, 0, size);
+        System.arraycopy(store.getVx(), 0, startVx, 0, size);
+        System.arraycopy(store.getVy(), 0, startVy, 0, size);
+        System.arraycopy(store.getVz(), 0, startVz, 0, size);
+        return size;
+    }
+
+    /**
+     * Méthode qui trouve le point où la particule a traversé le bord du composant pendant le pas.
+     * Si la particule n'a pas traversé le bord pendant ce pas, ou si elle a été générée pendant le pas, le point retourné est la position à la fin du pas
+     * @param component Le composant
+     * @param store Le magasin de particules
+     * @param index L'index de la particule
+     * @param state L'état de la particule, dont la position et la vitesse au début du pas, ou null. L'état à la fin du pas y est copié
+     * @param time Le temps au début du pas
+     * @param delta_t La différence de temps du pas
+     * @return Le point de traversée
+     */
+    private static BoundaryCrossing findCrossing(PhysicComponent component, ParticleStore store, int index, double[] state, double time, double delta_t) {
+        BoundaryCrossing crossing = null;
+        if (state != null) {
+            state[6] = store.getX()[index];
+            state[7] = store.getY()[index];
+            state[8] = store.getZ()[index];
+            state[9] = store.getVx()[index];
+            state[10] = store.getVy()[index];
+            state[11] = store.getVz()[index];
+            crossing = BoundaryCrossing.find(component.getBounds(), state, time, delta_t);
+        }
+        if (crossing == null) {
+            SVector3d endPosition = new SVector3d(store.getX()[index], store.getY()[index], store.getZ()[index]);
+            SVector3d endSpeed = new SVector3d(store.getVx()[index], store.getVy()[index], store.getVz()[index]);
+            crossing = new BoundaryCrossing(component.getBounds().contains(endPosition.getX(), endPosition.getY()), time + delta_t, endPosition, endSpeed);
+        }
+        return crossing;
+    }
+
+    private static void setStage(ParticleStore store, int index, Stage stage) {
+        store.getStage()[index] = (byte) stage.ordinal();
     }
 
 
@@ -225,19 +382,103 @@ public class Spectrometre extends PhysicsWorld {
     }
 
     /**
-     * Méthode qui retourne le niveau
+     * Méthode qui retourne la tolérance sur la position verticale de la particule à la sortie du sélecteur de vitesse
+     * @return La tolérance (m)
+     */
+    public double getSelecteurDeVitessePrecision() {
+        return selecteurDeVitessePrecision;
+    }
+
+    /**
+     * Méthode qui ajuste la tolérance sur la position verticale de la particule à la sortie du sélecteur de vitesse
+     * @param selecteurDeVitessePrecision La tolérance (m)
+     */
+    public void setSelecteurDeVitessePrecision(double selecteurDeVitessePrecision) {
+        this.selecteurDeVitessePrecision = Math.max(0.0, selecteurDeVitessePrecision);
+    }
+
+    /**
+     * Méthode qui retourne le niveau d'une particule. Le niveau est gardé par la particule, même lorsqu'elle est retirée du spectromètre
+     * @param particle la particule
      * @return Le niveau
      */
-    public Stage getStage() {
-        return stage;
+    public Stage getStage(Particle particle) {
+        return STAGES[particle.getStage()];
     }
 
     /**
-     * Méthode qui ajuste le niveau
+     * Méthode qui ajuste le niveau d'une particule
+     * @param particle la particule
      * @param stage le niveau
      */
-    public void setStage(Stage stage) {
-        this.stage = stage;
+    public void setStage(Particle particle, Stage stage) {
+        particle.setStage((byte) stage.ordinal());
+    }
+
+    /**
+     * Le changement d'étape d'une particule pendant un pas, retourné par updateStage(ParticleStore, int, double[], double, double)
+     */
+    public static class StageChange {
+        private final Stage stage;
+        private final PhysicComponent component;
+        private final BoundaryCrossing crossing;
+        private final double diameter, detectedMass;
+
+        /**
+         * Constructeur
+         * @param stage La nouvelle étape
+         * @param component Le composant dont le bord a été traversé, ou null
+         * @param crossing Le point de traversée, ou null
+         * @param diameter Le diamètre de la trajectoire dans le déflecteur, ou NaN si la masse n'a pas été détectée
+         * @param detectedMass La masse détectée, ou NaN si la masse n'a pas été détectée
+         */
+        StageChange(Stage stage, PhysicComponent component, BoundaryCrossing crossing, double diameter, double detectedMass) {
+            this.stage = stage;
+            this.component = component;
+            this.crossing = crossing;
+            this.diameter = diameter;
+            this.detectedMass = detectedMass;
+        }
+
+        /**
+         * Retourne la nouvelle étape de la particule
+         * @return L'étape
+         */
+        public Stage getStage() {
+            return stage;
+        }
+
+        /**
+         * Retourne le composant dont le bord a été traversé
+         * @return Le composant, ou null si l'étape a changé sans traverser le bord du sélecteur de vitesse ou du déflecteur
+         */
+        public PhysicComponent getComponent() {
+            return component;
+        }
+
+        /**
+         * Retourne le point de traversée du bord
+         * @return Le point de traversée, ou null
+         */
+        public BoundaryCrossing getCrossing() {
+            return crossing;
+        }
+
+        /**
+         * Retourne le diamètre de la trajectoire dans le déflecteur
+         * @return Le diamètre (m), ou NaN si la masse n'a pas été détectée
+         */
+        public double getDiameter() {
+            return diameter;
+        }
+
+        /**
+         * Retourne la masse détectée
+         * @return La masse (kg), ou NaN si la masse n'a pas été détectée
+         */
+        public double getDetectedMass() {
+            return detectedMass;
+        }
     }
 }
 	
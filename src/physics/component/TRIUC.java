@@ -132,6 +132,7 @@ public class TRIUC extends PhysicComponent {
      */
     public void setChargeDensity(double chargeDensity) {
         this.chargeDensity = chargeDensity;
+        markChanged();
     }
 
     /**
@@ -150,10 +151,21 @@ public class TRIUC extends PhysicComponent {
      */
     public void setOrientation(SVector3d orientation) {
         this.orientation = orientation.normalize();
+        markChanged();
     }
     
     
 
+    /**
+     * Permet de savoir si le champ de la tige est statique. Le champ ne dépend que de la géométrie et de la densité de charge
+     *
+     * @return Vrai
+     */
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     /**
      * Permet de savoir si la tige doit être considérée comme étant infinie
      *
@@ -170,6 +182,7 @@ public class TRIUC extends PhysicComponent {
      */
     public void setInfinite(boolean infinite) {
         this.infinite = infinite;
+        markChanged();
     }
     
 
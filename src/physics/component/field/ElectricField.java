@@ -100,6 +100,40 @@ public class ElectricField extends Field {
         return new SVector3d();
     }
 
+    /**
+     * Permet d'additionner le champ électrique au point (x, y, z) au tableau 'field' sans créer d'objet
+     *
+     * @param x     La composante x de la position absolue
+     * @param y     La composante y de la position absolue
+     * @param z     La composante z de la position absolue
+     * @param t     Le temps auquel il faut calculer le champ
+     * @param field Le tableau [x, y, z] auquel le champ électrique est additionné
+     */
+    @Override
+    public void addElectricField(double x, double y, double z, double t, double[] field) {
+        if (!getBounds().contains(x, y)) {
+            return;
+        }
+        SVector3d fieldDirection = getFieldDirection();
+        double intensity = getIntensity();
+        field[0] += intensity * fieldDirection.getX();
+        field[1] += intensity * fieldDirection.getY();
+        field[2] += intensity * fieldDirection.getZ();
+    }
+
+    /**
+     * Le champ magnétique d'un champ électrique est toujours nul. La méthode ne fait donc rien.
+     *
+     * @param x     La composante x de la position absolue
+     * @param y     La composante y de la position absolue
+     * @param z     La composante z de la position absolue
+     * @param t     Le temps auquel il faut calculer le champ
+     * @param field Le tableau [x, y, z] auquel le champ magnétique est additionné
+     */
+    @Override
+    public void addMagneticField(double x, double y, double z, double t, double[] field) {
+    }
+
 
     /**
      * Permet d'obtenir le nom du composant
@@ -95,7 +95,35 @@ public abstract class Field extends PhysicComponent {
 
     /* ------------------Méthodes "Override"------------------- */
 
+    /**
+     * Permet d'obtenir la zone d'influence du champ. Le champ est nul à l'extérieur de ses bornes
+     *
+     * @return Les bornes du champ
+     */
+    @Override
+    public Rectangle2D.Double getInfluenceBounds() {
+        return getBounds();
+    }
 
+    /**
+     * Permet de savoir si le champ est uniforme. Le champ est constant dans ses bornes et nul à l'extérieur
+     *
+     * @return Vrai
+     */
+    @Override
+    public boolean isUniform() {
+        return true;
+    }
+
+    /**
+     * Permet de savoir si le champ est statique. Le champ ne dépend pas du temps
+     *
+     * @return Vrai
+     */
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
 
 
     /* -------------------Getters & Setters------------------- */
@@ -119,6 +147,7 @@ public abstract class Field extends PhysicComponent {
      */
     public void setFieldDirection(SVector3d fieldDirection) {
         this.fieldDirection = fieldDirection.normalize();
+        markChanged();
     }
 
 
@@ -138,6 +167,7 @@ public abstract class Field extends PhysicComponent {
      */
     public void setIntensity(double intensity) {
         this.intensity = intensity;
+        markChanged();
     }
 
     /**
@@ -1,14 +1,23 @@
 package view;
 
 import controller.ViewController;
-import math.MathUtil;
 import math.SVector3d;
 import physics.PhysicsWorld;
+import physics.component.PhysicComponent;
 import physics.component.field.Field;
 
+import javax.swing.*;
 import java.awt.*;
+import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -25,12 +34,119 @@ public class FieldMapView extends View {
 	 * 
 	 */
 	private static final long serialVersionUID = 1L;
-	private ArrayList<ArrayList<Double[]>> fieldIntensityList = new ArrayList<>();
-    public ArrayList<ArrayList<Color>> colorList = new ArrayList<>();
 
-    private Image image;
+    /**
+     * La largeur et la hauteur d'une tuile de la carte, en pixels
+     */
+    private static final int TILE_SIZE = 64;
+
+    /**
+     * Le niveau de résolution le plus grossier des tuiles : une nouvelle tuile est d'abord séparée en cellules de 2^COARSEST_LEVEL pixels de côté
+     */
+    private static final int COARSEST_LEVEL = 4;
+
+    /**
+     * La différence relative maximale par défaut entre les intensités aux coins d'une cellule qui est remplie sans être subdivisée
+     */
+    public static final double DEFAULT_SAMPLING_TOLERANCE = 1e-3;
+
+    /**
+     * Le nombre de tuiles raffinées ensemble
+     */
+    private static final int REFINE_BATCH = 8;
+
+    /**
+     * Le temps maximal passé à raffiner les tuiles lors d'une mise à jour (ns)
+     */
+    private static final long REFINE_BUDGET = TimeUnit.MILLISECONDS.toNanos(8);
+
+    /**
+     * Le délai entre deux raffinements faits par le fil de l'interface (ms)
+     */
+    private static final int REFINE_DELAY = 15;
+
+    /**
+     * Le nombre maximal d'échelles de la vue pour lesquelles les tuiles sont gardées
+     */
+    private static final int MAX_CACHED_SCALES = 4;
+
+    /**
+     * Le nombre maximal de tuiles gardées, toutes échelles confondues
+     */
+    private static final int MAX_CACHED_TILES = 1024;
+
+    /**
+     * Le nombre d'entrées des tables de couleurs
+     */
+    private static final int TABLE_SIZE = 1024;
+
+    /**
+     * Le nombre de puissances de 10 sous l'intensité maximale qui sont affichées avec l'échelle logarithmique
+     */
+    public static final double LOG_DECADES = 4.0;
+
+    /**
+     * Les couleurs, du rouge au bleu, utilisées lorsqu'un seul champ est affiché
+     */
+    private static final int[] HUE_TABLE = createHueTable();
+
+    /**
+     * La luminosité d'une composante utilisée lorsque les deux champs sont affichés
+     */
+    private static final int[] CHANNEL_TABLE = createChannelTable();
+
+    /**
+     * L'échelle utilisée pour convertir les intensités en couleurs
+     */
+    public enum IntensityScale {
+        /**
+         * La couleur est proportionnelle à l'intensité
+         */
+        LINEAR,
+        /**
+         * La couleur est proportionnelle au logarithme de l'intensité, sur LOG_DECADES puissances de 10 sous l'intensité maximale
+         */
+        LOGARITHMIC
+    }
+
+    /**
+     * Les ensembles de tuiles calculés pour les dernières échelles de la vue, du plus récent au plus ancien.
+     * Le pixel (colonne, rangée) de la tuile (i, j) se trouve à x = (i * TILE_SIZE + colonne) * échelleX et y = -(j * TILE_SIZE + rangée) * échelleY dans la simulation,
+     * ce qui permet de réutiliser les tuiles lorsque la caméra est déplacée ou que la vue est redimensionnée
+     */
+    private final ArrayList<TileSet> tileSets = new ArrayList<>();
+
+    /**
+     * Les tuiles visibles et leur position dans la vue, utilisées pour dessiner la carte
+     */
+    private volatile TileLayout layout = new TileLayout(new Tile[0], new int[0], new int[0]);
+
+    /**
+     * L'état du monde pour lequel les tuiles ont été calculées. Permet de trouver les régions de la carte qui ont changé
+     */
+    private PhysicsWorld computedWorld;
+    private long computedParticleFieldVersion;
+    private final IdentityHashMap<PhysicComponent, ComponentState> computedComponents = new IdentityHashMap<>();
+
+    /**
+     * Le compteur utilisé pour savoir quelles tuiles ont été affichées le plus récemment
+     */
+    private long useCounter = 0;
+
+    /**
+     * Le numéro de version des couleurs. Une tuile dont les couleurs ont une autre version est recolorée lorsqu'elle redevient visible
+     */
+    private long colorVersion = 0;
+
+    /**
+     * Le minuteur qui raffine les tuiles lorsque la simulation est arrêtée et ne met donc plus la carte à jour
+     */
+    private final Timer refineTimer = new Timer(REFINE_DELAY, e -> refineInBackground());
+
     private Field.FieldType fieldType = Field.FieldType.ELECTRIC;
     private double maxIntensity;
+    private IntensityScale intensityScale = IntensityScale.LINEAR;
+    private double samplingTolerance = DEFAULT_SAMPLING_TOLERANCE;
 
     /**
      * Constructeur par défaut d'une vue
@@ -41,150 +157,888 @@ public class FieldMapView extends View {
     }
 
     /**
-     * Permet de calculer les intensités des champs.
-     * Cette méthode doit être appelée lorsque les valeurs des champs changent dans le monde physique
+     * Permet de mettre à jour la carte en recalculant seulement les tuiles qui ont changé.
+     * Les tuiles qui touchent la zone d'influence, avant ou après la modification, d'un composant ajouté, retiré ou modifié sont recalculées.
+     * Un composant dont la zone d'influence n'est pas bornée, ou un changement du champ des particules, invalide toutes les tuiles.
+     * Les nouvelles tuiles sont d'abord calculées à basse résolution, puis raffinées pendant au plus REFINE_BUDGET à chaque appel
+     * et, lorsque la simulation est arrêtée, par un minuteur.
+     * Les champs sont lus dans les structures du monde sans les reconstruire : la méthode doit être appelée par le fil qui simule le monde,
+     * après PhysicsWorld.updateCaches(), ou lorsque la simulation est arrêtée (voir ViewController.execute(Runnable))
      *
      * @param physicsWorld Le monde physique dans lequel il faut calculer les intensités
+     * @return Vrai si des intensités ont été calculées
+     */
+    public synchronized boolean updateFieldValues(PhysicsWorld physicsWorld) {
+        if (getWidth() == 0 || getHeight() == 0) {
+            return false;
+        }
+        if (physicsWorld != computedWorld) {
+            resetTiles(physicsWorld);
+        }
+        else {
+            invalidateChangedRegions(physicsWorld);
+        }
+        boolean computed = layoutVisibleTiles(physicsWorld);
+        computed |= refine(physicsWorld, System.nanoTime() + REFINE_BUDGET);
+        if (isRefinementPending() && !refineTimer.isRunning()) {
+            refineTimer.start();
+        }
+        return computed;
+    }
+
+    /**
+     * Permet de calculer les intensités des champs de toutes les tuiles visibles à pleine résolution, sans utiliser les tuiles déjà calculées.
+     * Les tuiles sont calculées en parallèle si le monde le permet. Comme pour updateFieldValues(PhysicsWorld), la méthode doit être appelée par le fil qui simule le monde
+     *
+     * @param physicsWorld Le monde physique dans lequel il faut calculer les intensités
+     * @return Vrai si des intensités ont été calculées
+     */
+    public synchronized boolean calculateFieldValues(PhysicsWorld physicsWorld) {
+        if (getWidth() == 0 || getHeight() == 0) {
+            return false;
+        }
+        resetTiles(physicsWorld);
+        layoutVisibleTiles(physicsWorld);
+        refine(physicsWorld, Long.MAX_VALUE);
+        return true;
+    }
+
+    /**
+     * Permet de retirer toutes les tuiles et de noter l'état du monde pour lequel les prochaines tuiles seront calculées
+     *
+     * @param physicsWorld Le monde physique
+     */
+    private void resetTiles(PhysicsWorld physicsWorld) {
+        tileSets.clear();
+        computedWorld = physicsWorld;
+        computedParticleFieldVersion = physicsWorld.getParticleFieldVersion();
+        computedComponents.clear();
+        for (PhysicComponent component : physicsWorld.getComponentList()) {
+            computedComponents.put(component, new ComponentState(component));
+        }
+    }
+
+    /**
+     * Permet de retirer les tuiles, de toutes les échelles, dont les intensités ont pu changer depuis leur calcul.
+     * La zone d'influence des composants qui ne sont pas statiques est toujours recalculée
+     *
+     * @param physicsWorld Le monde physique
      */
-    public void calculateFieldValues(PhysicsWorld physicsWorld) {
-        if (!(getWidth() == 0 || getHeight() == 0)) {
-            fieldIntensityList.clear();
-            for (int x = 0; x < getWidth(); x++) {
-                ArrayList<Double[]> values = new ArrayList<>();
-                for (int y = 0; y < getHeight(); y++) {
-                    SVector3d point = new SVector3d(x, y);
-                    Double[] valueArray = getFieldValueForPoint(this.UIToSimulation(point), physicsWorld, getViewController().getTime());
-                    values.add(valueArray);
+    private void invalidateChangedRegions(PhysicsWorld physicsWorld) {
+        ArrayList<Rectangle2D.Double> regions = new ArrayList<>();
+        boolean everything = false;
+
+        long particleFieldVersion = physicsWorld.getParticleFieldVersion();
+        if (particleFieldVersion != computedParticleFieldVersion) {
+            /* Le champ d'une particule n'est pas borné */
+            everything = true;
+            computedParticleFieldVersion = particleFieldVersion;
+        }
+
+        IdentityHashMap<PhysicComponent, ComponentState> removed = new IdentityHashMap<>(computedComponents);
+        for (PhysicComponent component : physicsWorld.getComponentList()) {
+            ComponentState previous = removed.remove(component);
+            if (previous != null && previous.version == component.getVersion()) {
+                if (component.isInteractive() && !component.isStatic()) {
+                    /* Le champ d'un composant qui n'est pas statique dépend du temps : il change sans que la version du composant change */
+                    everything |= !addRegion(regions, previous);
                 }
-                fieldIntensityList.add(values);
+                continue;
+            }
+            ComponentState current = new ComponentState(component);
+            computedComponents.put(component, current);
+            everything |= !addRegion(regions, current);
+            if (previous != null) {
+                everything |= !addRegion(regions, previous);
+            }
+        }
+        for (ComponentState state : removed.values()) {
+            everything |= !addRegion(regions, state);
+        }
+        computedComponents.keySet().removeAll(removed.keySet());
+
+        if (everything) {
+            tileSets.clear();
+        }
+        else if (!regions.isEmpty()) {
+            for (TileSet tileSet : tileSets) {
+                tileSet.tiles.values().removeIf(tile -> tile.intersects(regions, tileSet.scaleX, tileSet.scaleY));
             }
-            updateColors();
         }
     }
 
     /**
-     * Permet de mettre à jour les couleurs sans recalculer toutes les intensités des champs.
-     * Cette méthode doit être appelée lorsque les variables 'maxIntensity' ou 'fieldType' sont modifiées.
+     * Permet d'ajouter la zone d'influence d'un composant aux régions à recalculer
+     *
+     * @param regions Les régions à recalculer
+     * @param state   L'état du composant
+     * @return Faux si la zone d'influence du composant n'est pas bornée
      */
-    public void updateColors() {
-        ArrayList<ArrayList<Color>> newColorList = generateColors(fieldIntensityList, fieldType, maxIntensity);
-
-        if (!newColorList.equals(colorList)) {
-            colorList = newColorList;
-            image = generateImage(colorList);
+    private static boolean addRegion(ArrayList<Rectangle2D.Double> regions, ComponentState state) {
+        if (state.influenceBounds == null) {
+            return false;
         }
-        repaint();
+        regions.add(state.influenceBounds);
+        return true;
     }
 
-    /* ------------------Méthodes Statiques------------------- */
+    /**
+     * Permet d'obtenir l'ensemble des tuiles de l'échelle actuelle de la vue. Il devient l'ensemble le plus récent
+     *
+     * @return L'ensemble des tuiles
+     */
+    private TileSet getCurrentTileSet() {
+        double scaleX = 1.0 / getScale().getX(), scaleY = 1.0 / getScale().getY();
+        TileSet current = null;
+        for (int i = 0; i < tileSets.size(); i++) {
+            TileSet tileSet = tileSets.get(i);
+            if (tileSet.scaleX == scaleX && tileSet.scaleY == scaleY) {
+                current = tileSets.remove(i);
+                break;
+            }
+        }
+        if (current == null) {
+            current = new TileSet(scaleX, scaleY);
+        }
+        tileSets.add(0, current);
+        while (tileSets.size() > MAX_CACHED_SCALES) {
+            tileSets.remove(tileSets.size() - 1);
+        }
+        return current;
+    }
 
     /**
-     * Permet d'obtenir la liste des couleurs qui seront dessinées
+     * Permet de calculer à basse résolution les tuiles visibles qui ne sont pas encore calculées,
+     * de publier la nouvelle disposition des tuiles et de retirer les tuiles les moins récemment affichées
      *
-     * @param fieldIntensityList La liste des intensitées
-     * @param fieldType          Le type des champs à afficher
-     * @param maxIntensity       L'intensité maximale des champs
-     * @return La liste des couleurs
+     * @param physicsWorld Le monde physique
+     * @return Vrai si des tuiles ont été calculées
      */
-    public static ArrayList<ArrayList<Color>> generateColors(ArrayList<ArrayList<Double[]>> fieldIntensityList, Field.FieldType fieldType, double maxIntensity) {
-        ArrayList<ArrayList<Color>> colorList = new ArrayList<>();
+    private boolean layoutVisibleTiles(PhysicsWorld physicsWorld) {
+        TileSet tileSet = getCurrentTileSet();
+        int width = getWidth(), height = getHeight();
+        SVector3d translation = getTranslation();
 
-        for (int x = 0; x < fieldIntensityList.size(); x++) {
-            ArrayList<Color> colors = new ArrayList<>();
-            for (int y = 0; y < fieldIntensityList.get(x).size(); y++) {
-                colors.add(calculateColor(fieldIntensityList.get(x).get(y), fieldType, maxIntensity));
+        /* Les coordonnées des pixels de la vue par rapport aux pixels des tuiles. Elles sont calculées de la même façon que dans UIToSimulation() */
+        long shiftX = Math.round(-translation.getX() / tileSet.scaleX);
+        long shiftY = Math.round(height + translation.getY() / tileSet.scaleY);
+        int firstColumn = (int) Math.floor((double) -shiftX / TILE_SIZE);
+        int lastColumn = (int) Math.floor((double) (width - 1 - shiftX) / TILE_SIZE);
+        int firstRow = (int) Math.floor((double) -shiftY / TILE_SIZE);
+        int lastRow = (int) Math.floor((double) (height - 1 - shiftY) / TILE_SIZE);
+
+        int count = (lastColumn - firstColumn + 1) * (lastRow - firstRow + 1);
+        Tile[] visible = new Tile[count];
+        int[] x = new int[count], y = new int[count];
+        ArrayList<Tile> missing = new ArrayList<>();
+        useCounter++;
+        int index = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                long key = (long) column << 32 | (row & 0xFFFFFFFFL);
+                Tile tile = tileSet.tiles.get(key);
+                if (tile == null) {
+                    tile = new Tile(column, row);
+                    tileSet.tiles.put(key, tile);
+                    missing.add(tile);
+                }
+                else if (tile.colorVersion != colorVersion) {
+                    tile.updateColors(fieldType, maxIntensity, intensityScale, colorVersion);
+                }
+                tile.lastUsed = useCounter;
+                visible[index] = tile;
+                x[index] = (int) (column * (long) TILE_SIZE + shiftX);
+                y[index] = (int) (row * (long) TILE_SIZE + shiftY);
+                index++;
             }
-            colorList.add(colors);
         }
-        return colorList;
+
+        if (!missing.isEmpty()) {
+            computeTiles(physicsWorld, tileSet, missing.toArray(new Tile[0]), COARSEST_LEVEL);
+        }
+        layout = new TileLayout(visible, x, y);
+        evictTiles();
+        repaint();
+        return !missing.isEmpty();
+    }
+
+    /**
+     * Permet de retirer les tuiles les moins récemment affichées lorsque le nombre de tuiles gardées dépasse MAX_CACHED_TILES
+     */
+    private void evictTiles() {
+        int count = 0;
+        for (TileSet tileSet : tileSets) {
+            count += tileSet.tiles.size();
+        }
+        if (count <= MAX_CACHED_TILES) {
+            return;
+        }
+        long[] lastUsed = new long[count];
+        int index = 0;
+        for (TileSet tileSet : tileSets) {
+            for (Tile tile : tileSet.tiles.values()) {
+                lastUsed[index++] = tile.lastUsed;
+            }
+        }
+        Arrays.sort(lastUsed);
+        /* Les tuiles visibles ont toutes la valeur la plus récente et ne sont donc jamais retirées */
+        long threshold = Math.min(lastUsed[count - MAX_CACHED_TILES], useCounter);
+        for (TileSet tileSet : tileSets) {
+            tileSet.tiles.values().removeIf(tile -> tile.lastUsed < threshold);
+        }
     }
 
     /**
-     * Permet de générer une image à partir des couleurs
+     * Permet de raffiner les tuiles visibles, les plus grossières en premier, jusqu'à ce qu'elles soient toutes à pleine résolution ou que l'échéance soit passée.
+     * Chaque raffinement sépare en quatre les cellules non uniformes d'une tuile en évaluant seulement les nouveaux coins
      *
-     * @param colorList La liste des couleurs
-     * @return L'image
+     * @param physicsWorld Le monde physique
+     * @param deadline     L'échéance, selon System.nanoTime()
+     * @return Vrai si des tuiles ont été raffinées
      */
-    public static Image generateImage(ArrayList<ArrayList<Color>> colorList) {
-        BufferedImage image = new BufferedImage(colorList.size(), colorList.get(0).size(), BufferedImage.TYPE_INT_ARGB);
-        for (int x = 0; x < colorList.size(); x++) {
-            for (int y = 0; y < colorList.get(x).size(); y++) {
-                image.setRGB(x, y, colorList.get(x).get(y).getRGB());
+    private boolean refine(PhysicsWorld physicsWorld, long deadline) {
+        if (tileSets.isEmpty()) {
+            return false;
+        }
+        TileSet tileSet = tileSets.get(0);
+        boolean refined = false;
+        ArrayList<Tile> batch = new ArrayList<>();
+        do {
+            int level = 0;
+            for (Tile tile : layout.tiles) {
+                level = Math.max(level, tile.level);
+            }
+            if (level == 0) {
+                break;
             }
+            batch.clear();
+            for (Tile tile : layout.tiles) {
+                if (tile.level == level && batch.size() < REFINE_BATCH) {
+                    batch.add(tile);
+                }
+            }
+            computeTiles(physicsWorld, tileSet, batch.toArray(new Tile[0]), level - 1);
+            refined = true;
+        } while (System.nanoTime() < deadline);
+        if (refined) {
+            repaint();
         }
-        return image;
+        return refined;
     }
 
     /**
-     * Permet de calculer une couleur à partir d'une intensité de champ
-     * L'intensité maximale du champ correspond à la valeur pour laquelle la couleur sera bleue
+     * Permet de savoir si des tuiles visibles ne sont pas encore à pleine résolution
      *
-     * @param intensity    L'intensité du champ
-     * @param maxIntensity L'intensité maximale du champ
-     * @return La couleur
+     * @return Vrai si des tuiles doivent être raffinées
      */
-    public static Color fieldIntensityToColor(double intensity, double maxIntensity) {
-        float hue = (float) MathUtil.scaleValueInRange(intensity, 0.f, maxIntensity);
+    private boolean isRefinementPending() {
+        for (Tile tile : layout.tiles) {
+            if (tile.level > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        /* Pour une valeur de 1.f, on désire avoir la couleur bleue qui correspond à une valeur de 2/3 hue */
-        float maxHue = 2.f / 3.f;
-        hue *= maxHue;
+    /**
+     * Permet de raffiner les tuiles lorsque la simulation est arrêtée. Pendant la simulation, les tuiles sont raffinées par les mises à jour du fil de la simulation.
+     * Le raffinement est une commande du contrôleur : si la simulation redémarre entre-temps, il est fait par le fil de la simulation entre deux pas
+     */
+    private synchronized void refineInBackground() {
+        if (computedWorld == null || !isRefinementPending()) {
+            refineTimer.stop();
+            return;
+        }
+        ViewController viewController = getViewController();
+        if (viewController.isIdle()) {
+            PhysicsWorld physicsWorld = computedWorld;
+            viewController.execute(() -> refineIdle(physicsWorld));
+        }
+    }
 
-        return Color.getHSBColor(hue, 1.f, 1.f);
+    /**
+     * Permet de raffiner les tuiles pendant au plus REFINE_BUDGET, si le monde affiché n'a pas changé
+     *
+     * @param physicsWorld Le monde physique pour lequel le raffinement a été demandé
+     */
+    private synchronized void refineIdle(PhysicsWorld physicsWorld) {
+        if (physicsWorld == computedWorld) {
+            refine(physicsWorld, System.nanoTime() + REFINE_BUDGET);
+        }
     }
 
     /**
-     * Permet de calculer une couleur à partir de 2 intensités de champ correspondant à [0] l'intensité du champ électrique et [1] l'intensité du champ magnétique
+     * Permet de calculer les tuiles au niveau de résolution 'level', puis de les colorer.
+     * Une tuile dont toutes les cellules sont uniformes passe directement au niveau 0.
+     * Les structures du monde (grille des composants, arbre de Barnes–Hut, grille des champs) ne sont pas reconstruites ici : seul le fil qui simule le monde le fait
      *
-     * @param intensities  Un tableau contenant les intensités des champs électrique et magnétique
-     * @param maxIntensity L'intensité maximale des champs qui correspond à la valeur pour laquelle la luminosité de la couleur sera 100%
-     * @return La couleur
+     * @param physicsWorld Le monde physique
+     * @param tileSet      L'ensemble qui contient les tuiles
+     * @param computed     Les tuiles à calculer
+     * @param level        Le niveau de résolution. Les cellules qui restent à subdiviser auront 2^level pixels de côté
      */
-    public static Color fieldIntensityToColor(Double[] intensities, double maxIntensity) {
-        float electricIntensity = (float) MathUtil.scaleValueInRange(intensities[0], maxIntensity);
-        float magneticIntensity = (float) MathUtil.scaleValueInRange(intensities[1], maxIntensity);
+    private void computeTiles(PhysicsWorld physicsWorld, TileSet tileSet, Tile[] computed, int level) {
+        ArrayList<Rectangle2D.Double> boundaries = new ArrayList<>(), features = new ArrayList<>();
+        for (ComponentState state : computedComponents.values()) {
+            if (state.influenceBounds != null) {
+                boundaries.add(state.influenceBounds);
+            }
+            else {
+                features.add(state.bounds);
+            }
+        }
+        FieldMapTask task = new FieldMapTask(physicsWorld, getViewController().getTime(), tileSet.scaleX, tileSet.scaleY, boundaries.toArray(new Rectangle2D.Double[0]),
+                features.toArray(new Rectangle2D.Double[0]), samplingTolerance, computed, 0, computed.length, level);
+        if (physicsWorld.isFieldQueryThreadSafe()) {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+        else {
+            task.computeTiles();
+        }
+        for (Tile tile : computed) {
+            tile.updateColors(fieldType, maxIntensity, intensityScale, colorVersion);
+        }
+    }
 
-        return new Color(electricIntensity, 0.f, magneticIntensity);
+    /**
+     * Permet de mettre à jour les couleurs sans recalculer toutes les intensités des champs.
+     * Cette méthode doit être appelée lorsque les variables 'maxIntensity', 'fieldType' ou 'intensityScale' sont modifiées.
+     * Les tuiles visibles sont recolorées immédiatement, les autres lorsqu'elles redeviennent visibles
+     */
+    public synchronized void updateColors() {
+        colorVersion++;
+        for (Tile tile : layout.tiles) {
+            tile.updateColors(fieldType, maxIntensity, intensityScale, colorVersion);
+        }
+        repaint();
     }
 
+    /**
+     * Les tuiles calculées pour une échelle de la vue, indexées par leurs coordonnées
+     */
+    private static class TileSet {
+
+        /**
+         * La taille d'un pixel dans la simulation
+         */
+        private final double scaleX, scaleY;
+        private final HashMap<Long, Tile> tiles = new HashMap<>();
+
+        TileSet(double scaleX, double scaleY) {
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+        }
+    }
 
     /**
-     * Permet de calculer une couleur à partir de 2 intensités de champ, d'un type de champ et d'une intensité maximale
+     * Carré de TILE_SIZE x TILE_SIZE pixels de la carte qui contient les intensités des champs et leurs couleurs.
+     * Les intensités sont calculées par cellules carrées : les pixels d'une cellule sont interpolés à partir des valeurs à ses coins
+     */
+    private static class Tile {
+
+        private final int column, row;
+
+        /**
+         * Les intensités des champs électrique et magnétique de chaque pixel. Le pixel (x, y) se trouve à l'index y * TILE_SIZE + x
+         */
+        private final float[] electricIntensities = new float[TILE_SIZE * TILE_SIZE];
+        private final float[] magneticIntensities = new float[TILE_SIZE * TILE_SIZE];
+
+        /**
+         * Le niveau de résolution des intensités : les cellules qui restent à subdiviser ont 2^level pixels de côté.
+         * Une tuile qui n'est pas encore calculée a un niveau plus grand que COARSEST_LEVEL
+         */
+        private int level = COARSEST_LEVEL + 1;
+
+        /**
+         * Les intensités évaluées aux coins des cellules, ou NaN si elles n'ont pas été évaluées. Le coin (x, y) se trouve à l'index y * (TILE_SIZE + 1) + x.
+         * Les tableaux sont libérés lorsque la tuile est à pleine résolution
+         */
+        private float[] electricSamples, magneticSamples;
+
+        /**
+         * Les cellules qui restent à subdiviser, sous la forme rangée << 16 | colonne
+         */
+        private int[] pending;
+        private int pendingCount;
+
+        private long lastUsed;
+        private long colorVersion;
+
+        /**
+         * L'image affichée et l'image dans laquelle les prochaines couleurs sont écrites
+         */
+        private volatile BufferedImage image;
+        private BufferedImage backImage;
+
+        /**
+         * Constructeur
+         *
+         * @param column La colonne de la tuile
+         * @param row    La rangée de la tuile
+         */
+        Tile(int column, int row) {
+            this.column = column;
+            this.row = row;
+        }
+
+        /**
+         * Permet de créer les tableaux des valeurs aux coins avant le premier calcul de la tuile
+         */
+        void startSampling() {
+            electricSamples = new float[(TILE_SIZE + 1) * (TILE_SIZE + 1)];
+            magneticSamples = new float[(TILE_SIZE + 1) * (TILE_SIZE + 1)];
+            Arrays.fill(electricSamples, Float.NaN);
+            Arrays.fill(magneticSamples, Float.NaN);
+        }
+
+        /**
+         * Permet de libérer les tableaux utilisés pendant le calcul lorsque la tuile est à pleine résolution
+         */
+        void endSampling() {
+            electricSamples = null;
+            magneticSamples = null;
+            pending = null;
+        }
+
+        /**
+         * Permet de remplir les pixels d'une cellule par interpolation bilinéaire des valeurs à ses coins
+         *
+         * @param column La colonne du coin supérieur gauche de la cellule
+         * @param row    La rangée du coin supérieur gauche de la cellule
+         * @param size   La taille de la cellule, en pixels
+         */
+        void fillCell(int column, int row, int size) {
+            fillCell(electricSamples, electricIntensities, column, row, size);
+            fillCell(magneticSamples, magneticIntensities, column, row, size);
+        }
+
+        private static void fillCell(float[] samples, float[] intensities, int column, int row, int size) {
+            int index = row * (TILE_SIZE + 1) + column;
+            int below = index + size * (TILE_SIZE + 1);
+            float a = samples[index], b = samples[index + size], c = samples[below], d = samples[below + size];
+            if (a == b && a == c && a == d) {
+                for (int y = row; y < row + size; y++) {
+                    Arrays.fill(intensities, y * TILE_SIZE + column, y * TILE_SIZE + column + size, a);
+                }
+                return;
+            }
+            for (int j = 0; j < size; j++) {
+                float v = (float) j / size;
+                float left = a + (c - a) * v, right = b + (d - b) * v;
+                int offset = (row + j) * TILE_SIZE + column;
+                for (int i = 0; i < size; i++) {
+                    intensities[offset + i] = left + (right - left) * i / size;
+                }
+            }
+        }
+
+        /**
+         * Permet de convertir les intensités de la tuile en couleurs
+         *
+         * @param fieldType      Le type des champs à afficher
+         * @param maxIntensity   L'intensité maximale des champs
+         * @param intensityScale L'échelle des intensités
+         * @param colorVersion   Le numéro de version des couleurs
+         */
+        void updateColors(Field.FieldType fieldType, double maxIntensity, IntensityScale intensityScale, long colorVersion) {
+            BufferedImage target = backImage;
+            if (target == null) {
+                target = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+            }
+            int[] pixels = ((DataBufferInt) target.getRaster().getDataBuffer()).getData();
+            mapColors(electricIntensities, magneticIntensities, pixels, TILE_SIZE * TILE_SIZE, fieldType, maxIntensity, intensityScale);
+            backImage = image;
+            image = target;
+            this.colorVersion = colorVersion;
+        }
+
+        /**
+         * Permet de savoir si la tuile touche une des régions
+         *
+         * @param regions Les régions dans la simulation
+         * @param scaleX  La taille d'un pixel en x dans la simulation
+         * @param scaleY  La taille d'un pixel en y dans la simulation
+         * @return Vrai si un des pixels de la tuile peut se trouver dans une des régions
+         */
+        boolean intersects(ArrayList<Rectangle2D.Double> regions, double scaleX, double scaleY) {
+            double minX = (double) column * TILE_SIZE * scaleX;
+            double maxX = ((double) column * TILE_SIZE + TILE_SIZE) * scaleX;
+            double minY = -((double) row * TILE_SIZE + TILE_SIZE) * scaleY;
+            double maxY = -((double) row * TILE_SIZE) * scaleY;
+            for (Rectangle2D.Double region : regions) {
+                if (region.getMinX() <= maxX && region.getMaxX() >= minX && region.getMinY() <= maxY && region.getMaxY() >= minY) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Les tuiles visibles et la position de leur coin supérieur gauche dans la vue
+     */
+    private static class TileLayout {
+
+        private final Tile[] tiles;
+        private final int[] x, y;
+
+        TileLayout(Tile[] tiles, int[] x, int[] y) {
+            this.tiles = tiles;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    /**
+     * La version, les bornes et la zone d'influence d'un composant au moment où les tuiles ont été calculées
+     */
+    private static class ComponentState {
+
+        private final long version;
+        private final Rectangle2D.Double bounds, influenceBounds;
+
+        ComponentState(PhysicComponent component) {
+            version = component.getVersion();
+            bounds = copy(component.getBounds());
+            influenceBounds = copy(component.getInfluenceBounds());
+        }
+
+        private static Rectangle2D.Double copy(Rectangle2D.Double rectangle) {
+            return rectangle == null ? null : new Rectangle2D.Double(rectangle.getX(), rectangle.getY(), rectangle.getWidth(), rectangle.getHeight());
+        }
+    }
+
+    /**
+     * Tâche qui calcule les intensités des champs d'un groupe de tuiles à un niveau de résolution à l'aide d'un arbre quaternaire.
+     * Les champs sont évalués aux coins et au centre des cellules ; une cellule est subdivisée seulement si la valeur au centre diffère de plus que la tolérance
+     * de celle interpolée à partir des coins, si le bord de la zone d'influence d'un composant la traverse ou si elle touche un composant sans zone d'influence.
+     * Les pixels d'une cellule sont interpolés à partir de ses coins.
+     * Le groupe est séparé en deux tant qu'il contient plus d'une tuile
+     */
+    private static class FieldMapTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final PhysicsWorld physicsWorld;
+        private final double time;
+        private final double scaleX, scaleY;
+        private final Rectangle2D.Double[] boundaries, features;
+        private final double tolerance;
+        private final Tile[] tiles;
+        private final int from, to;
+        private final int level;
+
+        /**
+         * Constructeur
+         *
+         * @param physicsWorld Le monde physique
+         * @param time         Le temps
+         * @param scaleX       La taille d'un pixel en x dans la simulation
+         * @param scaleY       La taille d'un pixel en y dans la simulation
+         * @param boundaries   Les zones d'influence des composants, dont les bords sont des discontinuités des champs
+         * @param features     Les bornes des composants sans zone d'influence, près desquels les champs peuvent varier rapidement
+         * @param tolerance    La différence relative maximale entre les coins d'une cellule uniforme
+         * @param tiles        Les tuiles à calculer
+         * @param from         L'index de la première tuile
+         * @param to           L'index qui suit la dernière tuile
+         * @param level        Le niveau de résolution à atteindre
+         */
+        FieldMapTask(PhysicsWorld physicsWorld, double time, double scaleX, double scaleY, Rectangle2D.Double[] boundaries, Rectangle2D.Double[] features,
+                     double tolerance, Tile[] tiles, int from, int to, int level) {
+            this.physicsWorld = physicsWorld;
+            this.time = time;
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+            this.boundaries = boundaries;
+            this.features = features;
+            this.tolerance = tolerance;
+            this.tiles = tiles;
+            this.from = from;
+            this.to = to;
+            this.level = level;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                computeTiles();
+            }
+            else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new FieldMapTask(physicsWorld, time, scaleX, scaleY, boundaries, features, tolerance, tiles, from, middle, level),
+                        new FieldMapTask(physicsWorld, time, scaleX, scaleY, boundaries, features, tolerance, tiles, middle, to, level));
+            }
+        }
+
+        /**
+         * Permet de calculer les intensités des tuiles de la tâche sur le fil courant.
+         * Une nouvelle tuile est séparée en cellules de 2^COARSEST_LEVEL pixels ; sinon, les cellules qui restent à subdiviser sont séparées en quatre
+         */
+        void computeTiles() {
+            double[] field = new double[3];
+            ArrayList<Rectangle2D.Double> tileBoundaries = new ArrayList<>();
+            ArrayList<Rectangle2D.Double> tileFeatures = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                Tile tile = tiles[i];
+                double tileMinX = (double) tile.column * TILE_SIZE * scaleX;
+                double tileMaxY = -(double) tile.row * TILE_SIZE * scaleY;
+                double tileMaxX = tileMinX + TILE_SIZE * scaleX, tileMinY = tileMaxY - TILE_SIZE * scaleY;
+                tileBoundaries.clear();
+                for (Rectangle2D.Double boundary : boundaries) {
+                    if (crossesBoundary(boundary, tileMinX, tileMinY, tileMaxX, tileMaxY)) {
+                        tileBoundaries.add(boundary);
+                    }
+                }
+                tileFeatures.clear();
+                for (Rectangle2D.Double feature : features) {
+                    if (touches(feature, tileMinX, tileMinY, tileMaxX, tileMaxY)) {
+                        tileFeatures.add(feature);
+                    }
+                }
+
+                int[] cells;
+                int cellCount = 0;
+                int size = 1 << level;
+                if (tile.level > COARSEST_LEVEL) {
+                    tile.startSampling();
+                    int count = TILE_SIZE / size;
+                    cells = new int[count * count];
+                    for (int row = 0; row < TILE_SIZE; row += size) {
+                        for (int column = 0; column < TILE_SIZE; column += size) {
+                            cells[cellCount++] = row << 16 | column;
+                        }
+                    }
+                }
+                else {
+                    /* Chaque cellule à subdiviser est remplacée par ses quatre quarts */
+                    cells = new int[tile.pendingCount * 4];
+                    for (int k = 0; k < tile.pendingCount; k++) {
+                        int row = tile.pending[k] >>> 16, column = tile.pending[k] & 0xFFFF;
+                        cells[cellCount++] = row << 16 | column;
+                        cells[cellCount++] = row << 16 | (column + size);
+                        cells[cellCount++] = (row + size) << 16 | column;
+                        cells[cellCount++] = (row + size) << 16 | (column + size);
+                    }
+                }
+
+                int pendingCount = 0;
+                int[] pending = new int[cellCount];
+                for (int k = 0; k < cellCount; k++) {
+                    int row = cells[k] >>> 16, column = cells[k] & 0xFFFF;
+                    sample(tile, column, row, field);
+                    sample(tile, column + size, row, field);
+                    sample(tile, column, row + size, field);
+                    sample(tile, column + size, row + size, field);
+                    tile.fillCell(column, row, size);
+                    if (size > 1) {
+                        sample(tile, column + size / 2, row + size / 2, field);
+                        if (!isUniform(tile, column, row, size, tileBoundaries, tileFeatures, tileMinX, tileMaxY)) {
+                            pending[pendingCount++] = cells[k];
+                        }
+                    }
+                }
+                tile.pending = pending;
+                tile.pendingCount = pendingCount;
+                if (pendingCount == 0) {
+                    tile.level = 0;
+                    tile.endSampling();
+                }
+                else {
+                    tile.level = level;
+                }
+            }
+        }
+
+        /**
+         * Permet d'évaluer les champs au coin (column, row) de la tuile s'ils n'ont pas déjà été évalués
+         *
+         * @param tile   La tuile
+         * @param column La colonne du coin, entre 0 et TILE_SIZE
+         * @param row    La rangée du coin, entre 0 et TILE_SIZE
+         * @param field  Le tableau temporaire
+         */
+        private void sample(Tile tile, int column, int row, double[] field) {
+            int index = row * (TILE_SIZE + 1) + column;
+            if (!Float.isNaN(tile.electricSamples[index])) {
+                return;
+            }
+            double x = ((double) tile.column * TILE_SIZE + column) * scaleX;
+            double y = -((double) tile.row * TILE_SIZE + row) * scaleY;
+            physicsWorld.getElectricField(x, y, 0.0, time, null, field);
+            tile.electricSamples[index] = (float) Math.sqrt(field[0] * field[0] + field[1] * field[1] + field[2] * field[2]);
+            physicsWorld.getMagneticField(x, y, 0.0, time, null, field);
+            tile.magneticSamples[index] = (float) Math.sqrt(field[0] * field[0] + field[1] * field[1] + field[2] * field[2]);
+        }
+
+        /**
+         * Permet de savoir si une cellule peut être remplie à partir de ses coins
+         *
+         * @param tile       La tuile
+         * @param column     La colonne du coin supérieur gauche de la cellule
+         * @param row        La rangée du coin supérieur gauche de la cellule
+         * @param size       La taille de la cellule, en pixels
+         * @param boundaries Les zones d'influence dont le bord traverse la tuile
+         * @param features   Les bornes des composants sans zone d'influence qui touchent la tuile
+         * @param tileMinX   La position x du bord gauche de la tuile dans la simulation
+         * @param tileMaxY   La position y du bord supérieur de la tuile dans la simulation
+         * @return Vrai si la cellule est uniforme
+         */
+        private boolean isUniform(Tile tile, int column, int row, int size, ArrayList<Rectangle2D.Double> boundaries, ArrayList<Rectangle2D.Double> features,
+                                  double tileMinX, double tileMaxY) {
+            int index = row * (TILE_SIZE + 1) + column;
+            int below = index + size * (TILE_SIZE + 1);
+            if (!isUniform(tile.electricSamples, index, below, size) || !isUniform(tile.magneticSamples, index, below, size)) {
+                return false;
+            }
+            double minX = tileMinX + column * scaleX, maxX = tileMinX + (column + size) * scaleX;
+            double maxY = tileMaxY - row * scaleY, minY = tileMaxY - (row + size) * scaleY;
+            for (Rectangle2D.Double boundary : boundaries) {
+                if (crossesBoundary(boundary, minX, minY, maxX, maxY)) {
+                    return false;
+                }
+            }
+            for (Rectangle2D.Double feature : features) {
+                if (touches(feature, minX, minY, maxX, maxY)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Permet de savoir si la valeur au centre d'une cellule diffère de moins que la tolérance de la valeur interpolée à partir de ses quatre coins
+         *
+         * @param samples Les valeurs aux coins de la tuile
+         * @param index   L'index du coin supérieur gauche
+         * @param below   L'index du coin inférieur gauche
+         * @param size    La taille de la cellule, en pixels
+         * @return Vrai si les valeurs sont uniformes
+         */
+        private boolean isUniform(float[] samples, int index, int below, int size) {
+            float a = samples[index], b = samples[index + size], c = samples[below], d = samples[below + size];
+            float center = samples[(index + below) / 2 + size / 2];
+            float max = Math.max(Math.max(Math.max(a, b), Math.max(c, d)), center);
+            return Math.abs(center - (a + b + c + d) / 4) <= tolerance * max;
+        }
+
+        /**
+         * Permet de savoir si le bord d'un rectangle peut passer dans la zone [minX, maxX] x [minY, maxY],
+         * c'est-à-dire si le rectangle touche la zone sans la contenir entièrement
+         *
+         * @param rectangle Le rectangle
+         * @param minX      Le bord gauche de la zone
+         * @param minY      Le bord inférieur de la zone
+         * @param maxX      Le bord droit de la zone
+         * @param maxY      Le bord supérieur de la zone
+         * @return Vrai si le bord du rectangle peut traverser la zone
+         */
+        private static boolean crossesBoundary(Rectangle2D.Double rectangle, double minX, double minY, double maxX, double maxY) {
+            boolean contains = rectangle.getMinX() < minX && rectangle.getMaxX() > maxX && rectangle.getMinY() < minY && rectangle.getMaxY() > maxY;
+            return touches(rectangle, minX, minY, maxX, maxY) && !contains;
+        }
+
+        /**
+         * Permet de savoir si un rectangle touche la zone [minX, maxX] x [minY, maxY]
+         *
+         * @param rectangle Le rectangle
+         * @param minX      Le bord gauche de la zone
+         * @param minY      Le bord inférieur de la zone
+         * @param maxX      Le bord droit de la zone
+         * @param maxY      Le bord supérieur de la zone
+         * @return Vrai si le rectangle touche la zone
+         */
+        private static boolean touches(Rectangle2D.Double rectangle, double minX, double minY, double maxX, double maxY) {
+            return rectangle.getMinX() <= maxX && rectangle.getMaxX() >= minX && rectangle.getMinY() <= maxY && rectangle.getMaxY() >= minY;
+        }
+    }
+
+    /* ------------------Méthodes Statiques------------------- */
+
+    /**
+     * Permet de construire la table des couleurs utilisée pour un seul champ.
+     * L'entrée 0 correspond à une intensité nulle (rouge) et la dernière entrée correspond à l'intensité maximale (bleu)
+     *
+     * @return La table des couleurs ARGB
+     */
+    private static int[] createHueTable() {
+        int[] table = new int[TABLE_SIZE];
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            /* Pour une valeur de 1.f, on désire avoir la couleur bleue qui correspond à une valeur de 2/3 hue */
+            float hue = (float) i / (TABLE_SIZE - 1) * (2.f / 3.f);
+            table[i] = Color.HSBtoRGB(hue, 1.f, 1.f);
+        }
+        return table;
+    }
+
+    /**
+     * Permet de construire la table de la luminosité d'une composante de couleur, entre 0 et 255
      *
-     * @param intensities  Les intensités de champ
-     * @param fieldType    Le type de champ
-     * @param maxIntensity L'intensité maximale du champ
-     * @return La couleur
+     * @return La table des luminosités
      */
-    public static Color calculateColor(Double[] intensities, Field.FieldType fieldType, double maxIntensity) {
-        Color color = new Color(0, 0, 0);
+    private static int[] createChannelTable() {
+        int[] table = new int[TABLE_SIZE];
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            table[i] = (int) ((float) i / (TABLE_SIZE - 1) * 255 + 0.5f);
+        }
+        return table;
+    }
+
+    /**
+     * Permet de convertir des intensités de champ en couleurs ARGB à l'aide des tables de couleurs.
+     * Si le type de champ est 'BOTH', le champ électrique donne la composante rouge et le champ magnétique la composante bleue
+     *
+     * @param electricIntensities Les intensités du champ électrique
+     * @param magneticIntensities Les intensités du champ magnétique
+     * @param pixels              Le tableau dans lequel les couleurs sont écrites
+     * @param count               Le nombre de pixels
+     * @param fieldType           Le type des champs à afficher
+     * @param maxIntensity        L'intensité maximale des champs
+     * @param intensityScale      L'échelle des intensités
+     */
+    public static void mapColors(float[] electricIntensities, float[] magneticIntensities, int[] pixels, int count,
+                                 Field.FieldType fieldType, double maxIntensity, IntensityScale intensityScale) {
         switch (fieldType) {
             case ELECTRIC:
-                color = fieldIntensityToColor(intensities[0], maxIntensity);
+                for (int i = 0; i < count; i++) {
+                    pixels[i] = HUE_TABLE[tableIndex(electricIntensities[i], maxIntensity, intensityScale)];
+                }
                 break;
             case MAGNETIC:
-                color = fieldIntensityToColor(intensities[1], maxIntensity);
+                for (int i = 0; i < count; i++) {
+                    pixels[i] = HUE_TABLE[tableIndex(magneticIntensities[i], maxIntensity, intensityScale)];
+                }
                 break;
             case BOTH:
-                color = fieldIntensityToColor(intensities, maxIntensity);
+                for (int i = 0; i < count; i++) {
+                    int red = CHANNEL_TABLE[tableIndex(electricIntensities[i], maxIntensity, intensityScale)];
+                    int blue = CHANNEL_TABLE[tableIndex(magneticIntensities[i], maxIntensity, intensityScale)];
+                    pixels[i] = 0xFF000000 | red << 16 | blue;
+                }
                 break;
         }
-        return color;
     }
 
     /**
-     * Permet de calculer les champs électriques et magnétiques au point 'point' en coordonnées de la simulation
+     * Permet d'obtenir l'entrée des tables de couleurs qui correspond à une intensité
      *
-     * @param point        Le point en coordonnées de la simulation
-     * @param physicsWorld Le monde physique dans lequel il faut calculer les champs
-     * @param time Le temps
-     * @return un tableau contenant les valeurs des champs. La première valeur correspond à l'intensité du champ électrique. La seconde correspond à l'intensité du champ magnétique
+     * @param intensity      L'intensité du champ
+     * @param maxIntensity   L'intensité maximale, qui correspond à la dernière entrée
+     * @param intensityScale L'échelle des intensités
+     * @return L'index dans les tables de couleurs
      */
-    public static Double[] getFieldValueForPoint(SVector3d point, PhysicsWorld physicsWorld, double time) {
-        Double[] field = new Double[2];
-        field[0] = physicsWorld.getElectricField(point, time).modulus();
-        field[1] = physicsWorld.getMagneticField(point, time).modulus();
-        return field;
+    public static int tableIndex(double intensity, double maxIntensity, IntensityScale intensityScale) {
+        double value = intensity / maxIntensity;
+        if (intensityScale == IntensityScale.LOGARITHMIC) {
+            value = 1.0 + Math.log10(value) / LOG_DECADES;
+        }
+        if (!(value > 0.0)) {
+            return 0;
+        }
+        if (value >= 1.0) {
+            return TABLE_SIZE - 1;
+        }
+        return (int) (value * (TABLE_SIZE - 1) + 0.5);
     }
 
     /* ------------------Méthodes "Override"------------------- */
@@ -199,7 +1053,13 @@ public class FieldMapView extends View {
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
         Graphics2D g2d = (Graphics2D) g;
-        g2d.drawImage(image, 0, 0, null);
+        TileLayout layout = this.layout;
+        for (int i = 0; i < layout.tiles.length; i++) {
+            BufferedImage image = layout.tiles[i].image;
+            if (image != null) {
+                g2d.drawImage(image, layout.x[i], layout.y[i], null);
+            }
+        }
     }
 
 
@@ -223,6 +1083,43 @@ public class FieldMapView extends View {
         this.fieldType = fieldType;
     }
 
+    /**
+     * Permet d'obtenir l'échelle des intensités
+     *
+     * @return L'échelle des intensités
+     */
+    public IntensityScale getIntensityScale() {
+        return intensityScale;
+    }
+
+    /**
+     * Permet de définir l'échelle des intensités
+     *
+     * @param intensityScale La nouvelle échelle des intensités
+     */
+    public void setIntensityScale(IntensityScale intensityScale) {
+        this.intensityScale = intensityScale;
+    }
+
+    /**
+     * Permet d'obtenir la tolérance de l'échantillonnage adaptatif
+     *
+     * @return La différence relative maximale entre les coins d'une cellule uniforme
+     */
+    public double getSamplingTolerance() {
+        return samplingTolerance;
+    }
+
+    /**
+     * Permet de définir la tolérance de l'échantillonnage adaptatif. Une tolérance nulle subdivise toute cellule dont les coins ne sont pas égaux.
+     * Les tuiles déjà calculées ne sont pas recalculées
+     *
+     * @param samplingTolerance La différence relative maximale entre les coins d'une cellule uniforme
+     */
+    public void setSamplingTolerance(double samplingTolerance) {
+        this.samplingTolerance = Math.max(0.0, samplingTolerance);
+    }
+
     /**
      * Permet d'obtenir l'intensité maximale
      *
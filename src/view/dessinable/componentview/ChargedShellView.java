@@ -60,8 +60,7 @@ public class ChargedShellView extends ComponentView {
             @Override
             public void inputChanged(Object input) {
                 super.inputChanged(input);
-                getChargedShell().setChargeDensity(chargeInput.getNumber());
-                update();
+                applyChange(() -> getChargedShell().setChargeDensity(chargeInput.getNumber()));
             }
         });
 
@@ -71,8 +70,7 @@ public class ChargedShellView extends ComponentView {
             @Override
             public void inputChanged(Object input) {
                 super.inputChanged(input);
-                getChargedShell().setRadius(radiusInput.getNumber());
-                update();
+                applyChange(() -> getChargedShell().setRadius(radiusInput.getNumber()));
             }
         });
 
@@ -1,7 +1,9 @@
 package view.dessinable.componentview;
 
+import controller.ViewController;
 import physics.component.*;
 import physics.component.field.Field;
+import view.View;
 import view.dessinable.DrawableView;
 
 import javax.swing.*;
@@ -110,6 +112,37 @@ public abstract class ComponentView extends DrawableView {
         removeChild(containsViewForCompoment(component));
     }
 
+    /**
+     * Permet de modifier le composant physique puis de mettre la vue à jour.
+     * La modification passe par le contrôleur de la vue qui contient le composant afin de ne pas modifier le monde pendant un pas de la simulation
+     *
+     * @param change La modification
+     */
+    public void applyChange(Runnable change) {
+        ViewController viewController = getViewController();
+        if (viewController != null) {
+            viewController.execute(change);
+        }
+        else {
+            change.run();
+        }
+        update();
+    }
+
+    /**
+     * Permet de trouver le contrôleur de la vue (View) qui contient la vue du composant
+     *
+     * @return Le contrôleur, ou null si la vue n'est pas affichée
+     */
+    private ViewController getViewController() {
+        for (DrawableView view = this; view != null; view = view.getParent()) {
+            if (view.getPanel() instanceof View) {
+                return ((View) view.getPanel()).getViewController();
+            }
+        }
+        return null;
+    }
+
 
 
 
@@ -85,8 +85,7 @@ public class CyclotronView extends ImageView {
             @Override
             public void inputChanged(Object input) {
                 super.inputChanged(input);
-                cyclotron.setFinalSpeed(inputFinalSpeed.getNumber());
-                update();
+                applyChange(() -> cyclotron.setFinalSpeed(inputFinalSpeed.getNumber()));
             }
         });
 
@@ -97,8 +96,7 @@ public class CyclotronView extends ImageView {
             @Override
             public void inputChanged(Object input) {
                 super.inputChanged(input);
-                cyclotron.setDirection(SVector3d.vectorFromSizeAndAngle(1.0, Math.toRadians(inputOrientation.getNumber())));
-                update();
+                applyChange(() -> cyclotron.setDirection(SVector3d.vectorFromSizeAndAngle(1.0, Math.toRadians(inputOrientation.getNumber()))));
             }
         });
         ImageButton helpButton = new ImageButton(new Dimension(20, 20));
@@ -68,8 +68,7 @@ public class FieldView extends ComponentView {
                 @Override
                 public void inputChanged(Object input) {
                     super.inputChanged(input);
-                    getField().setFieldDirection(SVector3d.vectorFromSizeAndAngle(1.0, Math.toRadians(angleInput.getNumber())));
-                    update();
+                    applyChange(() -> getField().setFieldDirection(SVector3d.vectorFromSizeAndAngle(1.0, Math.toRadians(angleInput.getNumber()))));
                 }
             });
             return angleInput;
@@ -98,16 +97,14 @@ public class FieldView extends ComponentView {
             rdbtnZPos.addActionListener(new ActionListener() {
                 @Override
                 public void actionPerformed(ActionEvent e) {
-                    getField().setFieldDirection(new SVector3d(0, 0, 1.0));
-                    update();
+                    applyChange(() -> getField().setFieldDirection(new SVector3d(0, 0, 1.0)));
                 }
             });
 
             rdbtnZNeg.addActionListener(new ActionListener() {
                 @Override
                 public void actionPerformed(ActionEvent e) {
-                    getField().setFieldDirection(new SVector3d(0, 0, -1.0));
-                    update();
+                    applyChange(() -> getField().setFieldDirection(new SVector3d(0, 0, -1.0)));
                 }
             });
 
@@ -187,8 +184,7 @@ public class FieldView extends ComponentView {
             @Override
             public void inputChanged(Object input) {
                 super.inputChanged(input);
-                getField().setIntensity(intensityInput.getNumber());
-                update();
+                applyChange(() -> getField().setIntensity(intensityInput.getNumber()));
             }
 
         });
@@ -201,16 +197,14 @@ public class FieldView extends ComponentView {
             @Override
             public void inputChanged(Object input) {
                 super.inputChanged(input);
-                getField().setWidth(widthInput.getNumber());
-                update();
+                applyChange(() -> getField().setWidth(widthInput.getNumber()));
             }
         });
         heightInput.addInputListener(new InputAdapter() {
             @Override
             public void inputChanged(Object input) {
                 super.inputChanged(input);
-                getField().setHeight(heightInput.getNumber());
-                update();
+                applyChange(() -> getField().setHeight(heightInput.getNumber()));
             }
         });
 
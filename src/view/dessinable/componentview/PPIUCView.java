@@ -83,8 +83,7 @@ public class PPIUCView extends ComponentView {
             @Override
             public void inputChanged(Object input) {
                 super.inputChanged(input);
-                ppiuc.setChargeDensity(chargeDensityInput.getNumber());
-                update();
+                applyChange(() -> ppiuc.setChargeDensity(chargeDensityInput.getNumber()));
             }
         });
 
@@ -94,8 +93,7 @@ public class PPIUCView extends ComponentView {
             @Override
             public void inputChanged(Object input) {
                 super.inputChanged(input);
-                ppiuc.setNormal(SVector3d.vectorFromSizeAndAngle(1.0, Math.toRadians(normalInput.getNumber())));
-                update();
+                applyChange(() -> ppiuc.setNormal(SVector3d.vectorFromSizeAndAngle(1.0, Math.toRadians(normalInput.getNumber()))));
 
             }
         });
@@ -105,8 +103,7 @@ public class PPIUCView extends ComponentView {
             @Override
             public void inputChanged(Object input) {
                 super.inputChanged(input);
-                ppiuc.setHeight(inputHeight.getNumber());
-                update();
+                applyChange(() -> ppiuc.setHeight(inputHeight.getNumber()));
             }
         });
 
@@ -115,8 +112,7 @@ public class PPIUCView extends ComponentView {
             @Override
             public void inputChanged(Object input) {
                 super.inputChanged(input);
-                ppiuc.setInfinite(infiniteInpute.getBoolean());
-                update();
+                applyChange(() -> ppiuc.setInfinite(infiniteInpute.getBoolean()));
             }
         });
 
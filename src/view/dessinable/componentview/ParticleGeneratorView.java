@@ -56,8 +56,7 @@ public class ParticleGeneratorView extends ImageView {
             @Override
             public void inputChanged(Object input) {
                 super.inputChanged(input);
-                getParticleGenerator().setPeriod(inputPeriod.getNumber());
-                update();
+                applyChange(() -> getParticleGenerator().setPeriod(inputPeriod.getNumber()));
             }
         });
 
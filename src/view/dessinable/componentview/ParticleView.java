@@ -4,6 +4,7 @@ import aaplication.AppUtil;
 import inputs.*;
 import math.MathUtil;
 import math.SVector3d;
+import physics.WorldSnapshot;
 import physics.component.Particle;
 
 import javax.swing.*;
@@ -42,11 +43,30 @@ public class ParticleView extends ComponentView {
      */
     @Override
     public Shape getShape() {
-        SVector3d position = getParticle().getPosition();
+        SVector3d position = getDrawnPosition();
+        if (position == null) {
+            return null;
+        }
 
         return new Ellipse2D.Double(position.getX() - DEFAULT_VIEW_DIAMETER / 2, position.getY() - DEFAULT_VIEW_DIAMETER / 2, DEFAULT_VIEW_SIZE.getX(), DEFAULT_VIEW_SIZE.getY());
     }
 
+    /**
+     * Permet d'obtenir la position à laquelle la particule doit être dessinée.
+     * Si la vue fait partie d'un monde déjà dessiné, la position provient de l'image publiée par la simulation
+     *
+     * @return La position, ou null si la particule ne fait pas partie de l'image
+     */
+    private SVector3d getDrawnPosition() {
+        if (getParent() instanceof WorldView) {
+            WorldSnapshot snapshot = ((WorldView) getParent()).getSnapshot();
+            if (snapshot != null) {
+                return snapshot.getPosition(getParticle());
+            }
+        }
+        return getParticle().getPosition();
+    }
+
     /**
      * Permet d'obtenir la particule associée à la ParticleView
      *
@@ -76,8 +96,7 @@ public class ParticleView extends ComponentView {
             @Override
             public void inputChanged(Object input) {
                 super.inputChanged(input);
-                getParticle().setMass(massInput.getNumber());
-                update();
+                applyChange(() -> getParticle().setMass(massInput.getNumber()));
 
             }
         });
@@ -87,8 +106,7 @@ public class ParticleView extends ComponentView {
             @Override
             public void inputChanged(Object input) {
                 super.inputChanged(input);
-                getParticle().setCharge(chargeInput.getNumber());
-                update();
+                applyChange(() -> getParticle().setCharge(chargeInput.getNumber()));
             }
         });
 
@@ -97,8 +115,7 @@ public class ParticleView extends ComponentView {
             @Override
             public void inputChanged(Object input) {
                 super.inputChanged(input);
-                getParticle().setMoveable(moveableInput.getBoolean());
-                update();
+                applyChange(() -> getParticle().setMoveable(moveableInput.getBoolean()));
 
             }
         });
@@ -108,8 +125,7 @@ public class ParticleView extends ComponentView {
             @Override
             public void inputChanged(Object input) {
                 super.inputChanged(input);
-                getParticle().setCreatesField(createsFieldInput.getBoolean());
-                update();
+                applyChange(() -> getParticle().setCreatesField(createsFieldInput.getBoolean()));
             }
         });
 
@@ -122,8 +138,7 @@ public class ParticleView extends ComponentView {
             public void inputChanged(Object input) {
                 super.inputChanged(input);
                 double angle = Math.toRadians(speedAngleInput.getNumber());
-                getParticle().setSpeed(SVector3d.vectorFromSizeAndAngle(speedModulusInput.getNumber(), angle));
-                update();
+                applyChange(() -> getParticle().setSpeed(SVector3d.vectorFromSizeAndAngle(speedModulusInput.getNumber(), angle)));
             }
         });
 
@@ -131,8 +146,7 @@ public class ParticleView extends ComponentView {
             @Override
             public void inputChanged(Object input) {
                 super.inputChanged(input);
-                getParticle().setSpeed(SVector3d.vectorFromSizeAndAngle(speedModulusInput.getNumber(), Math.toRadians(speedAngleInput.getNumber())));
-                update();
+                applyChange(() -> getParticle().setSpeed(SVector3d.vectorFromSizeAndAngle(speedModulusInput.getNumber(), Math.toRadians(speedAngleInput.getNumber()))));
             }
         });
 
@@ -55,7 +55,7 @@ public class SelecteurDeVitesseView extends ImageView {
             @Override
             public void inputChanged(Object input) {
                 super.inputChanged(input);
-                selecteurDeVitesse.setSelectionSpeed(inputSelectionSpeed.getNumber());
+                applyChange(() -> selecteurDeVitesse.setSelectionSpeed(inputSelectionSpeed.getNumber()));
             }
         });
 
@@ -68,9 +68,8 @@ public class TRIUCView extends ComponentView {
             @Override
             public void inputChanged(Object input) {
                 super.inputChanged(input);
-                triuc.setOrientation(SVector3d.vectorFromSizeAndAngle(1.0, Math.toRadians(orientationInput.getNumber())));
                 rdbtnZ0.setSelected(true);
-                update();
+                applyChange(() -> triuc.setOrientation(SVector3d.vectorFromSizeAndAngle(1.0, Math.toRadians(orientationInput.getNumber()))));
 
             }
         });
@@ -100,26 +99,23 @@ public class TRIUCView extends ComponentView {
         rdbtnZPos.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                triuc.setOrientation(new SVector3d(0, 0, 1.0));
                 orientationInput.setEnabled(false);
-                update();
+                applyChange(() -> triuc.setOrientation(new SVector3d(0, 0, 1.0)));
             }
         });
 
         rdbtnZNeg.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                triuc.setOrientation(new SVector3d(0, 0, -1.0));
                 orientationInput.setEnabled(false);
-                update();
+                applyChange(() -> triuc.setOrientation(new SVector3d(0, 0, -1.0)));
             }
         });
         rdbtnZ0.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                triuc.setOrientation(SVector3d.vectorFromSizeAndAngle(1.0, Math.toRadians(orientationInput.getNumber())));
                 orientationInput.setEnabled(true);
-                update();
+                applyChange(() -> triuc.setOrientation(SVector3d.vectorFromSizeAndAngle(1.0, Math.toRadians(orientationInput.getNumber()))));
             }
         });
         return panelOrientationButtons;
@@ -202,8 +198,7 @@ public class TRIUCView extends ComponentView {
             @Override
             public void inputChanged(Object input) {
                 super.inputChanged(input);
-                triuc.setChargeDensity(chargeDensityInput.getNumber());
-                update();
+                applyChange(() -> triuc.setChargeDensity(chargeDensityInput.getNumber()));
             }
         });
 
@@ -212,8 +207,7 @@ public class TRIUCView extends ComponentView {
             @Override
             public void inputChanged(Object input) {
                 super.inputChanged(input);
-                triuc.setWidth(inputWidth.getNumber());
-                update();
+                applyChange(() -> triuc.setWidth(inputWidth.getNumber()));
             }
         });
 
@@ -222,8 +216,7 @@ public class TRIUCView extends ComponentView {
             @Override
             public void inputChanged(Object input) {
                 super.inputChanged(input);
-                triuc.setInfinite(infiniteInpute.getBoolean());
-                update();
+                applyChange(() -> triuc.setInfinite(infiniteInpute.getBoolean()));
             }
         });
 
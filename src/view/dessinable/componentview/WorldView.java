@@ -2,12 +2,14 @@ package view.dessinable.componentview;
 
 
 import physics.PhysicsWorld;
+import physics.WorldSnapshot;
 import physics.component.Particle;
 import physics.component.ParticleGenerator;
 import physics.component.PhysicComponent;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.geom.AffineTransform;
 
 /**
  * Classe de vue représentant un monde
@@ -15,6 +17,11 @@ import java.awt.*;
  */
 public class WorldView extends ComponentView {
 
+    /**
+     * La dernière image des particules utilisée pour dessiner le monde
+     */
+    private WorldSnapshot snapshot;
+
     /**
      * Permet de créer un nouveau WorldView avec un monde physique
      *
@@ -43,6 +50,26 @@ public class WorldView extends ComponentView {
     }
 
 
+    /**
+     * Permet de dessiner le monde. Les particules sont dessinées à partir de la dernière image publiée par la simulation
+     *
+     * @param g2d       Le Graphics2D
+     * @param transform La matrice de transformations
+     */
+    @Override
+    public void draw(Graphics2D g2d, AffineTransform transform) {
+        snapshot = ((PhysicsWorld) getPhysicComponent()).acquireSnapshot();
+        super.draw(g2d, transform);
+    }
+
+    /**
+     * Permet d'obtenir l'image des particules utilisée lors du dernier dessin
+     *
+     * @return L'image, ou null si le monde n'a pas encore été dessiné
+     */
+    public WorldSnapshot getSnapshot() {
+        return snapshot;
+    }
 
     /**
      * Permet d'obtenir la forme qui sera dessinée
@@ -31,6 +31,7 @@ import java.awt.event.*;
 import java.io.FileNotFoundException;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Fenêtre de création
@@ -88,6 +89,11 @@ public class EditorWindow extends JFrame {
     private SVector3d mouseDragPoint = new SVector3d();
     private SVector3d mouseDragPointUI = new SVector3d();
 
+    /**
+     * La dernière position de la souris où les champs doivent être calculés, ou null si aucun calcul n'est en attente
+     */
+    private final AtomicReference<SVector3d> fieldProbe = new AtomicReference<>();
+
     /**
      * Méthode qui crée la fenêtre.
      */
@@ -140,23 +146,37 @@ public class EditorWindow extends JFrame {
     }
 
     /**
-     * Événement lancé lorsque la souris est bougée. Il faut alors bougé le composant sélectionné dans la simulation
+     * Événement lancé lorsque la souris est bougée. Les champs à la position de la souris sont calculés par une commande du contrôleur,
+     * appliquée par le fil qui possède le monde entre deux pas, puisque les structures des champs ne peuvent pas être reconstruites pendant un pas.
+     * Une seule commande est en attente à la fois : elle calcule les champs à la dernière position de la souris
      *
      * @param point La position de la souris en coordonnées de la simulation
      */
     public void eventMouseMoved(SVector3d point) {
+        lblMousePosition.setText("Position de la souris (m): " + AppUtil.numberToString(point.getX()) + " : " + AppUtil.numberToString(point.getY()));
+        if (fieldProbe.getAndSet(point) == null) {
+            worldViewController.execute(this::probeFields);
+        }
+    }
+
+    /**
+     * Permet de calculer les champs à la dernière position de la souris et de les afficher. Doit être appliquée par le fil qui possède le monde
+     */
+    private void probeFields() {
+        SVector3d point = fieldProbe.getAndSet(null);
         PhysicsWorld physicsWorld = worldViewController.getPhysicsWorld();
+        physicsWorld.updateCaches();
 
         SVector3d electricField = physicsWorld.getElectricField(point, worldViewController.getTime());
 
         SVector3d magneticField = physicsWorld.getMagneticField(point, worldViewController.getTime());
 
-        lblElectricFieldValue.setText("Champ Électrique: " + AppUtil.numberToString((electricField).modulus()) + "N/C, angle: " + AppUtil.numberToString(MathUtil.toDegrees(electricField.angle())));
-        String magneticFieldDirection = ((magneticField.getZ() != 0.0) ? (magneticField.getZ() > 0 ? "+" : "-") : "--");
-
-        lblMagneticFieldValue.setText("Champ Magnétique: " + AppUtil.numberToString(magneticField.modulus()) + "T, Z: " + magneticFieldDirection);
-        lblMousePosition.setText("Position de la souris (m): " + AppUtil.numberToString(point.getX()) + " : " + AppUtil.numberToString(point.getY()));
+        SwingUtilities.invokeLater(() -> {
+            lblElectricFieldValue.setText("Champ Électrique: " + AppUtil.numberToString((electricField).modulus()) + "N/C, angle: " + AppUtil.numberToString(MathUtil.toDegrees(electricField.angle())));
+            String magneticFieldDirection = ((magneticField.getZ() != 0.0) ? (magneticField.getZ() > 0 ? "+" : "-") : "--");
 
+            lblMagneticFieldValue.setText("Champ Magnétique: " + AppUtil.numberToString(magneticField.modulus()) + "T, Z: " + magneticFieldDirection);
+        });
     }
 
     /**
@@ -166,7 +186,8 @@ public class EditorWindow extends JFrame {
      */
     public void eventMouseDragged(SVector3d point) {
         SVector3d deplacement = point.substract(mouseDragPoint);
-        getSelectedView().getPhysicComponent().moveBy(deplacement);
+        PhysicComponent physicComponent = getSelectedView().getPhysicComponent();
+        worldViewController.execute(() -> physicComponent.moveBy(deplacement));
         mouseDragPoint = point;
         repaint();
     }
@@ -208,7 +229,7 @@ public class EditorWindow extends JFrame {
         if (componentView != null) {
             lblSelectedComponentName.setText(componentView.getPhysicComponent().getName());
             PhysicComponent physicComponent = componentView.getPhysicComponent();
-            physicComponent.setInteractive(false);
+            worldViewController.execute(() -> physicComponent.setInteractive(false));
             componentView.setSelected(true);
         }
         else {
@@ -236,7 +257,8 @@ public class EditorWindow extends JFrame {
      */
     public void deselectComponent() {
         if (getSelectedView() != null) {
-            getSelectedView().getPhysicComponent().setInteractive(true);
+            PhysicComponent physicComponent = getSelectedView().getPhysicComponent();
+            worldViewController.execute(() -> physicComponent.setInteractive(true));
             getSelectedView().setSelected(false);
         }
         componentTreeView.clearSelection();
@@ -264,7 +286,8 @@ public class EditorWindow extends JFrame {
         worldViewController.addToWorld(view);
         SVector3d centerPosition = new SVector3d(simulationView.getWidth() / 2, simulationView.getHeight() / 2);
         centerPosition = simulationView.UIToSimulation(centerPosition);
-        view.getPhysicComponent().setPosition(centerPosition);
+        SVector3d position = centerPosition;
+        worldViewController.execute(() -> view.getPhysicComponent().setPosition(position));
         selectComponent(view);
         repaint();
     }
@@ -285,6 +308,16 @@ public class EditorWindow extends JFrame {
         repaint();
     }
 
+    /**
+     * Permet de changer l'algorithme utilisé par le monde physique
+     *
+     * @param algorithm L'algorithme
+     */
+    public void setAlgorithm(PhysicsWorld.Algorithm algorithm) {
+        PhysicsWorld physicsWorld = worldViewController.getPhysicsWorld();
+        worldViewController.execute(() -> physicsWorld.setAlgorithm(algorithm));
+    }
+
     /**
      * Permet de mettre à jour les boutons de l'interface.
      */
@@ -390,7 +423,7 @@ public class EditorWindow extends JFrame {
         physicsWorld.addPhysicsWorldListener(new PhysicsWorldListener() {
             @Override
             public void step(double delta_t) {
-                lblTime.setText("Temps (s): " + AppUtil.numberToString(worldViewController.getTime()));
+                /* Le temps est affiché à chaque mise à jour de la vue, et non à chaque pas */
             }
 
             @Override
@@ -412,7 +445,13 @@ public class EditorWindow extends JFrame {
     public void initSimulation() {
         panelContent.setLayout(new BorderLayout(0, 0));
 
-        worldViewController = new SimulationViewController();
+        worldViewController = new SimulationViewController() {
+            @Override
+            public void updateView() {
+                super.updateView();
+                lblTime.setText("Temps (s): " + AppUtil.numberToString(getTime()));
+            }
+        };
 
         SimulationView simulationView = new SimulationView(worldViewController);
         PhysicsWorld physicsWorld = new PhysicsWorld();//new Spectrometre();
@@ -887,7 +926,7 @@ public class EditorWindow extends JFrame {
             public void actionPerformed(ActionEvent e) {
                 deselectComponent();
 
-                FieldMapWindow fieldMapWindow = new FieldMapWindow(worldViewController.getPhysicsWorld());
+                FieldMapWindow fieldMapWindow = new FieldMapWindow(worldViewController.getPhysicsWorld(), worldViewController);
                 fieldMapWindow.setVisible(true);
                 fieldMapWindow.updateView();
             }
@@ -918,10 +957,10 @@ public class EditorWindow extends JFrame {
             @Override
             public void actionPerformed(ActionEvent e) {
                 if (rdbtnEuler.isSelected()) {
-                    worldViewController.getPhysicsWorld().setAlgorithm(PhysicsWorld.Algorithm.EULER);
+                    setAlgorithm(PhysicsWorld.Algorithm.EULER);
                 }
                 else {
-                    worldViewController.getPhysicsWorld().setAlgorithm(PhysicsWorld.Algorithm.RK4);
+                    setAlgorithm(PhysicsWorld.Algorithm.RK4);
                 }
             }
         });
@@ -929,10 +968,10 @@ public class EditorWindow extends JFrame {
             @Override
             public void actionPerformed(ActionEvent e) {
                 if (!rdbtnRK4.isSelected()) {
-                    worldViewController.getPhysicsWorld().setAlgorithm(PhysicsWorld.Algorithm.EULER);
+                    setAlgorithm(PhysicsWorld.Algorithm.EULER);
                 }
                 else {
-                    worldViewController.getPhysicsWorld().setAlgorithm(PhysicsWorld.Algorithm.RK4);
+                    setAlgorithm(PhysicsWorld.Algorithm.RK4);
                 }
             }
         });
@@ -2,6 +2,8 @@ package window;
 
 import aaplication.AppUtil;
 import controller.FieldMapViewController;
+import controller.ViewController;
+import inputs.BooleanInput;
 import inputs.ImageButton;
 import inputs.InputAdapter;
 import inputs.SpinnerNumberInput;
@@ -41,6 +43,7 @@ public class FieldMapWindow extends JFrame {
     private final JPanel panelRadioButtons = new JPanel();
     private CameraControlsView cameraControlsView;
     private SpinnerNumberInput maxIntensityInput;
+    private BooleanInput logarithmicScaleInput = new BooleanInput(false, "Échelle logarithmique: ");
     private SVector3d mouseDragPoint = new SVector3d();
 
     /**
@@ -49,6 +52,16 @@ public class FieldMapWindow extends JFrame {
      * @param physicsWorld Le monde physique
      */
     public FieldMapWindow(PhysicsWorld physicsWorld) {
+        this(physicsWorld, null);
+    }
+
+    /**
+     * Permet de créer une nouvelle fenêtre FieldMapWindow pour un monde simulé par un autre contrôleur
+     *
+     * @param physicsWorld         Le monde physique
+     * @param simulationController Le contrôleur qui simule le monde, ou null
+     */
+    public FieldMapWindow(PhysicsWorld physicsWorld, ViewController simulationController) {
         this.setBounds(100, 100, 792, 669);
         this.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         this.getContentPane().setLayout(new BoxLayout(this.getContentPane(), BoxLayout.X_AXIS));
@@ -91,7 +104,7 @@ public class FieldMapWindow extends JFrame {
         panelControls.add(lblMaxIntensity);
         lblMaxIntensity.setText("Intensité Maximale:");
 
-        viewController = new FieldMapViewController(physicsWorld);
+        viewController = new FieldMapViewController(physicsWorld, simulationController);
         FieldMapView fieldMapView = new FieldMapView(viewController);
 
         viewController.setView(fieldMapView);
@@ -104,6 +117,7 @@ public class FieldMapWindow extends JFrame {
         panelControls.add(maxIntensityInput);
 
         fieldMapView.setMaxIntensity(maxIntensityInput.getNumber());
+        panelControls.add(logarithmicScaleInput);
 
         fieldMapView.addMouseListener(new MouseAdapter() {
             @Override
@@ -214,6 +228,15 @@ public class FieldMapWindow extends JFrame {
                 viewController.updateColors();
             }
         });
+
+        logarithmicScaleInput.addInputListener(new InputAdapter() {
+            @Override
+            public void inputChanged(Object input) {
+                super.inputChanged(input);
+                viewController.setIntensityScale(logarithmicScaleInput.getBoolean() ? FieldMapView.IntensityScale.LOGARITHMIC : FieldMapView.IntensityScale.LINEAR);
+                viewController.updateColors();
+            }
+        });
     }
 
 
@@ -8,9 +8,11 @@ import inputs.InputAdapter;
 import inputs.SimulationControls;
 import inputs.SpinnerNumberInput;
 import math.SVector3d;
+import physics.BoundaryCrossing;
 import physics.SpectrometreListener;
 import physics.component.Deflecteur;
 import physics.component.Particle;
+import physics.component.PhysicComponent;
 import physics.component.SelecteurDeVitesse;
 import physics.component.Spectrometre;
 import physics.component.field.ElectricField;
@@ -46,6 +48,11 @@ public class SpectrometreWindow extends JFrame {
 	private AProposWindow popupAPropos;
 	private EditorWindow popupEditorWindow;
 
+	/**
+	 * Vrai si une particule a été tirée depuis le dernier reset. Modifié seulement par le fil de l'interface
+	 */
+	private boolean particleLaunched = false;
+
 	private SimulationControls controls;
 	private JButton btnParamtresAvancsDu;
 	private JMenu mnAffichage;
@@ -113,6 +120,17 @@ public class SpectrometreWindow extends JFrame {
     private SVector3d mouseDragPoint = new SVector3d();
 
 
+	/**
+	 * Méthode qui tire une particule du cyclotron si aucune particule n'a été tirée depuis le dernier reset.
+	 * Le monde physique n'est pas lu : il peut être en train d'être simulé
+	 */
+	private void launchParticle() {
+		if (!particleLaunched) {
+			particleLaunched = true;
+			worldViewController.addToWorld(ComponentView.generateView(spectrometre.generateParticle()));
+		}
+	}
+
 	/**
 	 * Méthode qui gère l'accès aux boutons
 	 * @param enable Si l'accès est autorisé
@@ -184,9 +202,7 @@ public class SpectrometreWindow extends JFrame {
 			 * Écouteur sur le bouton play
 			 */
 			public void actionPerformed(ActionEvent e) {
-				if (spectrometre.getStage() == Spectrometre.Stage.NONE) {
-					worldViewController.addToWorld(ComponentView.generateView(spectrometre.generateParticle()));
-				}
+				launchParticle();
 				setEnableInputs(false);
 			}
 		});
@@ -197,9 +213,7 @@ public class SpectrometreWindow extends JFrame {
 			 * Écouteur sur le bouton un pas
 			 */
 			public void actionPerformed(ActionEvent e) {
-				if (spectrometre.getStage() == Spectrometre.Stage.NONE) {
-					worldViewController.addToWorld(ComponentView.generateView(spectrometre.generateParticle()));
-				}
+				launchParticle();
 				setEnableInputs(false);
 			}
 		});
@@ -211,8 +225,8 @@ public class SpectrometreWindow extends JFrame {
 			public void actionPerformed(ActionEvent e) {
 				//debut
 				worldViewController.removeAllParticles();
+				particleLaunched = false;
 				setEnableInputs(true);
-				spectrometre.setStage(Spectrometre.Stage.NONE);
 				lblResFrequenceCyclotron.setText("--");
 				lblResVitesseEntreeSelecteur.setText("--");
 				lblResVitesseSelection.setText("--");
@@ -977,11 +991,19 @@ public class SpectrometreWindow extends JFrame {
 
 			}
 
+			@Override
+			/**
+			 * Un événement est levé lorsque la particule traverse le bord du sélecteur ou du déflecteur
+			 */
+			public void boundaryCrossed(Particle particle, PhysicComponent component, BoundaryCrossing crossing) {
+
+			}
+
 			@Override
 			/**
 			 * Un événement est levé lorsque la masse est détectée
 			 */
-			public void massDetected(double diameter, double detectedMass) {
+			public void massDetected(Particle particle, double diameter, double detectedMass) {
 				lblResDiametreTrajectoire.setText(AppUtil.numberToString(diameter) + "m");
 				lblResMasseDetectee.setText(AppUtil.numberToString(detectedMass) + "kg");
 				worldViewController.pause();
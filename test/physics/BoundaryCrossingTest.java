@@ -0,0 +1,84 @@
+package physics;
+
+import math.SVector3d;
+import org.junit.Test;
+
+import java.awt.geom.Rectangle2D;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests de la précision de la bissection de BoundaryCrossing.
+ * La courbe d'Hermite cubique reproduit exactement une trajectoire uniformément accélérée, le point de traversée doit donc être exact
+ *
+ * @author Simon Tran
+ */
+public class BoundaryCrossingTest {
+
+    private static final Rectangle2D BOUNDS = new Rectangle2D.Double(1.0, -1.0, 2.0, 2.0);
+
+    /**
+     * Permet de calculer l'état d'une particule uniformément accélérée selon x au début et à la fin d'un pas
+     *
+     * @param x0      La position en x au début du pas
+     * @param vx0     La vitesse en x au début du pas
+     * @param ax      L'accélération en x
+     * @param y       La position en y, constante
+     * @param delta_t La différence de temps du pas
+     * @return L'état, de taille BoundaryCrossing.STATE_SIZE
+     */
+    private static double[] acceleratedState(double x0, double vx0, double ax, double y, double delta_t) {
+        return new double[]{x0, y, 0.0, vx0, 0.0, 0.0,
+                x0 + vx0 * delta_t + ax * delta_t * delta_t / 2, y, 0.0, vx0 + ax * delta_t, 0.0, 0.0};
+    }
+
+    @Test
+    public void uniformMotionCrossingIsExact() {
+        /* La particule entre dans le rectangle à x = 1 au temps 10 + 0.25 */
+        BoundaryCrossing crossing = BoundaryCrossing.find(BOUNDS, acceleratedState(0.5, 2.0, 0.0, 0.0, 1.0), 10.0, 1.0);
+        assertNotNull(crossing);
+        assertTrue(crossing.isEntering());
+        assertEquals(10.25, crossing.getTime(), 1e-12);
+        assertEquals(1.0, crossing.getPosition().getX(), 1e-12);
+        assertEquals(2.0, crossing.getSpeed().getX(), 1e-12);
+    }
+
+    @Test
+    public void acceleratedCrossingIsExact() {
+        /* x(t) = 2.5 + t - t^2 : la particule ralentit, revient sur ses pas et sort du rectangle par x = 1 */
+        double delta_t = 2.0;
+        double[] state = acceleratedState(2.5, 1.0, -2.0, 0.5, delta_t);
+        BoundaryCrossing crossing = BoundaryCrossing.find(BOUNDS, state, 0.0, delta_t);
+        assertNotNull(crossing);
+        assertFalse(crossing.isEntering());
+
+        double expected = (1.0 + Math.sqrt(1.0 + 4.0 * (2.5 - 1.0))) / 2.0;
+        assertEquals(expected, crossing.getTime(), 1e-12);
+        assertEquals(1.0, crossing.getPosition().getX(), 1e-12);
+        assertEquals(0.5, crossing.getPosition().getY(), 1e-12);
+        assertEquals(1.0 - 2.0 * expected, crossing.getSpeed().getX(), 1e-12);
+    }
+
+    @Test
+    public void noCrossingWhenBothEndsAreOnTheSameSide() {
+        assertNull(BoundaryCrossing.find(BOUNDS, acceleratedState(1.5, 0.5, 0.0, 0.0, 1.0), 0.0, 1.0));
+        assertNull(BoundaryCrossing.find(BOUNDS, acceleratedState(-2.0, 0.5, 0.0, 0.0, 1.0), 0.0, 1.0));
+    }
+
+    @Test
+    public void vectorAndPrimitiveOverloadsAgree() {
+        double[] state = acceleratedState(0.2, 3.0, 1.0, 0.3, 0.5);
+        BoundaryCrossing primitive = BoundaryCrossing.find(BOUNDS, state.clone(), 4.0, 0.5);
+        BoundaryCrossing vector = BoundaryCrossing.find(BOUNDS, new SVector3d(state[0], state[1], state[2]), new SVector3d(state[3], state[4], state[5]),
+                new SVector3d(state[6], state[7], state[8]), new SVector3d(state[9], state[10], state[11]), 4.0, 0.5);
+        assertNotNull(primitive);
+        assertNotNull(vector);
+        assertEquals(primitive.getTime(), vector.getTime(), 0.0);
+        assertEquals(primitive.getPosition().getX(), vector.getPosition().getX(), 0.0);
+        assertEquals(primitive.getSpeed().getX(), vector.getSpeed().getX(), 0.0);
+    }
+}
@@ -0,0 +1,91 @@
+package physics;
+
+import math.SVector3d;
+import org.junit.Test;
+import physics.component.Particle;
+import physics.component.ParticleStore;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests de l'arbre de charges : avec un angle d'ouverture nul, le champ doit être celui de la somme directe sur toutes les particules
+ *
+ * @author Simon Tran
+ */
+public class ChargeTreeTest {
+
+    /**
+     * Permet de remplir un magasin de protons et d'électrons placés au hasard
+     *
+     * @param count Le nombre de particules
+     * @return Le magasin
+     */
+    private static ParticleStore randomStore(int count) {
+        Random random = new Random(7);
+        ParticleStore store = new ParticleStore();
+        for (int i = 0; i < count; i++) {
+            Particle particle = i % 2 == 0 ? Particle.Proton() : Particle.Electron();
+            particle.setPosition(new SVector3d(random.nextGaussian(), random.nextGaussian()));
+            store.add(particle);
+        }
+        return store;
+    }
+
+    /**
+     * Permet de calculer le champ au point (x, y, z) par la somme directe sur les particules du magasin, sans compter la particule 'sourceIndex'
+     *
+     * @param store       Le magasin de particules
+     * @param x           La composante x de la position absolue
+     * @param y           La composante y de la position absolue
+     * @param z           La composante z de la position absolue
+     * @param sourceIndex L'index de la particule qui n'est pas comptée, ou -1
+     * @return Le champ électrique [x, y, z]
+     */
+    private static double[] directSum(ParticleStore store, double x, double y, double z, int sourceIndex) {
+        double[] field = new double[3];
+        for (int i = 0; i < store.size(); i++) {
+            if (i != sourceIndex) {
+                Particle.addElectricField(store.getCharge()[i], store.getX()[i], store.getY()[i], store.getZ()[i], x, y, z, field);
+            }
+        }
+        return field;
+    }
+
+    private static void assertFieldEquals(double[] expected, double[] actual) {
+        double scale = Math.sqrt(expected[0] * expected[0] + expected[1] * expected[1] + expected[2] * expected[2]);
+        for (int k = 0; k < 3; k++) {
+            assertEquals(expected[k], actual[k], scale * 1e-9);
+        }
+    }
+
+    @Test
+    public void zeroOpeningAngleMatchesDirectSumAtParticles() {
+        ParticleStore store = randomStore(500);
+        ChargeTree tree = new ChargeTree();
+        tree.build(store);
+        assertEquals(500, tree.size());
+
+        for (int i = 0; i < store.size(); i += 7) {
+            double[] field = new double[3];
+            tree.addElectricField(store.getX()[i], store.getY()[i], store.getZ()[i], i, 0.0, field);
+            assertFieldEquals(directSum(store, store.getX()[i], store.getY()[i], store.getZ()[i], i), field);
+        }
+    }
+
+    @Test
+    public void zeroOpeningAngleMatchesDirectSumAwayFromParticles() {
+        ParticleStore store = randomStore(300);
+        ChargeTree tree = new ChargeTree();
+        tree.build(store);
+
+        Random random = new Random(11);
+        for (int i = 0; i < 50; i++) {
+            double x = random.nextGaussian() * 2.0, y = random.nextGaussian() * 2.0, z = random.nextGaussian() * 0.1;
+            double[] field = new double[3];
+            tree.addElectricField(x, y, z, -1, 0.0, field);
+            assertFieldEquals(directSum(store, x, y, z, -1), field);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package physics;
+
+import math.SVector3d;
+import org.junit.Test;
+import physics.component.ChargedShell;
+import physics.component.PhysicComponent;
+import physics.component.field.ElectricField;
+import physics.component.field.MagneticField;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests de l'erreur d'interpolation d'un FieldLattice. L'interpolation bilinéaire est d'ordre 2 :
+ * l'erreur doit être bornée par le carré de la taille des cellules et diminuer d'environ quatre fois lorsque la résolution double
+ *
+ * @author Simon Tran
+ */
+public class FieldLatticeTest {
+
+    private static final double RADIUS = 1.0;
+
+    /**
+     * Permet de créer une coquille chargée à l'origine et un grand champ magnétique qui étend la grille autour d'elle
+     *
+     * @return La liste des composants
+     */
+    private static ArrayList<PhysicComponent> shellComponents() {
+        ArrayList<PhysicComponent> components = new ArrayList<>();
+        ChargedShell shell = new ChargedShell();
+        shell.setRadius(RADIUS);
+        shell.setPosition(new SVector3d(0.0, 0.0));
+        components.add(shell);
+
+        MagneticField field = new MagneticField();
+        field.setPosition(new SVector3d(-10.0 * RADIUS, -10.0 * RADIUS));
+        field.setSize(new SVector3d(20.0 * RADIUS, 20.0 * RADIUS));
+        field.setIntensity(1e-3);
+        components.add(field);
+        return components;
+    }
+
+    /**
+     * Permet de calculer la plus grande erreur relative du champ électrique interpolé à des points placés au hasard entre 2 et 3 rayons de la coquille
+     *
+     * @param components La liste des composants
+     * @param lattice    La grille
+     * @return L'erreur relative
+     */
+    private static double maxRelativeError(ArrayList<PhysicComponent> components, FieldLattice lattice) {
+        Random random = new Random(5);
+        double maxError = 0.0;
+        for (int i = 0; i < 200; i++) {
+            double r = RADIUS * (2.0 + random.nextDouble()), angle = 2.0 * Math.PI * random.nextDouble();
+            double x = r * Math.cos(angle), y = r * Math.sin(angle);
+            assertTrue(lattice.contains(x, y));
+
+            double[] exact = new double[3], interpolated = new double[3];
+            for (PhysicComponent component : components) {
+                component.addElectricField(x, y, 0.0, 0.0, exact);
+            }
+            lattice.addElectricField(x, y, interpolated);
+            double norm = Math.hypot(exact[0], exact[1]);
+            maxError = Math.max(maxError, Math.hypot(interpolated[0] - exact[0], interpolated[1] - exact[1]) / norm);
+        }
+        return maxError;
+    }
+
+    @Test
+    public void interpolationErrorIsBoundedBySquaredCellSize() {
+        ArrayList<PhysicComponent> components = shellComponents();
+        FieldLattice lattice = new FieldLattice(components, 128);
+        double h = lattice.getCellSize();
+
+        /* Pour E = kQ / r^2, les dérivées secondes valent au plus environ 12 |E| / r^2 et l'erreur bilinéaire est au plus h^2 / 8 fois leur somme */
+        double closest = 2.0 * RADIUS - h * Math.sqrt(2.0);
+        double bound = 3.0 * (h / closest) * (h / closest);
+        assertTrue(maxRelativeError(components, lattice) <= bound);
+    }
+
+    @Test
+    public void interpolationErrorIsSecondOrder() {
+        ArrayList<PhysicComponent> components = shellComponents();
+        double coarse = maxRelativeError(components, new FieldLattice(components, 64));
+        double fine = maxRelativeError(components, new FieldLattice(components, 128));
+        assertTrue(fine < coarse / 3.0);
+    }
+
+    @Test
+    public void uniformFieldIsExactAwayFromItsEdges() {
+        ArrayList<PhysicComponent> components = new ArrayList<>();
+        ElectricField field = new ElectricField();
+        field.setPosition(new SVector3d(0.0, 0.0));
+        field.setSize(new SVector3d(4.0, 2.0));
+        field.setFieldDirection(new SVector3d(1.0, 2.0));
+        field.setIntensity(5.0);
+        components.add(field);
+
+        FieldLattice lattice = new FieldLattice(components, 64);
+        double h = lattice.getCellSize();
+        double[] exact = new double[3];
+        field.addElectricField(2.0, 1.0, 0.0, 0.0, exact);
+        for (double x = 2.0 * h; x <= 4.0 - 2.0 * h; x += 0.37) {
+            for (double y = 2.0 * h; y <= 2.0 - 2.0 * h; y += 0.23) {
+                double[] interpolated = new double[3];
+                lattice.addElectricField(x, y, interpolated);
+                for (int k = 0; k < 3; k++) {
+                    assertEquals(exact[k], interpolated[k], 1e-12 * field.getIntensity());
+                }
+            }
+        }
+    }
+}
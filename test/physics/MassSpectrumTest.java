@@ -0,0 +1,101 @@
+package physics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests de la largeur à mi-hauteur et du taux de transmission d'un MassSpectrum
+ *
+ * @author Simon Tran
+ */
+public class MassSpectrumTest {
+
+    private static final double TOLERANCE = 1e-12;
+
+    /**
+     * Permet de remplir un spectre dont les classes commencent à 0 kg et ont une largeur de 1 kg
+     *
+     * @param counts Les comptes de chaque classe
+     * @return Le spectre
+     */
+    private static MassSpectrum spectrum(int... counts) {
+        MassSpectrum spectrum = new MassSpectrum(0.0, counts.length, counts.length);
+        for (int bin = 0; bin < counts.length; bin++) {
+            for (int i = 0; i < counts[bin]; i++) {
+                spectrum.record(spectrum.getBinCenter(bin));
+            }
+        }
+        return spectrum;
+    }
+
+    @Test
+    public void fullWidthHalfMaximumOfTriangularPeak() {
+        /* Les bords à mi-hauteur sont à une classe de chaque côté du pic */
+        MassSpectrum spectrum = spectrum(0, 0, 2, 4, 2, 0, 0);
+        assertEquals(3.5, spectrum.getPeakMass(), TOLERANCE);
+        assertEquals(2.0, spectrum.getFullWidthHalfMaximum(), TOLERANCE);
+        assertEquals(3.5 / 2.0, spectrum.getResolution(), TOLERANCE);
+    }
+
+    @Test
+    public void fullWidthHalfMaximumIsInterpolatedBetweenBins() {
+        /* Mi-hauteur à 4 : les bords sont interpolés entre les classes 1 et 2 et entre les classes 4 et 5 */
+        MassSpectrum spectrum = spectrum(0, 1, 7, 8, 6, 4, 0);
+        double expected = (4 - 2) + (7 - 4) / (7.0 - 1.0) + (6 - 4) / (6.0 - 4.0);
+        assertEquals(expected, spectrum.getFullWidthHalfMaximum(), TOLERANCE);
+    }
+
+    @Test
+    public void fullWidthHalfMaximumIsAtLeastOneBin() {
+        MassSpectrum spectrum = spectrum(0, 0, 10, 0, 0);
+        assertEquals(1.0, spectrum.getFullWidthHalfMaximum(), TOLERANCE);
+    }
+
+    @Test
+    public void emptySpectrumHasNoPeak() {
+        MassSpectrum spectrum = new MassSpectrum(0.0, 1.0, 10);
+        assertTrue(Double.isNaN(spectrum.getPeakMass()));
+        assertTrue(Double.isNaN(spectrum.getFullWidthHalfMaximum()));
+        assertEquals(0.0, spectrum.getTransmission(), 0.0);
+    }
+
+    @Test
+    public void transmissionCountsDetectedIons() {
+        MassSpectrum spectrum = new MassSpectrum(0.0, 1.0, 10);
+        spectrum.record(0.5);
+        spectrum.record(0.25);
+        /* Une masse à l'extérieur de l'histogramme est quand même détectée */
+        spectrum.record(2.0);
+        spectrum.recordStopped();
+        spectrum.recordLost();
+
+        assertEquals(5, spectrum.getFiredCount());
+        assertEquals(3, spectrum.getDetectedCount());
+        assertEquals(1, spectrum.getOverflow());
+        assertEquals(3.0 / 5.0, spectrum.getTransmission(), TOLERANCE);
+    }
+
+    @Test
+    public void mergeAddsCountsAndTransmission() {
+        MassSpectrum first = new MassSpectrum(0.0, 1.0, 10);
+        first.record(0.55);
+        first.recordStopped();
+        MassSpectrum second = new MassSpectrum(0.0, 1.0, 10);
+        second.record(0.55);
+        second.record(0.55);
+        second.recordLost();
+
+        first.merge(second);
+        assertEquals(3, first.getCounts()[5]);
+        assertEquals(5, first.getFiredCount());
+        assertEquals(3.0 / 5.0, first.getTransmission(), TOLERANCE);
+        assertEquals(0.55, first.getMean(), TOLERANCE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mergeRejectsDifferentBins() {
+        new MassSpectrum(0.0, 1.0, 10).merge(new MassSpectrum(0.0, 1.0, 20));
+    }
+}
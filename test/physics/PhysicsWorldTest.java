@@ -0,0 +1,99 @@
+package physics;
+
+import math.SVector3d;
+import org.junit.Test;
+import physics.component.ChargedShell;
+import physics.component.Particle;
+import physics.component.field.ElectricField;
+import physics.component.field.MagneticField;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests des algorithmes de PhysicsWorld : RK4_PRIMITIVE fait les mêmes calculs que RK4 sans créer de vecteurs,
+ * les trajectoires doivent donc être les mêmes
+ *
+ * @author Simon Tran
+ */
+public class PhysicsWorldTest {
+
+    /**
+     * Permet de créer un monde avec des champs uniformes, une coquille chargée, un proton fixe et des électrons qui interagissent
+     *
+     * @param algorithm L'algorithme du monde
+     * @return Le monde
+     */
+    private static PhysicsWorld world(PhysicsWorld.Algorithm algorithm) {
+        PhysicsWorld world = new PhysicsWorld();
+        world.setAlgorithm(algorithm);
+
+        ElectricField electricField = new ElectricField();
+        electricField.setPosition(new SVector3d(0.0, 0.0));
+        electricField.setIntensity(3.0);
+        electricField.setFieldDirection(new SVector3d(1.0, 1.0));
+        world.add(electricField);
+
+        MagneticField magneticField = new MagneticField();
+        magneticField.setPosition(new SVector3d(1.0, 0.0));
+        magneticField.setIntensity(1e-5);
+        world.add(magneticField);
+
+        ChargedShell shell = new ChargedShell();
+        shell.setPosition(new SVector3d(4.0, 4.0));
+        world.add(shell);
+
+        Particle fixed = Particle.Proton();
+        fixed.setPosition(new SVector3d(1.5, 1.5));
+        fixed.setMoveable(false);
+        world.add(fixed);
+
+        for (int i = 0; i < 20; i++) {
+            Particle electron = Particle.Electron();
+            electron.setPosition(new SVector3d(0.1 * i, 0.05 * i));
+            electron.setSpeed(new SVector3d(1e5, 2e4 * i));
+            electron.setCreatesField(i % 3 != 0);
+            world.add(electron);
+        }
+        return world;
+    }
+
+    private static void run(PhysicsWorld world, int steps, double delta_t) {
+        double time = 0.0;
+        for (int i = 0; i < steps; i++) {
+            world.step(delta_t, time);
+            time += delta_t;
+        }
+    }
+
+    @Test
+    public void primitiveRungeKuttaMatchesRungeKutta() {
+        PhysicsWorld vector = world(PhysicsWorld.Algorithm.RK4);
+        PhysicsWorld primitive = world(PhysicsWorld.Algorithm.RK4_PRIMITIVE);
+        run(vector, 2000, 1e-8);
+        run(primitive, 2000, 1e-8);
+
+        List<Particle> expected = vector.getParticleList(), actual = primitive.getParticleList();
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            SVector3d expectedPosition = expected.get(i).getPosition(), expectedSpeed = expected.get(i).getSpeed();
+            SVector3d actualPosition = actual.get(i).getPosition(), actualSpeed = actual.get(i).getSpeed();
+            double positionTolerance = 1e-9 * Math.max(1.0, expectedPosition.modulus());
+            double speedTolerance = 1e-9 * Math.max(1.0, expectedSpeed.modulus());
+            assertEquals(expectedPosition.getX(), actualPosition.getX(), positionTolerance);
+            assertEquals(expectedPosition.getY(), actualPosition.getY(), positionTolerance);
+            assertEquals(expectedSpeed.getX(), actualSpeed.getX(), speedTolerance);
+            assertEquals(expectedSpeed.getY(), actualSpeed.getY(), speedTolerance);
+        }
+    }
+
+    @Test
+    public void fixedParticleDoesNotMove() {
+        PhysicsWorld world = world(PhysicsWorld.Algorithm.RK4_PRIMITIVE);
+        Particle fixed = world.getParticleList().get(0);
+        run(world, 100, 1e-8);
+        assertEquals(1.5, fixed.getPosition().getX(), 0.0);
+        assertEquals(1.5, fixed.getPosition().getY(), 0.0);
+    }
+}
@@ -0,0 +1,119 @@
+package physics.component;
+
+import math.SVector3d;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests du lien entre un ParticleStore et ses particules : une particule ajoutée devient une façade du magasin
+ * et récupère l'état du magasin lorsqu'elle en est retirée
+ *
+ * @author Simon Tran
+ */
+public class ParticleStoreTest {
+
+    private static Particle particle(double x, double y, double vx, double vy) {
+        Particle particle = Particle.Proton();
+        particle.setPosition(new SVector3d(x, y));
+        particle.setSpeed(new SVector3d(vx, vy));
+        return particle;
+    }
+
+    @Test
+    public void addCopiesStateAndAttaches() {
+        ParticleStore store = new ParticleStore();
+        Particle particle = particle(1.0, 2.0, 3.0, 4.0);
+        particle.setMoveable(false);
+
+        int index = store.add(particle);
+        assertEquals(0, index);
+        assertSame(store, particle.getStore());
+        assertEquals(index, particle.getStoreIndex());
+        assertEquals(1.0, store.getX()[index], 0.0);
+        assertEquals(2.0, store.getY()[index], 0.0);
+        assertEquals(3.0, store.getVx()[index], 0.0);
+        assertEquals(4.0, store.getVy()[index], 0.0);
+        assertEquals(particle.getMass(), store.getMass()[index], 0.0);
+        assertEquals(particle.getCharge(), store.getCharge()[index], 0.0);
+        assertFalse(store.hasFlag(index, ParticleStore.MOVEABLE));
+    }
+
+    @Test
+    public void attachedParticleReadsAndWritesTheStore() {
+        ParticleStore store = new ParticleStore();
+        Particle particle = particle(1.0, 2.0, 3.0, 4.0);
+        int index = store.add(particle);
+
+        store.getX()[index] = 5.0;
+        store.getVy()[index] = -6.0;
+        assertEquals(5.0, particle.getPosition().getX(), 0.0);
+        assertEquals(-6.0, particle.getSpeed().getY(), 0.0);
+
+        particle.setSpeed(new SVector3d(7.0, 8.0));
+        assertEquals(7.0, store.getVx()[index], 0.0);
+        assertEquals(8.0, store.getVy()[index], 0.0);
+    }
+
+    @Test
+    public void removeDetachesWithTheStoreState() {
+        ParticleStore store = new ParticleStore();
+        Particle first = particle(1.0, 0.0, 0.0, 0.0);
+        Particle second = particle(2.0, 0.0, 0.0, 0.0);
+        Particle third = particle(3.0, 0.0, 0.0, 0.0);
+        store.add(first);
+        store.add(second);
+        store.add(third);
+        store.getX()[1] = 20.0;
+        store.getVx()[1] = 21.0;
+
+        store.remove(1);
+        assertNull(second.getStore());
+        assertEquals(20.0, second.getPosition().getX(), 0.0);
+        assertEquals(21.0, second.getSpeed().getX(), 0.0);
+
+        /* Les particules suivantes sont décalées et gardent leur état */
+        assertEquals(2, store.size());
+        assertSame(third, store.getParticle(1));
+        assertEquals(1, third.getStoreIndex());
+        assertEquals(3.0, third.getPosition().getX(), 0.0);
+    }
+
+    @Test
+    public void detachedParticleCanBeAddedAgain() {
+        ParticleStore store = new ParticleStore();
+        Particle particle = particle(1.0, 2.0, 3.0, 4.0);
+        store.add(particle);
+        store.getY()[0] = 9.0;
+        store.clear();
+        assertNull(particle.getStore());
+        assertEquals(0, store.size());
+
+        ParticleStore other = new ParticleStore();
+        int index = other.add(particle);
+        assertSame(other, particle.getStore());
+        assertEquals(9.0, other.getY()[index], 0.0);
+        assertEquals(3.0, other.getVx()[index], 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void particleCannotBelongToTwoStores() {
+        Particle particle = particle(0.0, 0.0, 0.0, 0.0);
+        new ParticleStore().add(particle);
+        new ParticleStore().add(particle);
+    }
+
+    @Test
+    public void flagsFollowTheParticle() {
+        ParticleStore store = new ParticleStore();
+        Particle particle = particle(0.0, 0.0, 0.0, 0.0);
+        particle.setCreatesField(false);
+        int index = store.add(particle);
+        assertTrue(store.hasFlag(index, ParticleStore.MOVEABLE));
+        assertFalse(store.hasFlag(index, ParticleStore.CREATES_FIELD));
+    }
+}